@@ -2,16 +2,42 @@ package com.trans.opengles;
 
 import android.app.Application;
 
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderSources;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * @author Tom灿
  * @description:
  * @date :2023/11/6 16:27
  */
 public class MyApplication extends Application {
+    //示例用到的着色器源码
+    private static final int[] SHADERS = {
+            R.raw.vertex_shader, R.raw.fragment_shader, R.raw.include_transform, R.raw.include_camera,
+            R.raw.vertex_globe_shader, R.raw.vertex_ball_shader, R.raw.vertex_cylinder_shader
+    };
     public static Application application;
     @Override
     public void onCreate() {
         super.onCreate();
         this.application = this;
+        //链接过的着色器程序以二进制保存在缓存目录,之后启动不再编译
+        ProgramCache.getInstance().setBinaryDirectory(new File(getCacheDir(), "programs"));
+        //在后台线程预读着色器源码,打开示例时GL线程不再读取资源
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> ShaderSources.getInstance().preload(SHADERS));
+        executor.shutdown();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        //内存紧张时按级别淘汰缓存的网格
+        MeshCache.getInstance().onTrimMemory(level);
     }
 }
@@ -0,0 +1,135 @@
+package com.trans.opengles.mesh;
+
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 模型空间中的包围体：轴对齐包围盒(AABB)以及以包围盒中心为球心、包住所有顶点的包围球。
+ * 由网格的顶点位置计算，用于视锥剔除：先用包围球快速判断，再用包围盒精确判断。不可变,可在线程间共享
+ * @date :2026/10/19 2:00
+ */
+public final class Bounds {
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+    private final float radius;
+
+    public Bounds(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float radius) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.radius = radius;
+    }
+
+    /**
+     * 所有顶点的包围体
+     *
+     * @param positions 顶点位置(x,y,z),从position开始
+     */
+    public static Bounds of(FloatBuffer positions) {
+        return of(positions, null, 0, positions.remaining() / 3, -1);
+    }
+
+    /**
+     * 一段索引引用的顶点的包围体,用于网格中的分块
+     *
+     * @param positions 顶点位置(x,y,z),从position开始
+     * @param indices   索引,为null时直接取第first个顶点开始的count个顶点
+     * @param first     第一个索引
+     * @param count     索引个数
+     * @param restart   图元重启索引,跳过；不使用时为-1
+     * @return 没有顶点时为null
+     */
+    public static Bounds of(FloatBuffer positions, int[] indices, int first, int count, int restart) {
+        int base = positions.position();
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = first; i < first + count; i++) {
+            int v = indices == null ? i : indices[i];
+            if (v == restart) {
+                continue;
+            }
+            float x = positions.get(base + v * 3);
+            float y = positions.get(base + v * 3 + 1);
+            float z = positions.get(base + v * 3 + 2);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        if (minX > maxX) {
+            return null;
+        }
+        //第二遍：到包围盒中心的最远距离,比包围盒半对角线更紧
+        float cx = (minX + maxX) / 2, cy = (minY + maxY) / 2, cz = (minZ + maxZ) / 2;
+        float radiusSquared = 0f;
+        for (int i = first; i < first + count; i++) {
+            int v = indices == null ? i : indices[i];
+            if (v == restart) {
+                continue;
+            }
+            float dx = positions.get(base + v * 3) - cx;
+            float dy = positions.get(base + v * 3 + 1) - cy;
+            float dz = positions.get(base + v * 3 + 2) - cz;
+            radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+        }
+        return new Bounds(minX, minY, minZ, maxX, maxY, maxZ, (float) Math.sqrt(radiusSquared));
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMinZ() {
+        return minZ;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public float getMaxZ() {
+        return maxZ;
+    }
+
+    public float getCenterX() {
+        return (minX + maxX) / 2;
+    }
+
+    public float getCenterY() {
+        return (minY + maxY) / 2;
+    }
+
+    public float getCenterZ() {
+        return (minZ + maxZ) / 2;
+    }
+
+    /**
+     * 包围球半径,球心为包围盒中心
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    @Override
+    public String toString() {
+        return "Bounds[(" + minX + ", " + minY + ", " + minZ + ") - (" + maxX + ", " + maxY + ", " + maxZ
+                + "), r=" + radius + "]";
+    }
+}
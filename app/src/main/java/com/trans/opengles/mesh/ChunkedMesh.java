@@ -0,0 +1,58 @@
+package com.trans.opengles.mesh;
+
+/**
+ * @author Tom灿
+ * @description: 按分块组织索引的网格：网格数据以及各分块的索引区间和包围体。
+ * 分块由生成器在生成时给出，运行时不需要读回索引计算包围体，可直接用于分块剔除
+ * @date :2026/10/19 2:30
+ */
+public final class ChunkedMesh {
+    private final MeshData data;
+    private final Chunk[] chunks;
+
+    public ChunkedMesh(MeshData data, Chunk[] chunks) {
+        this.data = data;
+        this.chunks = chunks;
+    }
+
+    public MeshData getData() {
+        return data;
+    }
+
+    public Chunk[] getChunks() {
+        return chunks;
+    }
+
+    /**
+     * 一个分块：网格索引中的一段连续区间及其模型空间包围体
+     */
+    public static final class Chunk {
+        private final int first;
+        private final int count;
+        private final Bounds bounds;
+
+        public Chunk(int first, int count, Bounds bounds) {
+            this.first = first;
+            this.count = count;
+            this.bounds = bounds;
+        }
+
+        /**
+         * 第一个索引
+         */
+        public int getFirst() {
+            return first;
+        }
+
+        /**
+         * 索引个数,不含分块之间的重启索引
+         */
+        public int getCount() {
+            return count;
+        }
+
+        public Bounds getBounds() {
+            return bounds;
+        }
+    }
+}
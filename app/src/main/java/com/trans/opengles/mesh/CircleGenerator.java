@@ -0,0 +1,43 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.FloatBufferBuilder;
+
+/**
+ * @author Tom灿
+ * @description: 圆(GL_TRIANGLE_FAN)生成器：圆心 + 首尾闭合的圆周顶点,顶点带统一的颜色
+ * @date :2026/10/18 16:20
+ */
+public final class CircleGenerator {
+
+    private CircleGenerator() {
+    }
+
+    /**
+     * 创建顶点位置和颜色
+     *
+     * @param radius 半径
+     * @param n      圆周切分份数
+     * @param rgba   顶点颜色
+     */
+    public static MeshData create(float radius, int n, float[] rgba) {
+        // 圆心 + 首尾闭合的n+1个圆周顶点
+        FloatBufferBuilder data = new FloatBufferBuilder((n + 2) * 3);
+        data.put(0.0f, 0.0f, 0.0f);             //设置圆心坐标
+        //圆周顶点的正弦/余弦取自共享的切分表,第n个顶点与第0个顶点完全重合
+        RingBasis basis = RingBasis.of(n);
+        for (int i = 0; i <= n; i++) {
+            data.put(radius * basis.sin(i), radius * basis.cos(i), 0.0f);
+        }
+
+        //处理各个顶点的颜色
+        int count = data.size() / 3;
+        FloatBufferBuilder colors = new FloatBufferBuilder(count * 4);
+        for (int i = 0; i < count; i++) {
+            colors.put(rgba);
+        }
+        return new MeshData(GLES30.GL_TRIANGLE_FAN, data.build(), null, null, colors.build(),
+                null, 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.FloatBufferBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 圆锥体生成器：侧面和底面各是一个GL_TRIANGLE_FAN,顶点带颜色
+ * @date :2026/10/18 16:20
+ */
+public final class ConeGenerator {
+    private static final int BYTES_PER_FLOAT = 4;
+
+    private ConeGenerator() {
+    }
+
+    /**
+     * 创建圆锥体侧面顶点位置和颜色
+     *
+     * @param radius 半径
+     * @param n      圆周切分份数
+     */
+    public static MeshData create(float radius, int n) {
+        // 锥顶 + 首尾闭合的n+1个圆周顶点
+        FloatBufferBuilder data = new FloatBufferBuilder((n + 2) * 3);
+        data.put(0.0f, 0.0f, -0.5f);             //设置圆锥顶点坐标
+        //圆周顶点的正弦/余弦取自共享的切分表,第n个顶点与第0个顶点完全重合
+        RingBasis basis = RingBasis.of(n);
+        for (int i = 0; i <= n; i++) {
+            data.put(radius * basis.sin(i), radius * basis.cos(i), 0.0f);
+        }
+
+        //处理各个顶点的颜色：锥顶为暗红色,圆周为白色
+        int count = data.size() / 3;
+        FloatBufferBuilder colors = new FloatBufferBuilder(count * 4);
+        colors.put(0.5f, 0.0f, 0.0f, 1.0f);
+        for (int i = 1; i < count; i++) {
+            colors.put(1.0f, 1.0f, 1.0f, 1.0f);
+        }
+        return new MeshData(GLES30.GL_TRIANGLE_FAN, data.build(), null, null, colors.build(),
+                null, 0);
+    }
+
+    /**
+     * 创建圆锥体底面顶点位置：与侧面相同,只是锥顶落回底面(z=0)变为圆心。
+     * 侧面和底面的顶点数量相同,共用同一份颜色数据
+     */
+    public static MeshData createBase(MeshData cone) {
+        FloatBuffer coneBuffer = cone.getPositions();
+        FloatBuffer baseBuffer = ByteBuffer.allocateDirect(coneBuffer.remaining() * BYTES_PER_FLOAT)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        baseBuffer.put(coneBuffer.duplicate());
+        baseBuffer.put(2, 0.0f);
+        baseBuffer.position(0);
+        return new MeshData(GLES30.GL_TRIANGLE_FAN, baseBuffer, null, null, cone.getColors(),
+                null, 0);
+    }
+}
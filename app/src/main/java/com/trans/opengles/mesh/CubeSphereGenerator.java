@@ -0,0 +1,81 @@
+package com.trans.opengles.mesh;
+
+/**
+ * @author Tom灿
+ * @description: 立方体球生成器。立方体六个面各切分为n*n的网格,按球面化映射
+ * (x*sqrt(1-y²/2-z²/2+y²z²/3))投影到球面,比直接归一化的网格分布更均匀；
+ * 没有极点退化三角形,纹理坐标使用与UV球体一致的经纬度映射
+ * @date :2026/10/18 17:40
+ */
+public final class CubeSphereGenerator {
+    //六个面的法线方向以及面内的两个轴,满足 U x V = N,保证逆时针为正面
+    private static final float[][] FACES = {
+            {1, 0, 0, 0, 1, 0, 0, 0, 1},
+            {-1, 0, 0, 0, 0, 1, 0, 1, 0},
+            {0, 1, 0, 0, 0, 1, 1, 0, 0},
+            {0, -1, 0, 1, 0, 0, 0, 0, 1},
+            {0, 0, 1, 1, 0, 0, 0, 1, 0},
+            {0, 0, -1, 0, 1, 0, 1, 0, 0}
+    };
+
+    private CubeSphereGenerator() {
+    }
+
+    /**
+     * 每个面切分n*n时的三角形个数
+     */
+    public static int triangleCount(int n) {
+        return 12 * n * n;
+    }
+
+    /**
+     * 生成立方体球
+     *
+     * @param radius      半径
+     * @param n           每个面每条边的切分数
+     * @param withNormals 是否生成法线
+     */
+    public static MeshData create(float radius, int n, boolean withNormals) {
+        int stride = n + 1;
+        int vertexCount = 6 * stride * stride;
+        float[] unit = new float[vertexCount * 3];
+        int[] triangles = new int[triangleCount(n) * 3];
+        int v = 0;
+        int t = 0;
+        for (float[] face : FACES) {
+            int base = v;
+            for (int j = 0; j <= n; j++) {
+                float b = 2f * j / n - 1;
+                for (int i = 0; i <= n; i++) {
+                    float a = 2f * i / n - 1;
+                    float x = face[0] + a * face[3] + b * face[6];
+                    float y = face[1] + a * face[4] + b * face[7];
+                    float z = face[2] + a * face[5] + b * face[8];
+                    float x2 = x * x;
+                    float y2 = y * y;
+                    float z2 = z * z;
+                    unit[v * 3] = x * (float) Math.sqrt(1 - y2 / 2 - z2 / 2 + y2 * z2 / 3);
+                    unit[v * 3 + 1] = y * (float) Math.sqrt(1 - z2 / 2 - x2 / 2 + z2 * x2 / 3);
+                    unit[v * 3 + 2] = z * (float) Math.sqrt(1 - x2 / 2 - y2 / 2 + x2 * y2 / 3);
+                    v++;
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                for (int i = 0; i < n; i++) {
+                    int i0 = base + j * stride + i;
+                    int i1 = i0 + 1;
+                    int i2 = i0 + stride + 1;
+                    int i3 = i0 + stride;
+                    triangles[t++] = i0;
+                    triangles[t++] = i1;
+                    triangles[t++] = i2;
+                    triangles[t++] = i0;
+                    triangles[t++] = i2;
+                    triangles[t++] = i3;
+                }
+            }
+        }
+        return EquirectangularMapper.build(unit, vertexCount, triangles, triangles.length / 3,
+                radius, withNormals);
+    }
+}
@@ -0,0 +1,122 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.FloatBufferBuilder;
+import com.trans.opengles.utils.IndexBufferBuilder;
+
+/**
+ * @author Tom灿
+ * @description: 圆柱体生成器：侧面、顶部、底部顶点依次存放在同一份顶点数据中,
+ * 按{@link #sideCount(int)}、{@link #capCount(int)}分段以GL_TRIANGLE_FAN绘制；
+ * 或者由{@link #createStrip(float, float, int)}生成一条带图元重启索引的三角形带,一次绘制调用画完
+ * @date :2026/10/18 16:20
+ */
+public final class CylinderGenerator {
+
+    private CylinderGenerator() {
+    }
+
+    /**
+     * 侧面顶点个数：每圈首尾闭合共n+1个顶点,上下各一圈
+     */
+    public static int sideCount(int n) {
+        return (n + 1) * 2;
+    }
+
+    /**
+     * 顶部或底部顶点个数：圆心 + 首尾闭合的n+1个圆周顶点
+     */
+    public static int capCount(int n) {
+        return n + 2;
+    }
+
+    /**
+     * @param radius 半径
+     * @param height 高度,底部位于z=0
+     * @param n      圆周切分份数
+     */
+    public static MeshData create(float radius, float height, int n) {
+        FloatBufferBuilder data = new FloatBufferBuilder((sideCount(n) + capCount(n) * 2) * 3);
+        //圆周顶点的正弦/余弦取自共享的切分表,首尾严格闭合
+        RingBasis basis = RingBasis.of(n);
+        // 侧面
+        for (int i = 0; i <= n; i++) {
+            float x = radius * basis.sin(i);
+            float y = radius * basis.cos(i);
+            data.put(x, y, height);
+            data.put(x, y, 0.0f);
+        }
+        // 顶部、底部
+        putCap(data, basis, radius, height);
+        putCap(data, basis, radius, 0.0f);
+        return new MeshData(GLES30.GL_TRIANGLE_FAN, data.build(), null, null, null, 0);
+    }
+
+    /**
+     * 三角形带的索引个数：侧面2 * (n + 1)个,顶部、底部各n个,中间两个重启索引
+     */
+    public static int stripIndexCount(int n) {
+        return 4 * n + 4;
+    }
+
+    /**
+     * 生成以GL_TRIANGLE_STRIP绘制的圆柱体,顶点只有侧面上下两圈(与create()的侧面顶点相同)。
+     * 侧面是一条环绕的四边形带；顶部、底部用同一圈顶点按之字形顺序组成三角形带,不需要圆心。
+     * 各段之间用重启索引分隔,所有三角形从外侧看都是逆时针
+     *
+     * @param radius 半径
+     * @param height 高度,底部位于z=0
+     * @param n      圆周切分份数
+     */
+    public static MeshData createStrip(float radius, float height, int n) {
+        int vertexCount = sideCount(n);
+        FloatBufferBuilder data = new FloatBufferBuilder(vertexCount * 3);
+        RingBasis basis = RingBasis.of(n);
+        //顶部第i个顶点为2i,底部第i个顶点为2i + 1
+        for (int i = 0; i <= n; i++) {
+            float x = radius * basis.sin(i);
+            float y = radius * basis.cos(i);
+            data.put(x, y, height);
+            data.put(x, y, 0.0f);
+        }
+
+        IndexBufferBuilder indices = new IndexBufferBuilder(stripIndexCount(n), vertexCount, true);
+        // 侧面：底、顶交替
+        for (int i = 0; i <= n; i++) {
+            indices.put(2 * i + 1).put(2 * i);
+        }
+        indices.restart();
+        // 顶部：从+z方向看圆周顶点顺时针排列,之字形先取逆时针一侧
+        putZigzag(indices, n, 0, true);
+        indices.restart();
+        // 底部：从-z方向看为逆时针,之字形先取顺时针一侧
+        putZigzag(indices, n, 1, false);
+        return new MeshData(GLES30.GL_TRIANGLE_STRIP, data.build(), null, null,
+                indices.build(), indices.getType());
+    }
+
+    /**
+     * 把一圈n个顶点按之字形顺序写成三角形带：0, n-1, 1, n-2, ...(或0, 1, n-1, 2, ...)
+     *
+     * @param base          该圈第0个顶点的索引,圈上相邻顶点的索引相差2
+     * @param backwardFirst 是否先取第n-1个顶点
+     */
+    private static void putZigzag(IndexBufferBuilder indices, int n, int base, boolean backwardFirst) {
+        indices.put(base);
+        int lo = 1;
+        int hi = n - 1;
+        boolean backward = backwardFirst;
+        while (lo <= hi) {
+            indices.put(base + 2 * (backward ? hi-- : lo++));
+            backward = !backward;
+        }
+    }
+
+    private static void putCap(FloatBufferBuilder data, RingBasis basis, float radius, float z) {
+        data.put(0.0f, 0.0f, z);
+        for (int i = 0; i <= basis.getSegments(); i++) {
+            data.put(radius * basis.sin(i), radius * basis.cos(i), z);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.FloatBufferBuilder;
+import com.trans.opengles.utils.IndexBufferBuilder;
+
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 为单位球面上的三角网格生成等距圆柱(经纬度)纹理坐标,与UV球体的映射一致：
+ * s=-经度/2PI,t=极角/PI(纹理使用GL_REPEAT,s的整数偏移不影响采样)。
+ * 跨越经度接缝的三角形使用s+1的副本顶点,含极点的三角形各自使用一份s取另外两个顶点平均值的极点副本,
+ * 避免纹理在接缝处倒卷、在极点处扭曲
+ * @date :2026/10/18 17:40
+ */
+final class EquirectangularMapper {
+    private static final float INV_TWO_PI = (float) (0.5 / Math.PI);
+    private static final float INV_PI = (float) (1.0 / Math.PI);
+    private static final float POLE_EPSILON = 1e-6f;
+
+    private EquirectangularMapper() {
+    }
+
+    /**
+     * @param unit          单位球面上的顶点(x,y,z)
+     * @param vertexCount   顶点个数
+     * @param triangles     三角形索引(逆时针为正面)
+     * @param triangleCount 三角形个数
+     * @param radius        半径
+     * @param withNormals   是否生成法线
+     */
+    static MeshData build(float[] unit, int vertexCount, int[] triangles, int triangleCount,
+                          float radius, boolean withNormals) {
+        float[] s = new float[vertexCount];
+        float[] t = new float[vertexCount];
+        boolean[] pole = new boolean[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            float x = unit[i * 3];
+            float y = unit[i * 3 + 1];
+            float z = unit[i * 3 + 2];
+            pole[i] = x * x + y * y < POLE_EPSILON * POLE_EPSILON;
+            s[i] = pole[i] ? 0 : (float) -Math.atan2(y, x) * INV_TWO_PI;
+            t[i] = (float) Math.acos(Math.max(-1f, Math.min(1f, z))) * INV_PI;
+        }
+
+        //第一遍：确定每个三角形实际引用的顶点,必要时追加副本顶点(记录来源顶点和s坐标)
+        int[] copySource = new int[vertexCount + triangleCount * 3];
+        float[] copyS = new float[copySource.length];
+        int[] seamCopy = new int[vertexCount];
+        Arrays.fill(seamCopy, -1);
+        int[] mapped = new int[triangleCount * 3];
+        int outCount = vertexCount;
+        float[] us = new float[3];
+        for (int f = 0; f < triangleCount; f++) {
+            int base = f * 3;
+            float maxS = -Float.MAX_VALUE;
+            for (int k = 0; k < 3; k++) {
+                int v = triangles[base + k];
+                if (!pole[v]) {
+                    maxS = Math.max(maxS, s[v]);
+                }
+            }
+            float sum = 0;
+            int count = 0;
+            for (int k = 0; k < 3; k++) {
+                int v = triangles[base + k];
+                mapped[base + k] = v;
+                if (pole[v]) {
+                    continue;
+                }
+                us[k] = s[v];
+                if (maxS - s[v] > 0.5f) {
+                    //跨越接缝：使用s+1的副本
+                    us[k] = s[v] + 1;
+                    if (seamCopy[v] < 0) {
+                        copySource[outCount - vertexCount] = v;
+                        copyS[outCount - vertexCount] = us[k];
+                        seamCopy[v] = outCount++;
+                    }
+                    mapped[base + k] = seamCopy[v];
+                }
+                sum += us[k];
+                count++;
+            }
+            for (int k = 0; k < 3; k++) {
+                int v = triangles[base + k];
+                if (pole[v] && count > 0) {
+                    //极点副本：每个三角形一份
+                    copySource[outCount - vertexCount] = v;
+                    copyS[outCount - vertexCount] = sum / count;
+                    mapped[base + k] = outCount++;
+                }
+            }
+        }
+
+        //第二遍：写出顶点和索引
+        FloatBufferBuilder positions = new FloatBufferBuilder(outCount * 3);
+        FloatBufferBuilder texCoords = new FloatBufferBuilder(outCount * 2);
+        FloatBufferBuilder normals = withNormals ? new FloatBufferBuilder(outCount * 3) : null;
+        for (int i = 0; i < vertexCount; i++) {
+            putVertex(positions, normals, radius, unit[i * 3], unit[i * 3 + 1], unit[i * 3 + 2]);
+            texCoords.put(s[i], t[i]);
+        }
+        for (int i = 0; i < outCount - vertexCount; i++) {
+            int v = copySource[i];
+            putVertex(positions, normals, radius, unit[v * 3], unit[v * 3 + 1], unit[v * 3 + 2]);
+            texCoords.put(copyS[i], t[v]);
+        }
+
+        IndexBufferBuilder indices = new IndexBufferBuilder(mapped.length, outCount);
+        for (int i = 0; i < mapped.length; i += 3) {
+            indices.put(mapped[i], mapped[i + 1], mapped[i + 2]);
+        }
+        return new MeshData(GLES30.GL_TRIANGLES, positions.build(), texCoords.build(),
+                normals != null ? normals.build() : null, indices.build(), indices.getType());
+    }
+
+    private static void putVertex(FloatBufferBuilder positions, FloatBufferBuilder normals,
+                                  float radius, float x, float y, float z) {
+        positions.put(radius * x, radius * y, radius * z);
+        if (normals != null) {
+            normals.put(x, y, z);
+        }
+    }
+}
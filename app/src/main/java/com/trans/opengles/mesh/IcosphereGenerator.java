@@ -0,0 +1,177 @@
+package com.trans.opengles.mesh;
+
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 正二十面体细分球体生成器。每级细分把一个三角形按三条边的中点拆成四个，
+ * 中点投影回球面；共享边的中点由以long为键的边缓存去重。三角形大小均匀,没有UV球体极点处的退化三角形，
+ * 纹理坐标使用与UV球体一致的经纬度映射
+ * @date :2026/10/18 17:40
+ */
+public final class IcosphereGenerator {
+    //正二十面体的顶点与面(逆时针为正面)
+    private static final float PHI = (float) ((1 + Math.sqrt(5)) / 2);
+    private static final float[] ICOSAHEDRON_VERTICES = {
+            -1, PHI, 0, 1, PHI, 0, -1, -PHI, 0, 1, -PHI, 0,
+            0, -1, PHI, 0, 1, PHI, 0, -1, -PHI, 0, 1, -PHI,
+            PHI, 0, -1, PHI, 0, 1, -PHI, 0, -1, -PHI, 0, 1
+    };
+    private static final int[] ICOSAHEDRON_FACES = {
+            0, 11, 5, 0, 5, 1, 0, 1, 7, 0, 7, 10, 0, 10, 11,
+            1, 5, 9, 5, 11, 4, 11, 10, 2, 10, 7, 6, 7, 1, 8,
+            3, 9, 4, 3, 4, 2, 3, 2, 6, 3, 6, 8, 3, 8, 9,
+            4, 9, 5, 2, 4, 11, 6, 2, 10, 8, 6, 7, 9, 8, 1
+    };
+
+    private IcosphereGenerator() {
+    }
+
+    /**
+     * 细分level级后的三角形个数
+     */
+    public static int triangleCount(int level) {
+        return 20 << (2 * level);
+    }
+
+    /**
+     * 细分level级后的顶点个数(不含纹理接缝和极点的副本)
+     */
+    public static int vertexCount(int level) {
+        return 10 * (1 << (2 * level)) + 2;
+    }
+
+    /**
+     * 生成正二十面体细分球体
+     *
+     * @param radius      半径
+     * @param level       细分级数,0为正二十面体
+     * @param withNormals 是否生成法线
+     */
+    public static MeshData create(float radius, int level, boolean withNormals) {
+        int vertexCount = vertexCount(level);
+        float[] unit = new float[vertexCount * 3];
+        for (int i = 0; i < 12; i++) {
+            normalize(ICOSAHEDRON_VERTICES, i * 3, unit, i * 3);
+        }
+        int count = 12;
+
+        int[] faces = ICOSAHEDRON_FACES.clone();
+        for (int l = 0; l < level; l++) {
+            int faceCount = faces.length / 3;
+            int[] next = new int[faces.length * 4];
+            //欧拉公式：边数 = 面数 * 3 / 2
+            EdgeCache cache = new EdgeCache(faceCount * 3 / 2);
+            for (int f = 0; f < faceCount; f++) {
+                int a = faces[f * 3];
+                int b = faces[f * 3 + 1];
+                int c = faces[f * 3 + 2];
+                int ab = cache.get(a, b);
+                if (ab < 0) {
+                    ab = count++;
+                    midpoint(unit, a, b, ab);
+                    cache.put(a, b, ab);
+                }
+                int bc = cache.get(b, c);
+                if (bc < 0) {
+                    bc = count++;
+                    midpoint(unit, b, c, bc);
+                    cache.put(b, c, bc);
+                }
+                int ca = cache.get(c, a);
+                if (ca < 0) {
+                    ca = count++;
+                    midpoint(unit, c, a, ca);
+                    cache.put(c, a, ca);
+                }
+                int o = f * 12;
+                next[o] = a;
+                next[o + 1] = ab;
+                next[o + 2] = ca;
+                next[o + 3] = b;
+                next[o + 4] = bc;
+                next[o + 5] = ab;
+                next[o + 6] = c;
+                next[o + 7] = ca;
+                next[o + 8] = bc;
+                next[o + 9] = ab;
+                next[o + 10] = bc;
+                next[o + 11] = ca;
+            }
+            faces = next;
+        }
+        return EquirectangularMapper.build(unit, count, faces, faces.length / 3, radius, withNormals);
+    }
+
+    private static void midpoint(float[] unit, int a, int b, int out) {
+        float x = unit[a * 3] + unit[b * 3];
+        float y = unit[a * 3 + 1] + unit[b * 3 + 1];
+        float z = unit[a * 3 + 2] + unit[b * 3 + 2];
+        float inv = (float) (1.0 / Math.sqrt(x * x + y * y + z * z));
+        unit[out * 3] = x * inv;
+        unit[out * 3 + 1] = y * inv;
+        unit[out * 3 + 2] = z * inv;
+    }
+
+    private static void normalize(float[] src, int srcOffset, float[] dst, int dstOffset) {
+        float x = src[srcOffset];
+        float y = src[srcOffset + 1];
+        float z = src[srcOffset + 2];
+        float inv = (float) (1.0 / Math.sqrt(x * x + y * y + z * z));
+        dst[dstOffset] = x * inv;
+        dst[dstOffset + 1] = y * inv;
+        dst[dstOffset + 2] = z * inv;
+    }
+
+    /**
+     * 边中点缓存：开放寻址哈希表,键为两个端点索引(小的在高32位)拼成的long,
+     * 值为中点索引；全部使用基本类型数组,不产生装箱对象
+     */
+    private static final class EdgeCache {
+        private static final long EMPTY = -1L;
+
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+
+        EdgeCache(int edgeCount) {
+            //装载因子不超过0.5
+            int capacity = Integer.highestOneBit(Math.max(edgeCount, 1) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(int a, int b) {
+            long key = key(a, b);
+            for (int i = slot(key); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(int a, int b, int value) {
+            long key = key(a, b);
+            int i = slot(key);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private static long key(int a, int b) {
+            return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+        }
+
+        private int slot(long key) {
+            //64位乘法散列
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trans.opengles.mesh;
+
+/**
+ * @author Tom灿
+ * @description: 程序化网格的细节层次(LOD)选择。各级网格按圆周切分份数从粗到细排列，
+ * 每帧根据包围球投影到屏幕上的半径(像素)选择一级：圆周上相邻顶点在屏幕上间隔约EDGE_PIXELS像素即可。
+ * 降级时带有滞后区间,半径在阈值附近抖动时不会来回切换造成跳变
+ * @date :2026/10/18 17:10
+ */
+public final class LodChain {
+    //圆周上相邻顶点在屏幕上的目标间距(像素)
+    private static final float EDGE_PIXELS = 8.0f;
+    //滞后比例：半径低于阈值的(1-HYSTERESIS)倍才降级
+    private static final float HYSTERESIS = 0.2f;
+
+    //各级圆周切分份数,从粗到细
+    private final int[] segments;
+    //各级的最小屏幕半径,第0级为0
+    private final float[] minRadius;
+    //当前级别
+    private int level;
+
+    /**
+     * @param segments 各级圆周切分份数,从粗到细
+     */
+    public LodChain(int[] segments) {
+        if (segments.length == 0) {
+            throw new IllegalArgumentException("LOD chain needs at least one level");
+        }
+        this.segments = segments.clone();
+        this.minRadius = new float[segments.length];
+        for (int i = 1; i < segments.length; i++) {
+            //上一级的圆周展开后相邻顶点间距超过EDGE_PIXELS时切换到本级
+            minRadius[i] = (float) (segments[i - 1] * EDGE_PIXELS / (2 * Math.PI));
+        }
+    }
+
+    /**
+     * 根据屏幕半径选择细节级别
+     *
+     * @param screenRadius 包围球在屏幕上的半径(像素)
+     * @return 级别,0为最粗
+     */
+    public int select(float screenRadius) {
+        while (level + 1 < segments.length && screenRadius >= minRadius[level + 1]) {
+            level++;
+        }
+        while (level > 0 && screenRadius < minRadius[level] * (1 - HYSTERESIS)) {
+            level--;
+        }
+        return level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getSegments(int level) {
+        return segments[level];
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * 计算包围球投影到屏幕上的半径(像素)。
+     * 对称透视投影与刚体视图变换下,mvp前两行的xyz分量长度就是投影矩阵的缩放系数
+     *
+     * @param mvp    模型视图投影矩阵(列主序)
+     * @param x      包围球球心(模型坐标)
+     * @param radius 包围球半径
+     * @param width  视口宽度
+     * @param height 视口高度
+     * @return 屏幕半径,相机位于包围球内部时为正无穷
+     */
+    public static float screenRadius(float[] mvp, float x, float y, float z, float radius,
+                                     int width, int height) {
+        float w = mvp[3] * x + mvp[7] * y + mvp[11] * z + mvp[15];
+        if (w <= radius) {
+            return Float.POSITIVE_INFINITY;
+        }
+        float scaleX = (float) Math.sqrt(mvp[0] * mvp[0] + mvp[4] * mvp[4] + mvp[8] * mvp[8]);
+        float scaleY = (float) Math.sqrt(mvp[1] * mvp[1] + mvp[5] * mvp[5] + mvp[9] * mvp[9]);
+        return Math.max(scaleX * width, scaleY * height) * 0.5f * radius / w;
+    }
+}
@@ -0,0 +1,75 @@
+package com.trans.opengles.mesh;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.util.Log;
+
+import com.trans.opengles.MyApplication;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * @author Tom灿
+ * @description: 加载构建期烘焙的网格。.mesh资源不压缩存放在APK中,可以直接内存映射为直接缓冲区,
+ * 切片后交给glBufferData,冷启动只剩I/O开销；资源缺失时退回运行时生成
+ * @date :2026/10/18 16:40
+ */
+public final class MeshAssets {
+    private static final String TAG = "MeshAssets";
+
+    private MeshAssets() {
+    }
+
+    /**
+     * 加载示例网格,优先读取烘焙好的资源
+     */
+    public static MeshData load(MeshKey key) {
+        try {
+            return MeshBinary.read(map(MyApplication.application.getAssets(), key.getAssetName()));
+        } catch (IOException e) {
+            Log.w(TAG, "Baked mesh " + key.getAssetName() + " unavailable, generating at runtime", e);
+            //与烘焙结果一致
+            return MeshOptimizer.optimize(SampleMeshes.generate(key));
+        }
+    }
+
+    /**
+     * 把资源映射为直接缓冲区
+     */
+    private static ByteBuffer map(AssetManager assets, String name) throws IOException {
+        try (AssetFileDescriptor fd = assets.openFd(name);
+             FileInputStream in = fd.createInputStream()) {
+            //映射在通道关闭后仍然有效
+            return in.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                    fd.getStartOffset(), fd.getLength());
+        } catch (IOException e) {
+            //资源被压缩时无法获得文件描述符,一次性读入直接缓冲区
+            return read(assets, name);
+        }
+    }
+
+    private static ByteBuffer read(AssetManager assets, String name) throws IOException {
+        try (InputStream in = assets.open(name)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(in.available()).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] chunk = new byte[8192];
+            int count;
+            while ((count = in.read(chunk)) != -1) {
+                if (buf.remaining() < count) {
+                    ByteBuffer grown = ByteBuffer.allocateDirect((buf.capacity() + count) * 2)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    buf.flip();
+                    grown.put(buf);
+                    buf = grown;
+                }
+                buf.put(chunk, 0, count);
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+}
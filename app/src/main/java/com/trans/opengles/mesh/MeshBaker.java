@@ -0,0 +1,47 @@
+package com.trans.opengles.mesh;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author Tom灿
+ * @description: 构建期网格烘焙工具,由app/build.gradle中的bakeMeshes任务在JVM上运行：
+ * 依次调用{@link SampleMeshes}中的生成器,经{@link MeshOptimizer}优化后写到assets目录下的二进制文件中,
+ * 并输出优化前后的顶点缓存统计
+ * @date :2026/10/18 16:30
+ */
+public final class MeshBaker {
+
+    private MeshBaker() {
+    }
+
+    /**
+     * @param args args[0]为输出的assets目录
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: MeshBaker <assets dir>");
+        }
+        File assetsDir = new File(args[0]);
+        for (MeshKey key : SampleMeshes.keys()) {
+            MeshData raw = SampleMeshes.generate(key);
+            MeshData data = MeshOptimizer.optimize(raw);
+            File file = new File(assetsDir, key.getAssetName());
+            File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Could not create " + parent);
+            }
+            try (OutputStream out = new FileOutputStream(file)) {
+                MeshBinary.write(data, out);
+            }
+            System.out.println("Baked " + key + " -> " + file.getName() + " (" + file.length() + " bytes"
+                    + (data != raw ? ", " + stats(raw) + " -> " + stats(data) : "") + ")");
+        }
+    }
+
+    private static VertexCacheStats stats(MeshData data) {
+        return VertexCacheStats.analyze(MeshOptimizer.readIndices(data), data.getVertexCount());
+    }
+}
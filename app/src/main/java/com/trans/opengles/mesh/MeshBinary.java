@@ -0,0 +1,152 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 网格的二进制格式(小端)：32字节头部,之后依次是位置、纹理坐标、法线、颜色以及索引。
+ * 各数据段按4字节对齐,读取时直接在原缓冲区上切片,不拷贝数据
+ * @date :2026/10/18 16:30
+ */
+public final class MeshBinary {
+    //"MESH"
+    private static final int MAGIC = 0x4853454D;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private static final int FLAG_TEX_COORDS = 1;
+    private static final int FLAG_NORMALS = 1 << 1;
+    private static final int FLAG_COLORS = 1 << 2;
+
+    private MeshBinary() {
+    }
+
+    /**
+     * 写出网格数据
+     */
+    public static void write(MeshData data, OutputStream out) throws IOException {
+        int flags = 0;
+        if (data.getTexCoords() != null) {
+            flags |= FLAG_TEX_COORDS;
+        }
+        if (data.getNormals() != null) {
+            flags |= FLAG_NORMALS;
+        }
+        if (data.getColors() != null) {
+            flags |= FLAG_COLORS;
+        }
+        int indexCount = data.getIndices() != null ? data.getIndexCount() : 0;
+        int indexBytes = data.getIndexType() == GLES30.GL_UNSIGNED_SHORT ? 2 : 4;
+        //short索引个数为奇数时补齐到4字节
+        int size = HEADER_BYTES + data.getByteSize() + (indexBytes == 2 && indexCount % 2 != 0 ? 2 : 0);
+
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(data.getDrawMode())
+                .putInt(data.getVertexCount())
+                .putInt(flags)
+                .putInt(indexCount > 0 ? data.getIndexType() : 0)
+                .putInt(indexCount)
+                .putInt(0);
+        putFloats(buf, data.getPositions());
+        putFloats(buf, data.getTexCoords());
+        putFloats(buf, data.getNormals());
+        putFloats(buf, data.getColors());
+        if (indexCount > 0) {
+            if (indexBytes == 2) {
+                buf.asShortBuffer().put(((ShortBuffer) data.getIndices()).duplicate());
+            } else {
+                buf.asIntBuffer().put(((IntBuffer) data.getIndices()).duplicate());
+            }
+        }
+        out.write(buf.array());
+    }
+
+    /**
+     * 读取网格数据,返回的缓冲区都是buf的切片(buf为直接缓冲区时切片也是直接缓冲区)
+     *
+     * @throws IOException 格式不正确
+     */
+    public static MeshData read(ByteBuffer buf) throws IOException {
+        ByteBuffer in = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IOException("Not a mesh binary");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported mesh binary version: " + version);
+        }
+        int drawMode = in.getInt();
+        int vertexCount = in.getInt();
+        int flags = in.getInt();
+        int indexType = in.getInt();
+        int indexCount = in.getInt();
+        in.getInt();
+
+        FloatBuffer positions = sliceFloats(in, vertexCount * 3);
+        FloatBuffer texCoords = (flags & FLAG_TEX_COORDS) != 0 ? sliceFloats(in, vertexCount * 2) : null;
+        FloatBuffer normals = (flags & FLAG_NORMALS) != 0 ? sliceFloats(in, vertexCount * 3) : null;
+        FloatBuffer colors = (flags & FLAG_COLORS) != 0 ? sliceFloats(in, vertexCount * 4) : null;
+        Buffer indices = null;
+        if (indexCount > 0) {
+            if (indexType == GLES30.GL_UNSIGNED_SHORT) {
+                indices = slice(in, indexCount * 2, 2).asShortBuffer();
+            } else {
+                indices = slice(in, indexCount * 4, 4).asIntBuffer();
+            }
+        }
+        return new MeshData(drawMode, positions, texCoords, normals, colors, indices, indexType);
+    }
+
+    private static void putFloats(ByteBuffer buf, FloatBuffer data) {
+        if (data != null) {
+            buf.asFloatBuffer().put(data.duplicate());
+            buf.position(buf.position() + data.remaining() * 4);
+        }
+    }
+
+    private static FloatBuffer sliceFloats(ByteBuffer in, int count) throws IOException {
+        return slice(in, count * 4, 4).asFloatBuffer();
+    }
+
+    /**
+     * 切出接下来的bytes个字节,字节序为本地字节序,可直接交给glBufferData
+     *
+     * @param elementBytes 每个元素的字节数(2或4),大端设备上按元素转换字节序
+     */
+    private static ByteBuffer slice(ByteBuffer in, int bytes, int elementBytes) throws IOException {
+        if (in.remaining() < bytes) {
+            throw new IOException("Truncated mesh binary");
+        }
+        ByteBuffer part = in.slice();
+        part.limit(bytes);
+        in.position(in.position() + bytes);
+        if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            return part.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        //大端设备上需要转换字节序
+        ByteBuffer copy = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        part.order(ByteOrder.LITTLE_ENDIAN);
+        if (elementBytes == 4) {
+            while (part.hasRemaining()) {
+                copy.putInt(part.getInt());
+            }
+        } else {
+            while (part.hasRemaining()) {
+                copy.putShort(part.getShort());
+            }
+        }
+        copy.flip();
+        return copy;
+    }
+}
@@ -0,0 +1,207 @@
+package com.trans.opengles.mesh;
+
+import android.content.ComponentCallbacks2;
+
+import com.trans.opengles.surface.GLMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Tom灿
+ * @description: 进程级网格缓存，所有Render实例共享。按{@link MeshKey}缓存CPU端网格数据以及GPU端句柄。
+ * CPU端数据按字节预算做LRU淘汰，并响应onTrimMemory。
+ * GPU网格交给Render后会被一直绘制，而Render没有释放时机，所以GPU网格不参与淘汰，
+ * 生命周期与EGL上下文相同：新上下文创建时由{@link #invalidateGpu()}丢弃旧句柄(旧对象已随上下文销毁)，
+ * 之后按需从CPU端数据重新上传，不需要重新细分网格
+ * @date :2026/10/18 15:50
+ */
+public final class MeshCache {
+    //默认预算：16MB(CPU端数据)
+    private static final int DEFAULT_BUDGET_BYTES = 16 * 1024 * 1024;
+
+    private static final MeshCache INSTANCE = new MeshCache(DEFAULT_BUDGET_BYTES);
+
+    //访问顺序的LinkedHashMap,迭代顺序即最近最少使用顺序
+    private final LinkedHashMap<MeshKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    //当前EGL上下文中已上传的GPU网格,不淘汰：每个页面有自己的GLSurfaceView和EGL上下文,只运行一个Render,
+    //它在shader()中取得全部网格并一直绘制,上下文中没有无人持有的网格可以释放
+    private final HashMap<MeshKey, ArrayList<GpuMesh>> gpuMeshes = new HashMap<>();
+
+    private int budgetBytes;
+    private int usedBytes;
+    private int gpuBytes;
+
+    //命中、未命中(需要重新生成)次数
+    private int hits;
+    private int misses;
+
+    MeshCache(int budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static MeshCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取CPU端网格数据,未命中时调用factory生成,可在任意线程调用
+     */
+    public MeshData getData(MeshKey key, MeshFactory factory) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.data;
+            }
+            misses++;
+        }
+        //网格生成比较耗时,不持有锁
+        MeshData data = factory.create();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                //其他线程已经生成了同样的网格
+                return entry.data;
+            }
+            entry = new Entry(data);
+            entries.put(key, entry);
+            usedBytes += entry.bytes;
+            trimToSize(budgetBytes);
+            return data;
+        }
+    }
+
+    /**
+     * 获取已上传到GPU的网格,未命中时生成并上传。必须在GL线程调用。
+     * 布局或属性位置不同的着色器各自持有一份VBO/VAO,在{@link #invalidateGpu()}之前一直有效
+     *
+     * @param layout  顶点布局,属性按名称绑定到program中的属性位置
+     * @param program 着色器程序
+     */
+    public GLMesh getMesh(MeshKey key, MeshFactory factory, VertexLayout layout, int program) {
+        int[] locations = layout.locations(program);
+        synchronized (this) {
+            GLMesh mesh = findMesh(key, layout, locations);
+            if (mesh != null) {
+                hits++;
+                return mesh;
+            }
+        }
+        //CPU端数据可能已被淘汰,重新取得后上传
+        MeshData data = getData(key, factory);
+        synchronized (this) {
+            ArrayList<GpuMesh> meshes = gpuMeshes.get(key);
+            if (meshes == null) {
+                meshes = new ArrayList<>(1);
+                gpuMeshes.put(key, meshes);
+            }
+            GLMesh mesh = GLMesh.from(data, layout, locations).upload();
+            meshes.add(new GpuMesh(layout, locations, mesh));
+            gpuBytes += mesh.getByteSize();
+            return mesh;
+        }
+    }
+
+    /**
+     * 新的EGL上下文已创建(在onSurfaceCreated中调用)：旧上下文中的GPU句柄已随上下文销毁,只丢弃引用。
+     * 不能只比较EGL上下文句柄来判断,句柄值可能被新上下文复用
+     */
+    public synchronized void invalidateGpu() {
+        gpuMeshes.clear();
+        gpuBytes = 0;
+    }
+
+    /**
+     * 响应{@link ComponentCallbacks2#onTrimMemory(int)}
+     */
+    public synchronized void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            //进入后台:CPU端数据全部释放,GPU网格随GLSurfaceView的EGL上下文一起销毁
+            trimToSize(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(budgetBytes / 2);
+        }
+    }
+
+    /**
+     * 设置CPU端数据的字节预算,超出部分立即淘汰
+     */
+    public synchronized void setBudgetBytes(int budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        trimToSize(budgetBytes);
+    }
+
+    /**
+     * CPU端数据占用的字节数
+     */
+    public synchronized int getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * 当前上下文中GPU网格占用的字节数,即当前Render的网格工作集,不受字节预算限制
+     */
+    public synchronized int getGpuBytes() {
+        return gpuBytes;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    private GLMesh findMesh(MeshKey key, VertexLayout layout, int[] locations) {
+        ArrayList<GpuMesh> meshes = gpuMeshes.get(key);
+        if (meshes != null) {
+            for (GpuMesh gpuMesh : meshes) {
+                if (gpuMesh.layout == layout && Arrays.equals(gpuMesh.locations, locations)) {
+                    return gpuMesh.mesh;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按最近最少使用顺序淘汰CPU端数据,直到占用不超过maxBytes。
+     * 只释放对数据的引用,已经交给调用方的MeshData仍然可用
+     */
+    private void trimToSize(int maxBytes) {
+        Iterator<Map.Entry<MeshKey, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            usedBytes -= entry.bytes;
+        }
+    }
+
+    private static class Entry {
+        final MeshData data;
+        final int bytes;
+
+        Entry(MeshData data) {
+            this.data = data;
+            this.bytes = data.getByteSize();
+        }
+    }
+
+    private static class GpuMesh {
+        final VertexLayout layout;
+        final int[] locations;
+        final GLMesh mesh;
+
+        GpuMesh(VertexLayout layout, int[] locations, GLMesh mesh) {
+            this.layout = layout;
+            this.locations = locations;
+            this.mesh = mesh;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: CPU端网格数据：顶点位置、可选的纹理坐标/法线/颜色、可选的索引。
+ * 所有缓冲区都是本地字节序的直接缓冲区,position为0,可直接上传给OpenGL ES
+ * @date :2026/10/18 14:30
+ */
+public class MeshData {
+    //图元类型
+    private final int drawMode;
+    //顶点个数
+    private final int vertexCount;
+    //顶点位置(x,y,z)
+    private final FloatBuffer positions;
+    //纹理坐标(s,t),可为null
+    private final FloatBuffer texCoords;
+    //法线(x,y,z),可为null
+    private final FloatBuffer normals;
+    //顶点颜色(r,g,b,a),可为null
+    private final FloatBuffer colors;
+    //索引,可为null(按顶点顺序绘制)
+    private final Buffer indices;
+    //索引类型：GL_UNSIGNED_SHORT或GL_UNSIGNED_INT
+    private final int indexType;
+    //包围体,第一次访问时由顶点位置计算
+    private Bounds bounds;
+
+    public MeshData(int drawMode, FloatBuffer positions, FloatBuffer texCoords, FloatBuffer normals,
+                    Buffer indices, int indexType) {
+        this(drawMode, positions, texCoords, normals, null, indices, indexType);
+    }
+
+    public MeshData(int drawMode, FloatBuffer positions, FloatBuffer texCoords, FloatBuffer normals,
+                    FloatBuffer colors, Buffer indices, int indexType) {
+        this.drawMode = drawMode;
+        this.vertexCount = positions.remaining() / 3;
+        this.positions = positions;
+        this.texCoords = texCoords;
+        this.normals = normals;
+        this.colors = colors;
+        this.indices = indices;
+        this.indexType = indexType;
+    }
+
+    public int getDrawMode() {
+        return drawMode;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public FloatBuffer getPositions() {
+        return positions;
+    }
+
+    public FloatBuffer getTexCoords() {
+        return texCoords;
+    }
+
+    public FloatBuffer getNormals() {
+        return normals;
+    }
+
+    public FloatBuffer getColors() {
+        return colors;
+    }
+
+    public Buffer getIndices() {
+        return indices;
+    }
+
+    public int getIndexType() {
+        return indexType;
+    }
+
+    /**
+     * 模型空间包围体。多线程同时第一次访问时可能重复计算,结果相同
+     */
+    public Bounds getBounds() {
+        Bounds result = bounds;
+        if (result == null) {
+            result = Bounds.of(positions);
+            bounds = result;
+        }
+        return result;
+    }
+
+    public int getIndexCount() {
+        return indices == null ? 0 : indices.remaining();
+    }
+
+    /**
+     * 本地内存占用的字节数
+     */
+    public int getByteSize() {
+        int bytes = positions.remaining() * 4;
+        if (texCoords != null) {
+            bytes += texCoords.remaining() * 4;
+        }
+        if (normals != null) {
+            bytes += normals.remaining() * 4;
+        }
+        if (colors != null) {
+            bytes += colors.remaining() * 4;
+        }
+        if (indices != null) {
+            bytes += indices.remaining() * (indexType == GLES30.GL_UNSIGNED_SHORT ? 2 : 4);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,10 @@
+package com.trans.opengles.mesh;
+
+/**
+ * @author Tom灿
+ * @description: 网格生成器,缓存未命中或构建期烘焙时调用
+ * @date :2026/10/18 16:20
+ */
+public interface MeshFactory {
+    MeshData create();
+}
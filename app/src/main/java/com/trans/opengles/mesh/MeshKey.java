@@ -0,0 +1,129 @@
+package com.trans.opengles.mesh;
+
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 网格缓存的键：形状 + 生成参数 + 顶点格式，三者都相同的网格可以共享
+ * @date :2026/10/18 15:40
+ */
+public final class MeshKey {
+    //顶点格式
+    public static final String FORMAT_POSITION = "P";
+    public static final String FORMAT_POSITION_UV = "PT";
+    public static final String FORMAT_POSITION_NORMAL = "PN";
+    public static final String FORMAT_POSITION_UV_NORMAL = "PTN";
+    public static final String FORMAT_POSITION_COLOR = "PC";
+
+    private final String shape;
+    private final String format;
+    private final float[] params;
+    private final int hash;
+
+    private MeshKey(String shape, String format, float[] params) {
+        this.shape = shape;
+        this.format = format;
+        this.params = params;
+        this.hash = 31 * (31 * shape.hashCode() + format.hashCode()) + Arrays.hashCode(params);
+    }
+
+    /**
+     * @param shape  形状,例如"sphere"
+     * @param format 顶点格式,见FORMAT_*
+     * @param params 生成参数(半径、分段数等)
+     */
+    public static MeshKey of(String shape, String format, float... params) {
+        return new MeshKey(shape, format, params.clone());
+    }
+
+    /**
+     * UV球体的键,与{@link SphereGenerator#create(float, int, int, boolean)}的参数一一对应
+     */
+    public static MeshKey sphere(float radius, int rings, int segments, boolean withNormals) {
+        return of("sphere", withNormals ? FORMAT_POSITION_UV_NORMAL : FORMAT_POSITION_UV,
+                radius, rings, segments);
+    }
+
+    /**
+     * 以三角形带输出的UV球体的键,与{@link SphereGenerator#createStrip(float, int, int, boolean)}的参数一一对应
+     */
+    public static MeshKey sphereStrip(float radius, int rings, int segments, boolean withNormals) {
+        return of("sphere-strip", withNormals ? FORMAT_POSITION_UV_NORMAL : FORMAT_POSITION_UV,
+                radius, rings, segments);
+    }
+
+    /**
+     * 按经纬度分块的三角形带UV球体的键,
+     * 与{@link SphereGenerator#createChunkedStrip(float, int, int, boolean, int, int)}的参数一一对应
+     */
+    public static MeshKey sphereChunks(float radius, int rings, int segments, boolean withNormals,
+                                       int ringChunks, int segmentChunks) {
+        return of("sphere-chunks", withNormals ? FORMAT_POSITION_UV_NORMAL : FORMAT_POSITION_UV,
+                radius, rings, segments, ringChunks, segmentChunks);
+    }
+
+    /**
+     * 正二十面体细分球体的键,与{@link IcosphereGenerator#create(float, int, boolean)}的参数一一对应
+     */
+    public static MeshKey icosphere(float radius, int level, boolean withNormals) {
+        return of("icosphere", withNormals ? FORMAT_POSITION_UV_NORMAL : FORMAT_POSITION_UV,
+                radius, level);
+    }
+
+    /**
+     * 立方体球的键,与{@link CubeSphereGenerator#create(float, int, boolean)}的参数一一对应
+     */
+    public static MeshKey cubeSphere(float radius, int n, boolean withNormals) {
+        return of("cubesphere", withNormals ? FORMAT_POSITION_UV_NORMAL : FORMAT_POSITION_UV,
+                radius, n);
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * 第index个生成参数
+     */
+    public float getParam(int index) {
+        return params[index];
+    }
+
+    /**
+     * 构建期烘焙生成的资源文件名,例如meshes/sphere_PT_1.0_90.0_180.0.mesh
+     */
+    public String getAssetName() {
+        StringBuilder name = new StringBuilder("meshes/").append(shape).append('_').append(format);
+        for (float param : params) {
+            name.append('_').append(param);
+        }
+        return name.append(".mesh").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MeshKey)) {
+            return false;
+        }
+        MeshKey other = (MeshKey) o;
+        return hash == other.hash && shape.equals(other.shape) && format.equals(other.format)
+                && Arrays.equals(params, other.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return shape + ":" + format + Arrays.toString(params);
+    }
+}
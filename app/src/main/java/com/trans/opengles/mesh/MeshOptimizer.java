@@ -0,0 +1,124 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.IndexBufferBuilder;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 网格优化阶段：先用{@link VertexCacheOptimizer}重排三角形提高顶点变换后缓存命中率，
+ * 再按索引中首次出现的顺序重排顶点,使顶点读取尽量顺序访问显存。
+ * 只处理带索引的三角形列表,其余图元原样返回；在构建期烘焙网格时执行
+ * @date :2026/10/18 18:10
+ */
+public final class MeshOptimizer {
+    private static final int BYTES_PER_FLOAT = 4;
+
+    private MeshOptimizer() {
+    }
+
+    /**
+     * 优化网格,返回新的网格数据(三角形及其绕序不变)
+     */
+    public static MeshData optimize(MeshData data) {
+        if (data.getDrawMode() != GLES30.GL_TRIANGLES || data.getIndices() == null) {
+            return data;
+        }
+        int vertexCount = data.getVertexCount();
+        int[] indices = VertexCacheOptimizer.optimize(readIndices(data), vertexCount);
+        int[] remap = optimizeVertexFetch(indices, vertexCount);
+
+        IndexBufferBuilder builder = new IndexBufferBuilder(indices.length, vertexCount);
+        for (int index : indices) {
+            builder.put(index);
+        }
+        return new MeshData(GLES30.GL_TRIANGLES,
+                remap(data.getPositions(), 3, remap),
+                remap(data.getTexCoords(), 2, remap),
+                remap(data.getNormals(), 3, remap),
+                remap(data.getColors(), 4, remap),
+                builder.build(), builder.getType());
+    }
+
+    /**
+     * 按索引中首次出现的顺序给顶点重新编号并改写索引,没有被引用的顶点排在最后
+     *
+     * @param indices     三角形列表索引,原地改写
+     * @param vertexCount 顶点个数
+     * @return 旧顶点编号到新编号的映射
+     */
+    public static int[] optimizeVertexFetch(int[] indices, int vertexCount) {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            if (remap[v] < 0) {
+                remap[v] = next++;
+            }
+            indices[i] = remap[v];
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            if (remap[v] < 0) {
+                remap[v] = next++;
+            }
+        }
+        return remap;
+    }
+
+    /**
+     * 按映射重排顶点属性
+     *
+     * @param data       每个顶点components个分量
+     * @param components 分量个数
+     * @param remap      旧顶点编号到新编号的映射
+     */
+    public static float[] remap(float[] data, int components, int[] remap) {
+        float[] result = new float[data.length];
+        for (int v = 0; v < remap.length; v++) {
+            System.arraycopy(data, v * components, result, remap[v] * components, components);
+        }
+        return result;
+    }
+
+    /**
+     * 读出索引
+     */
+    public static int[] readIndices(MeshData data) {
+        Buffer buffer = data.getIndices();
+        int[] indices = new int[data.getIndexCount()];
+        if (buffer instanceof ShortBuffer) {
+            ShortBuffer shorts = (ShortBuffer) buffer;
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = shorts.get(shorts.position() + i) & 0xFFFF;
+            }
+        } else {
+            IntBuffer ints = (IntBuffer) buffer;
+            ints.duplicate().get(indices);
+        }
+        return indices;
+    }
+
+    private static FloatBuffer remap(FloatBuffer data, int components, int[] remap) {
+        if (data == null) {
+            return null;
+        }
+        float[] values = new float[data.remaining()];
+        data.duplicate().get(values);
+        float[] result = remap(values, components, remap);
+        FloatBuffer buffer = ByteBuffer.allocateDirect(result.length * BYTES_PER_FLOAT)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        buffer.put(result);
+        buffer.position(0);
+        return buffer;
+    }
+}
@@ -0,0 +1,80 @@
+package com.trans.opengles.mesh;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Tom灿
+ * @description: 圆周切分的正弦/余弦表,按切分数缓存,所有形状生成器共享。
+ * 表由旋转递推(复数乘法)生成,只在首次使用某个切分数时计算一次；第segments项与第0项完全相同,
+ * 圆周严格闭合,不会因为浮点角度累加多出或少一段
+ * @date :2026/10/18 15:40
+ */
+public final class RingBasis {
+    private static final ConcurrentHashMap<Integer, RingBasis> CACHE = new ConcurrentHashMap<>();
+
+    private final int segments;
+    //长度为segments+1,第i项对应角度 2π * i / segments
+    private final float[] sin;
+    private final float[] cos;
+
+    private RingBasis(int segments) {
+        this.segments = segments;
+        sin = new float[segments + 1];
+        cos = new float[segments + 1];
+
+        //每步旋转的角度 Δ = 2π / segments, (c, s) <- (c·cosΔ - s·sinΔ, s·cosΔ + c·sinΔ)
+        double step = 2 * Math.PI / segments;
+        double cosStep = Math.cos(step);
+        double sinStep = Math.sin(step);
+        double c = 1.0;
+        double s = 0.0;
+        for (int i = 0; i < segments; i++) {
+            cos[i] = (float) c;
+            sin[i] = (float) s;
+            double nc = c * cosStep - s * sinStep;
+            s = s * cosStep + c * sinStep;
+            c = nc;
+        }
+        //首尾闭合
+        cos[segments] = cos[0];
+        sin[segments] = sin[0];
+    }
+
+    /**
+     * 获取切分数对应的正弦/余弦表
+     *
+     * @param segments 一周的切分数
+     */
+    public static RingBasis of(int segments) {
+        if (segments <= 0) {
+            throw new IllegalArgumentException("segments must be positive: " + segments);
+        }
+        RingBasis basis = CACHE.get(segments);
+        if (basis == null) {
+            basis = new RingBasis(segments);
+            RingBasis previous = CACHE.putIfAbsent(segments, basis);
+            if (previous != null) {
+                basis = previous;
+            }
+        }
+        return basis;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    /**
+     * sin(2π * i / segments), i取值范围[0, segments]
+     */
+    public float sin(int i) {
+        return sin[i];
+    }
+
+    /**
+     * cos(2π * i / segments), i取值范围[0, segments]
+     */
+    public float cos(int i) {
+        return cos[i];
+    }
+}
@@ -0,0 +1,86 @@
+package com.trans.opengles.mesh;
+
+import java.util.LinkedHashMap;
+
+/**
+ * @author Tom灿
+ * @description: 示例页面用到的程序化网格清单(包括各级LOD)。生成参数都是常量,构建期由{@link MeshBaker}
+ * 烘焙到assets中,运行时由MeshAssets直接映射,资源缺失时才在运行时生成
+ * @date :2026/10/18 16:30
+ */
+public final class SampleMeshes {
+    //AR：半径为1,按PI/90切分,纬线方向90份,经线方向180份,以带图元重启的三角形带绘制；
+    //按30°×30°分为6×12块,视锥外的块不绘制
+    public static final int SPHERE_RING_CHUNKS = 6;
+    public static final int SPHERE_SEGMENT_CHUNKS = 12;
+    public static final MeshKey SPHERE = MeshKey.sphereChunks(1.0f, 90, 180, false,
+            SPHERE_RING_CHUNKS, SPHERE_SEGMENT_CHUNKS);
+    //圆：半径1,圆周切分60份,红色
+    public static final MeshKey CIRCLE = MeshKey.of("circle", MeshKey.FORMAT_POSITION_COLOR, 1.0f, 60);
+
+    //细节层次(LOD)：各级与经线方向切分份数相当的精度,从粗到细；每级按相同的角度误差
+    //在UV球体、正二十面体细分球体、立方体球中选择三角形最少的一种(见SphereVariants)
+    public static final int[] SPHERE_LOD_SEGMENTS = {12, 24, 48, 96, 180};
+    public static final MeshKey[] SPHERE_LODS = new MeshKey[SPHERE_LOD_SEGMENTS.length];
+    //圆锥体侧面和底面：半径0.5,各级圆周切分份数
+    public static final int[] CONE_LOD_SEGMENTS = {8, 16, 32, 60};
+    public static final MeshKey[] CONE_LODS = new MeshKey[CONE_LOD_SEGMENTS.length];
+    public static final MeshKey[] CONE_BASE_LODS = new MeshKey[CONE_LOD_SEGMENTS.length];
+    //圆柱体：半径0.5,高度1,各级圆周切分份数,以带图元重启的三角形带一次绘制
+    public static final int[] CYLINDER_LOD_SEGMENTS = {8, 16, 32, 64, 120};
+    public static final MeshKey[] CYLINDER_LODS = new MeshKey[CYLINDER_LOD_SEGMENTS.length];
+
+    private static final LinkedHashMap<MeshKey, MeshFactory> FACTORIES = new LinkedHashMap<>();
+
+    static {
+        FACTORIES.put(SPHERE, () -> SphereGenerator.createChunkedStrip(1.0f, 90, 180, false,
+                SPHERE_RING_CHUNKS, SPHERE_SEGMENT_CHUNKS).getData());
+        FACTORIES.put(CIRCLE, () -> CircleGenerator.create(1.0f, 60,
+                new float[]{1.0f, 0.0f, 0.0f, 1.0f}));
+        for (int i = 0; i < SPHERE_LOD_SEGMENTS.length; i++) {
+            //与经线方向切分n份、纬线方向n/2份的UV球体相同的最长边球心角
+            float maxEdgeAngle = (float) (2 * Math.PI * Math.sqrt(2) / SPHERE_LOD_SEGMENTS[i]);
+            final MeshKey key = SphereVariants.choose(1.0f, maxEdgeAngle, false);
+            SPHERE_LODS[i] = key;
+            FACTORIES.put(key, () -> SphereVariants.create(key));
+        }
+        for (int i = 0; i < CONE_LOD_SEGMENTS.length; i++) {
+            final int n = CONE_LOD_SEGMENTS[i];
+            CONE_LODS[i] = MeshKey.of("cone", MeshKey.FORMAT_POSITION_COLOR, 0.5f, n);
+            CONE_BASE_LODS[i] = MeshKey.of("cone-base", MeshKey.FORMAT_POSITION_COLOR, 0.5f, n);
+            FACTORIES.put(CONE_LODS[i], () -> ConeGenerator.create(0.5f, n));
+            FACTORIES.put(CONE_BASE_LODS[i], () -> ConeGenerator.createBase(ConeGenerator.create(0.5f, n)));
+        }
+        for (int i = 0; i < CYLINDER_LOD_SEGMENTS.length; i++) {
+            final int n = CYLINDER_LOD_SEGMENTS[i];
+            CYLINDER_LODS[i] = MeshKey.of("cylinder-strip", MeshKey.FORMAT_POSITION, 0.5f, 1.0f, n);
+            FACTORIES.put(CYLINDER_LODS[i], () -> CylinderGenerator.createStrip(0.5f, 1.0f, n));
+        }
+    }
+
+    private SampleMeshes() {
+    }
+
+    /**
+     * {@link #SPHERE}中各分块的索引区间和包围体,见{@link SphereGenerator#chunks}。
+     * 烘焙资源只保存顶点和索引,分块由生成参数直接得到
+     */
+    public static ChunkedMesh.Chunk[] sphereChunks() {
+        return SphereGenerator.chunks(1.0f, 90, 180, SPHERE_RING_CHUNKS, SPHERE_SEGMENT_CHUNKS);
+    }
+
+    public static MeshKey[] keys() {
+        return FACTORIES.keySet().toArray(new MeshKey[0]);
+    }
+
+    /**
+     * 在运行时生成网格
+     */
+    public static MeshData generate(MeshKey key) {
+        MeshFactory factory = FACTORIES.get(key);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown sample mesh: " + key);
+        }
+        return factory.create();
+    }
+}
@@ -0,0 +1,330 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.utils.IndexBufferBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Tom灿
+ * @description: 带索引的经纬度(UV)球体生成器。每个经纬交点只生成一个顶点(经线0°与360°处的接缝
+ * 为了纹理坐标连续各保留一份),四边形由索引拆分为两个三角形,配合glDrawElements绘制，
+ * 相比每个四边形输出6个顶点,顶点数据量和顶点着色器调用次数约减少为1/5,并能利用顶点变换后缓存。
+ * 高精度球体按纬度带拆分到ForkJoinPool并行计算,每条纬度带写入预分配缓冲区中互不重叠的区间；
+ * 经纬度的正弦/余弦取自共享的RingBasis表,生成过程中不再调用三角函数。
+ * 另可输出三角形带：每条纬度带一条带,带之间用图元重启索引分隔,整个球体仍是一次绘制调用,
+ * 索引数据约为三角形列表的1/3
+ * @date :2026/10/18 14:35
+ */
+public class SphereGenerator {
+    private static final int BYTES_PER_FLOAT = 4;
+    //顶点数低于该值时直接在当前线程生成,避免任务调度开销
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private SphereGenerator() {
+    }
+
+    /**
+     * 生成球体网格
+     *
+     * @param radius      半径
+     * @param rings       纬线方向的切分数(从北极到南极)
+     * @param segments    经线方向的切分数(绕一周)
+     * @param withNormals 是否生成法线
+     */
+    public static MeshData create(float radius, int rings, int segments, boolean withNormals) {
+        return create(radius, rings, segments, withNormals, false);
+    }
+
+    /**
+     * 生成以GL_TRIANGLE_STRIP绘制的球体网格,顶点与{@link #create(float, int, int, boolean)}相同,
+     * 三角形及其绕序也相同；绘制时需要开启GL_PRIMITIVE_RESTART_FIXED_INDEX(GLMesh会处理)
+     */
+    public static MeshData createStrip(float radius, int rings, int segments, boolean withNormals) {
+        return create(radius, rings, segments, withNormals, true);
+    }
+
+    /**
+     * 三角形带的索引个数：每条纬度带2 * (segments + 1)个,带之间各一个重启索引
+     */
+    public static int stripIndexCount(int rings, int segments) {
+        return rings * (2 * (segments + 1) + 1) - 1;
+    }
+
+    /**
+     * 生成按经纬度分块的三角形带球体,顶点和三角形与{@link #createStrip}相同。
+     * 球面按纬线方向ringChunks份、经线方向segmentChunks份切分为矩形分块,每块的索引连续存放,
+     * 块内每条纬度带一条带；块之间也用重启索引分隔,整个网格仍可以一次绘制。
+     * 同时返回各块的索引区间和包围体(见{@link #chunks}),可以分别做视锥剔除后只绘制可见的块
+     */
+    public static ChunkedMesh createChunkedStrip(float radius, int rings, int segments, boolean withNormals,
+                                                 int ringChunks, int segmentChunks) {
+        ChunkedMesh.Chunk[] chunks = chunks(radius, rings, segments, ringChunks, segmentChunks);
+        //顶点与三角形带球体相同,只重新排列索引
+        MeshData sphere = create(radius, rings, segments, withNormals, true);
+        ChunkedMesh.Chunk last = chunks[chunks.length - 1];
+        IndexBufferBuilder indices = new IndexBufferBuilder(
+                last.getFirst() + last.getCount(), sphere.getVertexCount(), true);
+        int stride = segments + 1;
+        for (int rc = 0; rc < ringChunks; rc++) {
+            for (int sc = 0; sc < segmentChunks; sc++) {
+                if (rc > 0 || sc > 0) {
+                    indices.restart();
+                }
+                int r0 = rings * rc / ringChunks;
+                int r1 = rings * (rc + 1) / ringChunks;
+                int s0 = segments * sc / segmentChunks;
+                int s1 = segments * (sc + 1) / segmentChunks;
+                for (int r = r0; r < r1; r++) {
+                    if (r > r0) {
+                        indices.restart();
+                    }
+                    //与writeStrip相同：交替取本条纬线和下一条纬线上的顶点
+                    for (int s = s0; s <= s1; s++) {
+                        indices.put(r * stride + s);
+                        indices.put((r + 1) * stride + s);
+                    }
+                }
+            }
+        }
+        MeshData data = new MeshData(GLES30.GL_TRIANGLE_STRIP, sphere.getPositions(), sphere.getTexCoords(),
+                sphere.getNormals(), indices.build(), indices.getType());
+        return new ChunkedMesh(data, chunks);
+    }
+
+    /**
+     * {@link #createChunkedStrip}中各分块的索引区间和包围体,按先纬线方向后经线方向的顺序。
+     * 包围体由分块覆盖的经纬度网格顶点直接计算,与生成的顶点位置相同,不需要网格数据,
+     * 因此烘焙后只保存了顶点和索引的网格也可以使用
+     */
+    public static ChunkedMesh.Chunk[] chunks(float radius, int rings, int segments,
+                                             int ringChunks, int segmentChunks) {
+        int[] ranges = chunkRanges(rings, segments, ringChunks, segmentChunks);
+        RingBasis latitude = RingBasis.of(rings * 2);
+        RingBasis longitude = RingBasis.of(segments);
+        ChunkedMesh.Chunk[] chunks = new ChunkedMesh.Chunk[ranges.length / 2];
+        int k = 0;
+        for (int rc = 0; rc < ringChunks; rc++) {
+            for (int sc = 0; sc < segmentChunks; sc++) {
+                Bounds bounds = tileBounds(radius, latitude, longitude,
+                        rings * rc / ringChunks, rings * (rc + 1) / ringChunks,
+                        segments * sc / segmentChunks, segments * (sc + 1) / segmentChunks);
+                chunks[k] = new ChunkedMesh.Chunk(ranges[k * 2], ranges[k * 2 + 1], bounds);
+                k++;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 各分块的索引区间,顺序与{@link #chunks}相同
+     *
+     * @return 每块两个int：第一个索引、索引个数(不含块之间的重启索引)
+     */
+    static int[] chunkRanges(int rings, int segments, int ringChunks, int segmentChunks) {
+        if (ringChunks < 1 || ringChunks > rings || segmentChunks < 1 || segmentChunks > segments) {
+            throw new IllegalArgumentException("Invalid chunks " + ringChunks + " x " + segmentChunks
+                    + " for sphere " + rings + " x " + segments);
+        }
+        int[] ranges = new int[ringChunks * segmentChunks * 2];
+        int first = 0;
+        int k = 0;
+        for (int rc = 0; rc < ringChunks; rc++) {
+            int chunkRings = rings * (rc + 1) / ringChunks - rings * rc / ringChunks;
+            for (int sc = 0; sc < segmentChunks; sc++) {
+                int chunkSegments = segments * (sc + 1) / segmentChunks - segments * sc / segmentChunks;
+                //每条带2 * (chunkSegments + 1)个索引,带之间各一个重启索引
+                int count = chunkRings * (2 * (chunkSegments + 1) + 1) - 1;
+                ranges[k++] = first;
+                ranges[k++] = count;
+                first += count + 1;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * 纬线[r0, r1]与经线[s0, s1]围成的网格顶点的包围体,顶点位置的计算与writeRing相同
+     */
+    private static Bounds tileBounds(float radius, RingBasis latitude, RingBasis longitude,
+                                     int r0, int r1, int s0, int s1) {
+        FloatBuffer positions = FloatBuffer.allocate((r1 - r0 + 1) * (s1 - s0 + 1) * 3);
+        for (int r = r0; r <= r1; r++) {
+            float sinV = latitude.sin(r);
+            float cosV = latitude.cos(r);
+            for (int s = s0; s <= s1; s++) {
+                float nx = sinV * longitude.cos(s);
+                float ny = sinV * longitude.sin(s);
+                positions.put(radius * nx).put(radius * ny).put(radius * cosV);
+            }
+        }
+        positions.flip();
+        return Bounds.of(positions);
+    }
+
+    private static MeshData create(float radius, int rings, int segments, boolean withNormals,
+                                   boolean strip) {
+        int vertexCount = (rings + 1) * (segments + 1);
+        FloatBuffer positions = newFloatBuffer(vertexCount * 3);
+        FloatBuffer texCoords = newFloatBuffer(vertexCount * 2);
+        FloatBuffer normals = withNormals ? newFloatBuffer(vertexCount * 3) : null;
+        IndexBufferBuilder indices = strip
+                ? new IndexBufferBuilder(stripIndexCount(rings, segments), vertexCount, true)
+                : new IndexBufferBuilder(rings * segments * 6, vertexCount);
+
+        BandTask task = new BandTask(radius, rings, segments, positions, texCoords, normals, indices,
+                strip, 0, rings + 1, bandSize(rings, segments, vertexCount));
+        if (vertexCount < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            //唯一的一次join：所有纬度带完成后才返回
+            ForkJoinPool.commonPool().invoke(task);
+        }
+
+        return new MeshData(strip ? GLES30.GL_TRIANGLE_STRIP : GLES30.GL_TRIANGLES,
+                positions, texCoords, normals,
+                indices.buildAll(), indices.getType());
+    }
+
+    /**
+     * 每个任务负责的纬线行数：按线程数的4倍拆分,兼顾负载均衡和调度开销
+     */
+    private static int bandSize(int rings, int segments, int vertexCount) {
+        if (vertexCount < PARALLEL_THRESHOLD) {
+            return rings + 1;
+        }
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, (rings + 1) / (parallelism * 4));
+    }
+
+    private static FloatBuffer newFloatBuffer(int count) {
+        return ByteBuffer.allocateDirect(count * BYTES_PER_FLOAT)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    /**
+     * 生成[fromRing, toRing)范围内纬线上的顶点,以及从这些纬线出发的四边形索引。
+     * 所有写入都按绝对位置进行,不同任务之间没有共享的可变状态
+     */
+    private static class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final float radius;
+        private final int rings;
+        private final int segments;
+        private final FloatBuffer positions;
+        private final FloatBuffer texCoords;
+        private final FloatBuffer normals;
+        private final IndexBufferBuilder indices;
+        //输出三角形带还是三角形列表
+        private final boolean strip;
+        private final int fromRing;
+        private final int toRing;
+        private final int bandSize;
+        private final RingBasis latitude;
+        private final RingBasis longitude;
+
+        BandTask(float radius, int rings, int segments, FloatBuffer positions,
+                 FloatBuffer texCoords, FloatBuffer normals, IndexBufferBuilder indices,
+                 boolean strip, int fromRing, int toRing, int bandSize) {
+            this.radius = radius;
+            this.rings = rings;
+            this.segments = segments;
+            this.positions = positions;
+            this.texCoords = texCoords;
+            this.normals = normals;
+            this.indices = indices;
+            this.strip = strip;
+            this.fromRing = fromRing;
+            this.toRing = toRing;
+            this.bandSize = bandSize;
+            this.latitude = RingBasis.of(rings * 2);
+            this.longitude = RingBasis.of(segments);
+        }
+
+        @Override
+        protected void compute() {
+            if (toRing - fromRing > bandSize) {
+                int mid = (fromRing + toRing) >>> 1;
+                invokeAll(split(fromRing, mid), split(mid, toRing));
+                return;
+            }
+            for (int r = fromRing; r < toRing; r++) {
+                writeRing(r);
+            }
+        }
+
+        private BandTask split(int from, int to) {
+            return new BandTask(radius, rings, segments, positions, texCoords, normals, indices,
+                    strip, from, to, bandSize);
+        }
+
+        private void writeRing(int r) {
+            int stride = segments + 1;
+            //纬度角 vAngle = π * r / rings,即把整圆切分为2 * rings份时的第r项
+            float sinV = latitude.sin(r);
+            float cosV = latitude.cos(r);
+            float t = (float) r / rings;
+            for (int s = 0; s <= segments; s++) {
+                int v = r * stride + s;
+                //经度角 hAngle = 2π * s / segments
+                float nx = sinV * longitude.cos(s);
+                float ny = sinV * longitude.sin(s);
+                positions.put(v * 3, radius * nx);
+                positions.put(v * 3 + 1, radius * ny);
+                positions.put(v * 3 + 2, radius * cosV);
+                // 与原GlobeMeta一致的纹理坐标映射：s = -hAngle / 2π, t = vAngle / π
+                texCoords.put(v * 2, -(float) s / segments);
+                texCoords.put(v * 2 + 1, t);
+                if (normals != null) {
+                    normals.put(v * 3, nx);
+                    normals.put(v * 3 + 1, ny);
+                    normals.put(v * 3 + 2, cosV);
+                }
+            }
+
+            if (r == rings) {
+                return;
+            }
+            if (strip) {
+                writeStrip(r);
+                return;
+            }
+            int offset = r * segments * 6;
+            for (int s = 0; s < segments; s++) {
+                int i0 = r * stride + s;      // (vAngle, hAngle)
+                int i1 = i0 + 1;              // (vAngle, hAngle + span)
+                int i3 = i0 + stride;         // (vAngle + span, hAngle)
+                int i2 = i3 + 1;              // (vAngle + span, hAngle + span)
+                //将四个点拆分为两个三角形,绕序与原来的非索引版本相同
+                indices.set(offset, i1, i0, i3);
+                indices.set(offset + 3, i1, i3, i2);
+                offset += 6;
+            }
+        }
+
+        /**
+         * 第r条纬度带的三角形带：交替取下一条纬线和本条纬线上的顶点,
+         * 偶数三角形(i0, i3, i1)与奇数三角形(i1, i3, i2)与三角形列表的绕序一致
+         */
+        private void writeStrip(int r) {
+            int stride = segments + 1;
+            int offset = r * (2 * stride + 1);
+            for (int s = 0; s <= segments; s++) {
+                int i0 = r * stride + s;
+                indices.set(offset, i0);
+                indices.set(offset + 1, i0 + stride);
+                offset += 2;
+            }
+            if (r < rings - 1) {
+                indices.set(offset, IndexBufferBuilder.restartIndex(indices.getType()));
+            }
+        }
+    }
+}
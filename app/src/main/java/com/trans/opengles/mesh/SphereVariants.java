@@ -0,0 +1,75 @@
+package com.trans.opengles.mesh;
+
+/**
+ * @author Tom灿
+ * @description: 球体网格的三种生成方式(UV球体、正二十面体细分球体、立方体球)之间的选择。
+ * 以网格上最长边对应的球心角作为角度误差,对给定的误差计算各方式所需的切分参数,
+ * 选出三角形最少的一种。各方式的最长边估计来自实测(见各方法注释),均取偏保守的上界
+ * @date :2026/10/18 18:10
+ */
+public final class SphereVariants {
+    private static final String UV = "sphere";
+    private static final String ICOSPHERE = "icosphere";
+    private static final String CUBE_SPHERE = "cubesphere";
+
+    //正二十面体细分的级数范围：第0级的大三角形跨越经度超过半周,纹理无法正确映射,最低为第1级
+    private static final int MIN_ICOSPHERE_LEVEL = 1;
+    private static final int MAX_ICOSPHERE_LEVEL = 6;
+
+    private SphereVariants() {
+    }
+
+    /**
+     * 选择满足角度误差且三角形最少的球体网格
+     *
+     * @param radius       半径
+     * @param maxEdgeAngle 允许的最长边球心角(弧度)
+     * @param withNormals  是否生成法线
+     */
+    public static MeshKey choose(float radius, float maxEdgeAngle, boolean withNormals) {
+        //UV球体：经线方向S份、纬线方向S/2份时,赤道附近四边形对角线最长,为2PI*sqrt(2)/S
+        int segments = (int) Math.ceil(2 * Math.PI * Math.sqrt(2) / maxEdgeAngle);
+        segments += segments & 1;
+        int uvTriangles = segments * segments;
+
+        //正二十面体细分：第L级最长边随级数增大趋近1.323/2^L(实测第5级为0.0413),按1.33/2^L估计
+        int level = MIN_ICOSPHERE_LEVEL;
+        while (level < MAX_ICOSPHERE_LEVEL && 1.33 / (1 << level) > maxEdgeAngle) {
+            level++;
+        }
+        //最高级数仍不满足误差时不参与选择
+        int icoTriangles = 1.33 / (1 << level) <= maxEdgeAngle
+                ? IcosphereGenerator.triangleCount(level) : Integer.MAX_VALUE;
+
+        //立方体球：每个面切分n份时,面中心附近对角线最长,约为2.43/n,按2.45/n估计
+        int n = (int) Math.ceil(2.45 / maxEdgeAngle);
+        int cubeTriangles = CubeSphereGenerator.triangleCount(n);
+
+        if (icoTriangles <= uvTriangles && icoTriangles <= cubeTriangles) {
+            return MeshKey.icosphere(radius, level, withNormals);
+        }
+        if (cubeTriangles <= uvTriangles) {
+            return MeshKey.cubeSphere(radius, n, withNormals);
+        }
+        return MeshKey.sphere(radius, segments / 2, segments, withNormals);
+    }
+
+    /**
+     * 按{@link #choose(float, float, boolean)}返回的键生成网格
+     */
+    public static MeshData create(MeshKey key) {
+        boolean withNormals = MeshKey.FORMAT_POSITION_UV_NORMAL.equals(key.getFormat());
+        float radius = key.getParam(0);
+        switch (key.getShape()) {
+            case ICOSPHERE:
+                return IcosphereGenerator.create(radius, (int) key.getParam(1), withNormals);
+            case CUBE_SPHERE:
+                return CubeSphereGenerator.create(radius, (int) key.getParam(1), withNormals);
+            case UV:
+                return SphereGenerator.create(radius, (int) key.getParam(1), (int) key.getParam(2),
+                        withNormals);
+            default:
+                throw new IllegalArgumentException("Not a sphere: " + key);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.trans.opengles.mesh;
+
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 顶点变换后缓存优化(Tom Forsyth的线性时间算法)。为每个顶点按其在模拟LRU缓存中的位置
+ * 和剩余未输出的三角形个数打分,三角形的分数是三个顶点之和,每次贪心输出缓存中分数最高的三角形，
+ * 使相邻三角形尽量复用刚变换过的顶点。只操作int[]索引,可以在JVM上单元测试和做基准测试
+ * @date :2026/10/18 18:10
+ */
+public final class VertexCacheOptimizer {
+    //评分时模拟的LRU缓存大小
+    private static final int CACHE_SIZE = 32;
+    private static final float CACHE_DECAY_POWER = 1.5f;
+    //刚输出的三角形的三个顶点得分固定,避免总是优先选用与上一个三角形共边的三角形而形成长条
+    private static final float LAST_TRIANGLE_SCORE = 0.75f;
+    //剩余三角形越少的顶点加分越多,尽快把它用完
+    private static final float VALENCE_BOOST_SCALE = 2.0f;
+    private static final float VALENCE_BOOST_POWER = 0.5f;
+    //预先计算的评分表
+    private static final int MAX_TABLE_VALENCE = 32;
+    private static final float[] CACHE_SCORES = new float[CACHE_SIZE];
+    private static final float[] VALENCE_SCORES = new float[MAX_TABLE_VALENCE];
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            CACHE_SCORES[i] = i < 3 ? LAST_TRIANGLE_SCORE
+                    : (float) Math.pow(1.0f - (float) (i - 3) / (CACHE_SIZE - 3), CACHE_DECAY_POWER);
+        }
+        for (int i = 1; i < MAX_TABLE_VALENCE; i++) {
+            VALENCE_SCORES[i] = valenceScore(i);
+        }
+    }
+
+    private VertexCacheOptimizer() {
+    }
+
+    /**
+     * 重排三角形顺序,每个三角形内顶点的顺序(绕序)不变
+     *
+     * @param indices     三角形列表索引
+     * @param vertexCount 顶点个数
+     * @return 重排后的新索引数组
+     */
+    public static int[] optimize(int[] indices, int vertexCount) {
+        int triangleCount = indices.length / 3;
+        int[] result = new int[triangleCount * 3];
+        if (triangleCount == 0) {
+            return result;
+        }
+
+        //每个顶点尚未输出的三角形：按顶点连续存放的邻接表,live[v]为剩余个数
+        int[] live = new int[vertexCount];
+        for (int i = 0; i < triangleCount * 3; i++) {
+            live[indices[i]]++;
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] = offsets[v] + live[v];
+        }
+        int[] adjacency = new int[triangleCount * 3];
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < triangleCount * 3; i++) {
+            adjacency[fill[indices[i]]++] = i / 3;
+        }
+
+        int[] cachePosition = new int[vertexCount];
+        Arrays.fill(cachePosition, -1);
+        float[] vertexScores = new float[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            vertexScores[v] = score(-1, live[v]);
+        }
+        float[] triangleScores = new float[triangleCount];
+        int best = 0;
+        for (int t = 0; t < triangleCount; t++) {
+            triangleScores[t] = vertexScores[indices[t * 3]] + vertexScores[indices[t * 3 + 1]]
+                    + vertexScores[indices[t * 3 + 2]];
+            if (triangleScores[t] > triangleScores[best]) {
+                best = t;
+            }
+        }
+        boolean[] emitted = new boolean[triangleCount];
+
+        //缓存中的顶点,下标即LRU位置；多出的3个位置存放本次被挤出的顶点
+        int[] cache = new int[CACHE_SIZE + 3];
+        int[] next = new int[CACHE_SIZE + 3];
+        int cacheCount = 0;
+        //缓存中没有可用三角形时,从这里顺序查找下一个未输出的三角形
+        int cursor = 0;
+
+        for (int out = 0; out < triangleCount; out++) {
+            if (best < 0) {
+                while (emitted[cursor]) {
+                    cursor++;
+                }
+                best = cursor;
+            }
+            int t = best;
+            emitted[t] = true;
+            int a = indices[t * 3];
+            int b = indices[t * 3 + 1];
+            int c = indices[t * 3 + 2];
+            result[out * 3] = a;
+            result[out * 3 + 1] = b;
+            result[out * 3 + 2] = c;
+            removeTriangle(adjacency, offsets, live, a, t);
+            removeTriangle(adjacency, offsets, live, b, t);
+            removeTriangle(adjacency, offsets, live, c, t);
+
+            //三个顶点移到缓存最前面,其余顶点依次后移
+            int count = 0;
+            next[count++] = a;
+            if (b != a) {
+                next[count++] = b;
+            }
+            if (c != a && c != b) {
+                next[count++] = c;
+            }
+            for (int i = 0; i < cacheCount; i++) {
+                int v = cache[i];
+                if (v != a && v != b && v != c) {
+                    next[count++] = v;
+                }
+            }
+            int[] swap = cache;
+            cache = next;
+            next = swap;
+            cacheCount = count;
+
+            //更新缓存中(以及刚被挤出)的顶点分数,并累加到它们剩余的三角形上
+            for (int i = 0; i < cacheCount; i++) {
+                int v = cache[i];
+                cachePosition[v] = i < CACHE_SIZE ? i : -1;
+                float s = score(cachePosition[v], live[v]);
+                float delta = s - vertexScores[v];
+                vertexScores[v] = s;
+                for (int j = offsets[v], end = offsets[v] + live[v]; j < end; j++) {
+                    triangleScores[adjacency[j]] += delta;
+                }
+            }
+            //下一个三角形只在缓存中的顶点相邻的三角形里选
+            best = -1;
+            float bestScore = -1;
+            cacheCount = Math.min(cacheCount, CACHE_SIZE);
+            for (int i = 0; i < cacheCount; i++) {
+                int v = cache[i];
+                for (int j = offsets[v], end = offsets[v] + live[v]; j < end; j++) {
+                    int candidate = adjacency[j];
+                    if (triangleScores[candidate] > bestScore) {
+                        bestScore = triangleScores[candidate];
+                        best = candidate;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从顶点v的邻接表中移除三角形t(与最后一个剩余三角形交换)
+     */
+    private static void removeTriangle(int[] adjacency, int[] offsets, int[] live, int v, int t) {
+        int begin = offsets[v];
+        int last = begin + live[v] - 1;
+        for (int j = begin; j <= last; j++) {
+            if (adjacency[j] == t) {
+                adjacency[j] = adjacency[last];
+                adjacency[last] = t;
+                live[v]--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param cachePosition 顶点在LRU缓存中的位置,-1表示不在缓存中
+     * @param valence       顶点剩余未输出的三角形个数
+     */
+    private static float score(int cachePosition, int valence) {
+        if (valence == 0) {
+            //已经没有三角形引用该顶点
+            return -1.0f;
+        }
+        float s = cachePosition < 0 ? 0.0f : CACHE_SCORES[cachePosition];
+        return s + (valence < MAX_TABLE_VALENCE ? VALENCE_SCORES[valence] : valenceScore(valence));
+    }
+
+    private static float valenceScore(int valence) {
+        return VALENCE_BOOST_SCALE * (float) Math.pow(valence, -VALENCE_BOOST_POWER);
+    }
+}
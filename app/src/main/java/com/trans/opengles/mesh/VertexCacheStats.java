@@ -0,0 +1,73 @@
+package com.trans.opengles.mesh;
+
+import java.util.Locale;
+
+/**
+ * @author Tom灿
+ * @description: 顶点变换后缓存统计：用FIFO缓存模拟GPU,统计顶点着色器的调用次数。
+ * ACMR为每个三角形平均变换的顶点数(理想值约0.5,最差3)；ATVR为变换次数与实际用到的顶点数之比(理想值1)
+ * @date :2026/10/18 18:10
+ */
+public final class VertexCacheStats {
+    //常见移动GPU的后变换缓存大小
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    private final int triangleCount;
+    private final int vertexCount;
+    private final int transformCount;
+
+    private VertexCacheStats(int triangleCount, int vertexCount, int transformCount) {
+        this.triangleCount = triangleCount;
+        this.vertexCount = vertexCount;
+        this.transformCount = transformCount;
+    }
+
+    public static VertexCacheStats analyze(int[] indices, int vertexCount) {
+        return analyze(indices, vertexCount, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param indices     三角形列表索引
+     * @param vertexCount 顶点个数
+     * @param cacheSize   模拟的FIFO缓存大小
+     */
+    public static VertexCacheStats analyze(int[] indices, int vertexCount, int cacheSize) {
+        //顶点进入缓存时的变换序号：与当前序号相差不超过缓存大小时仍在FIFO缓存中
+        int[] stamps = new int[vertexCount];
+        int transforms = 0;
+        int used = 0;
+        for (int index : indices) {
+            if (stamps[index] == 0) {
+                used++;
+            }
+            if (stamps[index] == 0 || transforms - stamps[index] >= cacheSize) {
+                transforms++;
+                stamps[index] = transforms;
+            }
+        }
+        return new VertexCacheStats(indices.length / 3, used, transforms);
+    }
+
+    /**
+     * 每个三角形平均变换的顶点数
+     */
+    public float getAcmr() {
+        return triangleCount == 0 ? 0 : (float) transformCount / triangleCount;
+    }
+
+    /**
+     * 顶点变换次数与用到的顶点数之比
+     */
+    public float getAtvr() {
+        return vertexCount == 0 ? 0 : (float) transformCount / vertexCount;
+    }
+
+    public int getTransformCount() {
+        return transformCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "ACMR %.3f, ATVR %.3f", getAcmr(), getAtvr());
+    }
+}
@@ -0,0 +1,216 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 顶点属性量化编码：把32位浮点属性编码为{@link VertexFormat}描述的紧凑格式。
+ * 位置用半精度浮点、纹理坐标用归一化16位整数、法线用10/10/10/2打包、颜色用归一化8位整数时，
+ * 顶点数据量约为原来的1/2~1/4。所有编码都四舍五入到最近的可表示值
+ * @date :2026/10/18 18:40
+ */
+public final class VertexEncoder {
+    //半精度浮点的最小正规格化数与最小非规格化数
+    private static final int FLOAT_HALF_MIN_NORMAL = 0x38800000;
+    private static final int FLOAT_HALF_MIN_SUBNORMAL_HALF = 0x33000000;
+    //不小于该值(65520)的浮点数舍入到半精度的无穷大
+    private static final int FLOAT_HALF_OVERFLOW = 0x477FF000;
+
+    private VertexEncoder() {
+    }
+
+    /**
+     * 编码一个顶点属性数组
+     *
+     * @param data       每个顶点components个浮点分量
+     * @param components 源数据的分量个数,不足format分量个数时x/y/z补0、w补1
+     * @param format     目标格式
+     * @return 本地字节序的直接缓冲区,position为0
+     */
+    public static ByteBuffer encode(FloatBuffer data, int components, VertexFormat format) {
+        int vertexCount = data.remaining() / components;
+        ByteBuffer out = ByteBuffer.allocateDirect(vertexCount * format.getBytes())
+                .order(ByteOrder.nativeOrder());
+        encode(data, components, format, out, 0, format.getBytes());
+        out.position(0);
+        return out;
+    }
+
+    /**
+     * 把顶点属性编码到交错缓冲区中,第i个顶点写在offset + i * stride处
+     *
+     * @param out    本地字节序的缓冲区,写入后position不确定
+     * @param offset 属性在顶点内的字节偏移
+     * @param stride 每个顶点的字节数
+     */
+    public static void encode(FloatBuffer data, int components, VertexFormat format,
+                              ByteBuffer out, int offset, int stride) {
+        if (components > format.getSize()) {
+            throw new IllegalArgumentException(components + " components do not fit " + format);
+        }
+        int vertexCount = data.remaining() / components;
+        float[] v = new float[4];
+        int base = data.position();
+        for (int i = 0; i < vertexCount; i++) {
+            for (int c = 0; c < 4; c++) {
+                v[c] = c < components ? data.get(base + i * components + c) : (c == 3 ? 1.0f : 0.0f);
+            }
+            out.position(offset + i * stride);
+            put(out, format, v);
+        }
+    }
+
+    private static void put(ByteBuffer out, VertexFormat format, float[] v) {
+        int size = format.getSize();
+        switch (format.getType()) {
+            case GLES30.GL_FLOAT:
+                for (int c = 0; c < size; c++) {
+                    out.putFloat(v[c]);
+                }
+                break;
+            case GLES30.GL_HALF_FLOAT:
+                for (int c = 0; c < size; c++) {
+                    out.putShort(toHalf(v[c]));
+                }
+                break;
+            case GLES30.GL_SHORT:
+                for (int c = 0; c < size; c++) {
+                    out.putShort(toSnorm16(v[c]));
+                }
+                break;
+            case GLES30.GL_UNSIGNED_SHORT:
+                for (int c = 0; c < size; c++) {
+                    out.putShort(toUnorm16(v[c]));
+                }
+                break;
+            case GLES30.GL_UNSIGNED_BYTE:
+                for (int c = 0; c < size; c++) {
+                    out.put(toUnorm8(v[c]));
+                }
+                break;
+            case GLES30.GL_INT_2_10_10_10_REV:
+                out.putInt(packSnorm1010102(v[0], v[1], v[2], v[3]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported " + format);
+        }
+    }
+
+    /**
+     * 为纹理坐标选择格式：在[0, 1]或[-1, 1]范围内时用归一化16位整数,否则用半精度浮点
+     */
+    public static VertexFormat chooseTexCoordFormat(FloatBuffer texCoords) {
+        float min = 0.0f;
+        float max = 0.0f;
+        for (int i = texCoords.position(); i < texCoords.limit(); i++) {
+            float v = texCoords.get(i);
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        if (max <= 1.0f) {
+            if (min >= 0.0f) {
+                return VertexFormat.UNORM16_2;
+            }
+            if (min >= -1.0f) {
+                return VertexFormat.SNORM16_2;
+            }
+        }
+        return VertexFormat.HALF2;
+    }
+
+    /**
+     * 浮点数转半精度浮点(舍入到最近,相同时取偶数)
+     */
+    public static short toHalf(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int abs = bits & 0x7FFFFFFF;
+        if (abs >= 0x7F800000) {
+            //无穷大保持不变,NaN保留为静默NaN
+            return (short) (sign | 0x7C00 | (abs > 0x7F800000 ? 0x0200 : 0));
+        }
+        if (abs >= FLOAT_HALF_OVERFLOW) {
+            return (short) (sign | 0x7C00);
+        }
+        if (abs >= FLOAT_HALF_MIN_NORMAL) {
+            //指数偏移从127调整为15,尾数舍入到10位
+            int rounded = abs + 0x0FFF + ((abs >>> 13) & 1);
+            return (short) (sign | ((rounded - 0x38000000) >>> 13));
+        }
+        if (abs < FLOAT_HALF_MIN_SUBNORMAL_HALF) {
+            return (short) sign;
+        }
+        //非规格化数：value = m * 2^-24
+        int exponent = abs >>> 23;
+        int mantissa = (abs & 0x007FFFFF) | 0x00800000;
+        int shift = 126 - exponent;
+        int m = mantissa >>> shift;
+        int remainder = mantissa & ((1 << shift) - 1);
+        int halfway = 1 << (shift - 1);
+        if (remainder > halfway || (remainder == halfway && (m & 1) != 0)) {
+            m++;
+        }
+        return (short) (sign | m);
+    }
+
+    /**
+     * 半精度浮点转浮点数
+     */
+    public static float fromHalf(short half) {
+        int bits = half & 0xFFFF;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x03FF;
+        if (exponent == 0) {
+            float v = mantissa * 0x1p-24f;
+            return sign != 0 ? -v : v;
+        }
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    /**
+     * [-1, 1]编码为归一化有符号16位整数
+     */
+    public static short toSnorm16(float value) {
+        return (short) Math.round(clamp(value, -1.0f, 1.0f) * 32767.0f);
+    }
+
+    /**
+     * [0, 1]编码为归一化无符号16位整数
+     */
+    public static short toUnorm16(float value) {
+        return (short) Math.round(clamp(value, 0.0f, 1.0f) * 65535.0f);
+    }
+
+    /**
+     * [0, 1]编码为归一化无符号8位整数
+     */
+    public static byte toUnorm8(float value) {
+        return (byte) Math.round(clamp(value, 0.0f, 1.0f) * 255.0f);
+    }
+
+    /**
+     * 按GL_INT_2_10_10_10_REV打包：x在最低10位,依次是y、z,w在最高2位,都是有符号归一化值
+     */
+    public static int packSnorm1010102(float x, float y, float z, float w) {
+        return (snorm(x, 511) & 0x3FF)
+                | (snorm(y, 511) & 0x3FF) << 10
+                | (snorm(z, 511) & 0x3FF) << 20
+                | (snorm(w, 1) & 0x3) << 30;
+    }
+
+    private static int snorm(float value, int max) {
+        return Math.round(clamp(value, -1.0f, 1.0f) * max);
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
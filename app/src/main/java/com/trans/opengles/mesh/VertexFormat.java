@@ -0,0 +1,82 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+/**
+ * @author Tom灿
+ * @description: 顶点属性的存储格式,对应glVertexAttribPointer的size/type/normalized参数。
+ * 每个顶点占用的字节数都是4的倍数,保证属性地址对齐
+ * @date :2026/10/18 18:40
+ */
+public final class VertexFormat {
+    public static final VertexFormat FLOAT2 = new VertexFormat(2, GLES30.GL_FLOAT, false, 8);
+    public static final VertexFormat FLOAT3 = new VertexFormat(3, GLES30.GL_FLOAT, false, 12);
+    public static final VertexFormat FLOAT4 = new VertexFormat(4, GLES30.GL_FLOAT, false, 16);
+    //半精度浮点：纹理坐标,以及坐标范围不大的顶点位置(xyz + w=1,补齐到8字节)
+    public static final VertexFormat HALF2 = new VertexFormat(2, GLES30.GL_HALF_FLOAT, false, 4);
+    public static final VertexFormat HALF4 = new VertexFormat(4, GLES30.GL_HALF_FLOAT, false, 8);
+    //归一化16位整数：[-1, 1]或[0, 1]范围内的纹理坐标
+    public static final VertexFormat SNORM16_2 = new VertexFormat(2, GLES30.GL_SHORT, true, 4);
+    public static final VertexFormat UNORM16_2 = new VertexFormat(2, GLES30.GL_UNSIGNED_SHORT, true, 4);
+    //归一化8位整数：颜色
+    public static final VertexFormat UNORM8_4 = new VertexFormat(4, GLES30.GL_UNSIGNED_BYTE, true, 4);
+    //10/10/10/2位有符号归一化打包：法线
+    public static final VertexFormat SNORM_10_10_10_2 =
+            new VertexFormat(4, GLES30.GL_INT_2_10_10_10_REV, true, 4);
+
+    //分量个数
+    private final int size;
+    //分量类型
+    private final int type;
+    //整数是否归一化到[0, 1]或[-1, 1]
+    private final boolean normalized;
+    //每个顶点的字节数
+    private final int bytes;
+
+    private VertexFormat(int size, int type, boolean normalized, int bytes) {
+        this.size = size;
+        this.type = type;
+        this.normalized = normalized;
+        this.bytes = bytes;
+    }
+
+    /**
+     * 32位浮点格式
+     *
+     * @param size 分量个数,1~4
+     */
+    public static VertexFormat floats(int size) {
+        switch (size) {
+            case 2:
+                return FLOAT2;
+            case 3:
+                return FLOAT3;
+            case 4:
+                return FLOAT4;
+            default:
+                return new VertexFormat(size, GLES30.GL_FLOAT, false, size * 4);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public boolean isNormalized() {
+        return normalized;
+    }
+
+    public int getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "VertexFormat{size=" + size + ", type=0x" + Integer.toHexString(type)
+                + ", normalized=" + normalized + ", bytes=" + bytes + "}";
+    }
+}
@@ -0,0 +1,187 @@
+package com.trans.opengles.mesh;
+
+import android.opengl.GLES30;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+/**
+ * @author Tom灿
+ * @description: 交错顶点布局：声明每个属性对应的网格数据流、着色器中的属性名和存储格式,
+ * 偏移量和步长自动计算。同一个布局既把生成器输出打包为一个交错缓冲区,
+ * 也根据着色器的属性位置驱动glVertexAttribPointer,Meta中不再手写绑定代码
+ * @date :2026/10/18 19:10
+ */
+public final class VertexLayout {
+    //属性对应的网格数据流
+    public static final int POSITION = 0;
+    public static final int TEX_COORD = 1;
+    public static final int NORMAL = 2;
+    public static final int COLOR = 3;
+    //不来自MeshData的属性,只能通过GLMesh直接提供数据
+    public static final int CUSTOM = -1;
+
+    private final Attribute[] attributes;
+    private final int stride;
+
+    private VertexLayout(Attribute[] attributes, int stride) {
+        this.attributes = attributes;
+        this.stride = stride;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 只有一个属性的布局
+     */
+    public static VertexLayout of(VertexFormat format) {
+        return builder().add(CUSTOM, null, format).build();
+    }
+
+    public int size() {
+        return attributes.length;
+    }
+
+    public Attribute get(int index) {
+        return attributes[index];
+    }
+
+    /**
+     * 每个顶点占用的字节数
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * 查询各属性在着色器程序中的位置,必须在GL线程调用
+     *
+     * @return 与属性一一对应的位置,着色器中没有该属性时为-1
+     */
+    public int[] locations(int program) {
+        int[] locations = new int[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            String name = attributes[i].name;
+            locations[i] = name != null ? GLES30.glGetAttribLocation(program, name) : -1;
+        }
+        return locations;
+    }
+
+    /**
+     * 按布局把网格数据编码为一个交错缓冲区
+     *
+     * @return 本地字节序的直接缓冲区,position为0
+     */
+    public ByteBuffer interleave(MeshData data) {
+        int vertexCount = data.getVertexCount();
+        ByteBuffer out = ByteBuffer.allocateDirect(vertexCount * stride).order(ByteOrder.nativeOrder());
+        for (Attribute attribute : attributes) {
+            FloatBuffer source = source(data, attribute.semantic);
+            if (source == null) {
+                throw new IllegalArgumentException("Mesh has no data for attribute " + attribute.name);
+            }
+            VertexEncoder.encode(source, components(attribute.semantic), attribute.format,
+                    out, attribute.offset, stride);
+        }
+        out.position(0);
+        out.limit(vertexCount * stride);
+        return out;
+    }
+
+    private static FloatBuffer source(MeshData data, int semantic) {
+        switch (semantic) {
+            case POSITION:
+                return data.getPositions();
+            case TEX_COORD:
+                return data.getTexCoords();
+            case NORMAL:
+                return data.getNormals();
+            case COLOR:
+                return data.getColors();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * MeshData中每个数据流的分量个数
+     */
+    private static int components(int semantic) {
+        switch (semantic) {
+            case TEX_COORD:
+                return 2;
+            case COLOR:
+                return 4;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * 布局中的一个属性
+     */
+    public static final class Attribute {
+        private final int semantic;
+        private final String name;
+        private final VertexFormat format;
+        private final int offset;
+
+        Attribute(int semantic, String name, VertexFormat format, int offset) {
+            this.semantic = semantic;
+            this.name = name;
+            this.format = format;
+            this.offset = offset;
+        }
+
+        public int getSemantic() {
+            return semantic;
+        }
+
+        /**
+         * 着色器中的属性名
+         */
+        public String getName() {
+            return name;
+        }
+
+        public VertexFormat getFormat() {
+            return format;
+        }
+
+        /**
+         * 在顶点内的字节偏移
+         */
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    public static final class Builder {
+        private final ArrayList<Attribute> attributes = new ArrayList<>();
+        private int offset;
+
+        private Builder() {
+        }
+
+        /**
+         * 追加一个属性,偏移量为之前所有属性的字节数之和(格式保证4字节对齐)
+         *
+         * @param semantic 数据来源：POSITION、TEX_COORD、NORMAL、COLOR或CUSTOM
+         * @param name     着色器中的属性名
+         * @param format   存储格式
+         */
+        public Builder add(int semantic, String name, VertexFormat format) {
+            attributes.add(new Attribute(semantic, name, format, offset));
+            offset += format.getBytes();
+            return this;
+        }
+
+        public VertexLayout build() {
+            return new VertexLayout(attributes.toArray(new Attribute[0]), offset);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.trans.opengles.meta.basic;
 
 import android.opengl.GLES30;
 
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
 
 import javax.microedition.khronos.opengles.GL10;
@@ -28,7 +29,7 @@ public class BackgroundMeta implements Render {
 
     private void viewport(int width, int height) {
         //设置视图窗口
-        GLES30.glViewport(0, 0, width, height); // 设置视口
+        GlState.getInstance().viewport(0, 0, width, height); // 设置视口
     }
 
     private void drawBackground() {
@@ -0,0 +1,80 @@
+package com.trans.opengles.meta.basic;
+
+import android.opengl.GLES30;
+import android.opengl.Matrix;
+
+import com.trans.opengles.surface.Batch2D;
+import com.trans.opengles.surface.GlState;
+import com.trans.opengles.surface.Render;
+
+/**
+ * @author Tom灿
+ * @description: 2D批量绘制：每帧用{@link Batch2D}绘制数千个矩形、三角形、圆、线段和点，
+ * 只需要少数几次绘制调用
+ * @date :2026/10/19 0:55
+ */
+public class Batch2DMeta implements Render {
+    //网格单元的边长(像素)
+    private static final float CELL = 48f;
+
+    private Batch2D batch;
+    //按像素坐标的正交投影,原点在左上角
+    private final float[] mProjectMatrix = new float[16];
+    private int width;
+    private int height;
+    private final long startNanos = System.nanoTime();
+
+    @Override
+    public void shader() {
+        //EGL上下文重建后重新创建GPU端对象
+        batch = new Batch2D();
+        GLES30.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
+    }
+
+    @Override
+    public void view(int width, int height) {
+        this.width = width;
+        this.height = height;
+        GlState.getInstance().viewport(0, 0, width, height);
+        Matrix.orthoM(mProjectMatrix, 0, 0, width, height, 0, -1, 1);
+    }
+
+    @Override
+    public void draw() {
+        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
+        float time = (System.nanoTime() - startNanos) / 1e9f;
+        batch.begin(mProjectMatrix);
+        float half = CELL / 2;
+        for (float y = 0; y < height; y += CELL) {
+            for (float x = 0; x < width; x += CELL) {
+                float phase = (x + y) * 0.01f + time;
+                int color = color(phase);
+                batch.rect(x + 2, y + 2, CELL - 4, CELL - 4,
+                        0x40FFFFFF & color, color, 0x40FFFFFF & color, color);
+                batch.circle(x + half, y + half, half * (0.5f + 0.2f * (float) Math.sin(phase)), 0xFFFFFFFF);
+                batch.triangle(x + half, y + 8, x + 10, y + CELL - 10, x + CELL - 10, y + CELL - 10,
+                        0x80000000 | (0xFFFFFF & color(phase + 2f)));
+            }
+        }
+        //网格线和中心点
+        for (float x = 0; x < width; x += CELL) {
+            batch.line(x, 0, 0xFF000000, x, height, 0x20000000);
+        }
+        for (float y = 0; y < height; y += CELL) {
+            batch.line(0, y, 0xFF000000, width, y, 0x20000000);
+        }
+        for (float y = 0; y < height; y += CELL) {
+            for (float x = 0; x < width; x += CELL) {
+                batch.point(x + CELL / 2, y + CELL / 2, 0xFF000000);
+            }
+        }
+        batch.end();
+    }
+
+    private static int color(float phase) {
+        int r = (int) (127.5f + 127.5f * Math.sin(phase));
+        int g = (int) (127.5f + 127.5f * Math.sin(phase + 2.094f));
+        int b = (int) (127.5f + 127.5f * Math.sin(phase + 4.189f));
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
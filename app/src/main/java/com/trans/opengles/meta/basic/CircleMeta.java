@@ -5,13 +5,16 @@ import android.opengl.GLES30;
 import android.opengl.Matrix;
 
 import com.trans.opengles.R;
+import com.trans.opengles.mesh.MeshAssets;
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.mesh.SampleMeshes;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
-import com.trans.opengles.utils.ResReadUtils;
-
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-import java.util.ArrayList;
 
 /**
  * @author Tom灿
@@ -19,9 +22,12 @@ import java.util.ArrayList;
  * @date :2023/11/8 9:34
  */
 public class CircleMeta implements Render {
+    //交错顶点布局：半精度位置 + 归一化8位颜色,每个顶点12字节
+    private static final VertexLayout LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.HALF4)
+            .add(VertexLayout.COLOR, "aColor", VertexFormat.UNORM8_4)
+            .build();
     private static final Render INSTANS = new CircleMeta();
-    private FloatBuffer colorBuffer;
-    private static final int BYTES_PER_FLOAT = 4;
     //相机矩阵
     private final float[] mViewMatrix = new float[16];
     //投影矩阵
@@ -30,59 +36,34 @@ public class CircleMeta implements Render {
     private final float[] mMVPMatrix = new float[16];
     //返回属性变量的位置
     //变换矩阵
-    private int uMatrixLocation;
-    //位置
-    private int aPositionLocation;
-    //颜色
-    private int aColorLocation;
-    int n;
-    int radius;
-    private float circularCoords[];
-    private FloatBuffer circleBuffer;
+    private ShaderProgram.Uniform uMatrix;
+    //GPU端的圆网格(VBO+VAO)
+    private GLMesh circleMesh;
     //三个顶点
     private static final int POSITION_COMPONENT_COUNT = 3;
 
-    //各个顶点的颜色参数
-    private float color[] = {
-            0.0f, 0.0f, 1.0f, 1.0f,//top left
-            0.0f, 1.0f, 0.0f, 1.0f,// bottom left
-            0.0f, 0.0f, 1.0f, 1.0f,// bottom right
-            1.0f, 0.0f, 0.0f, 1.0f// top right
-    };
-
-
     public CircleMeta() {
     }
 
 
     private void init() {
-        // 分配内存空间
-        initMemory();
-
-        // 编译着色器程序
-        // 编译顶点着色器
-        int vertexShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.vertex_triangle_shader));
-        // TODO 编译顶点着色器：定义了矩阵属性变量
-        int vertexIsoscelesShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.rvertex_isosceles_triangle_shader));
-        // 编译片段着色器
-        int fragmentShaderId = compileShader(GLES30.GL_FRAGMENT_SHADER,
-                ResReadUtils.readResource(R.raw.fragment_triangle_shader));
-
-        // 连接着色器程序
-        int mProgram = linkProgram(vertexIsoscelesShaderId, fragmentShaderId);
+        // 从进程级程序缓存获取着色器程序：相同源码的着色器只编译、链接一次
+        ShaderProgram program = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_shader, R.raw.fragment_shader);
+        int mProgram = program.getId();
 
         //在OpenGLES环境中使用程序
-        GLES30.glUseProgram(mProgram);
+        GlState.getInstance().useProgram(mProgram);
 
         //将背景设置为白色
         GLES20.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
 
         // 获取相关属性变量的句柄
-        uMatrixLocation = GLES30.glGetUniformLocation(mProgram, "u_Matrix");  // 矩阵属性变量句柄
-        aPositionLocation = GLES30.glGetAttribLocation(mProgram, "vPosition"); // 顶点属性变量句柄
-        aColorLocation = GLES30.glGetAttribLocation(mProgram, "aColor"); // 颜色属性变量句柄
+        uMatrix = program.uniform("u_Matrix");  // 矩阵属性变量句柄
+
+        // 顶点数据从进程级网格缓存获取,缓存未命中时读取构建期烘焙的资源
+        circleMesh = MeshCache.getInstance().getMesh(SampleMeshes.CIRCLE,
+                () -> MeshAssets.load(SampleMeshes.CIRCLE), LAYOUT, mProgram);
     }
 
     /**
@@ -94,25 +75,7 @@ public class CircleMeta implements Render {
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
 
         //将变换矩阵传入顶点渲染器
-        GLES20.glUniformMatrix4fv(uMatrixLocation, 1, false, mMVPMatrix, 0);
-        //准备坐标数据
-        GLES30.glVertexAttribPointer(
-                aPositionLocation,
-                3,
-                GLES30.GL_FLOAT,
-                false, 0,
-                circleBuffer // TODO 圆
-        );
-
-        //启用顶点位置句柄
-        GLES30.glEnableVertexAttribArray(aPositionLocation);
-
-        //准备颜色数据
-        GLES30.glVertexAttribPointer(aColorLocation,
-                4, GLES30.GL_FLOAT, false, 0,
-                colorBuffer);
-        //启用顶点颜色句柄
-        GLES30.glEnableVertexAttribArray(aColorLocation);
+        uMatrix.setMat4(mMVPMatrix, 0);
 
         //绘制三个点
         //GLES30.glDrawArrays(GLES30.GL_POINTS, 0, POSITION_COMPONENT_COUNT);
@@ -129,11 +92,7 @@ public class CircleMeta implements Render {
 //                GL10.GL_UNSIGNED_SHORT, indicesBuffer);
 
         // 绘制圆
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, circularCoords.length / 3);
-
-        //禁止顶点数组的句柄
-        GLES30.glDisableVertexAttribArray(aPositionLocation);
-        GLES30.glDisableVertexAttribArray(aColorLocation);
+        circleMesh.draw();
     }
 
 
@@ -172,95 +131,6 @@ public class CircleMeta implements Render {
 //        }
     }
 
-
-    /**
-     * 链接小程序
-     *
-     * @param vertexShaderId   顶点着色器
-     * @param fragmentShaderId 片段着色器
-     */
-    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
-        //创建一个空的OpenGLES程序
-        final int programId = GLES30.glCreateProgram();
-        if (programId != 0) {
-            //将顶点着色器加入到程序
-            GLES30.glAttachShader(programId, vertexShaderId);
-            //将片元着色器加入到程序中
-            GLES30.glAttachShader(programId, fragmentShaderId);
-            //链接着色器程序
-            GLES30.glLinkProgram(programId);
-            final int[] linkStatus = new int[1];
-
-            GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-            if (linkStatus[0] == 0) {
-                String logInfo = GLES30.glGetProgramInfoLog(programId);
-                System.err.println(logInfo);
-                GLES30.glDeleteProgram(programId);
-                return 0;
-            }
-            return programId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 编译
-     *
-     * @param type       顶点着色器:GLES30.GL_VERTEX_SHADER
-     *                   片段着色器:GLES30.GL_FRAGMENT_SHADER
-     * @param shaderCode 着色器语言编写的着色器程序
-     * @return
-     */
-    private int compileShader(int type, String shaderCode) {
-        //创建一个着色器
-        final int shaderId = GLES30.glCreateShader(type);
-        if (shaderId != 0) {
-            GLES30.glShaderSource(shaderId, shaderCode);// 给着色器添加源代码
-            GLES30.glCompileShader(shaderId);  // 编译着色器(源代码)
-            //检测状态
-            final int[] compileStatus = new int[1];
-            GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
-            if (compileStatus[0] == 0) {
-                String logInfo = GLES30.glGetShaderInfoLog(shaderId);
-                System.err.println(logInfo);
-                //创建失败
-                GLES30.glDeleteShader(shaderId);
-                return 0;
-            }
-            return shaderId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 分配内存空间
-     */
-    private void initMemory() {
-        //顶点位置相关
-        //分配本地内存空间,每个浮点型占4字节空间；将坐标数据转换为FloatBuffer，用以传入给OpenGL ES程序
-        createPositions(1, 60); // 准备圆顶点数据
-        // 圆的顶点缓存区
-        circleBuffer = ByteBuffer.allocateDirect(circularCoords.length * BYTES_PER_FLOAT)
-                .order(ByteOrder.nativeOrder())
-                .asFloatBuffer();
-        circleBuffer.put(circularCoords);
-        circleBuffer.position(0);
-
-        //顶点颜色相关
-        colorBuffer = ByteBuffer.allocateDirect(color.length * BYTES_PER_FLOAT)
-                .order(ByteOrder.nativeOrder())
-                .asFloatBuffer();
-        colorBuffer.put(color);
-        colorBuffer.position(0);
-
-    }
-
     /**
      * 设置绘制窗口
      *
@@ -269,70 +139,10 @@ public class CircleMeta implements Render {
      */
     private void viewport(int width, int height) {
         //设置绘制窗口
-        GLES30.glViewport(0, 0, width, height);
-    }
-
-
-    /**
-     * 创建顶点位置和颜色
-     *
-     * @param radius 半径
-     * @param n
-     */
-    private void createPositions(int radius, int n) {
-        ArrayList<Float> data = new ArrayList<>();
-        data.add(0.0f);             //设置圆心坐标
-        data.add(0.0f);
-        data.add(0.0f);
-        float angDegSpan = 360f / n;
-        for (float i = 0; i < 360 + angDegSpan; i += angDegSpan) {
-            data.add((float) (radius * Math.sin(i * Math.PI / 180f)));
-            data.add((float) (radius * Math.cos(i * Math.PI / 180f)));
-            data.add(0.0f);
-        }
-        float[] f = new float[data.size()];
-        for (int i = 0; i < f.length; i++) {
-            f[i] = data.get(i);
-        }
-
-        circularCoords = f;
-
-        //处理各个顶点的颜色
-        color = new float[f.length * 4 / 3];
-        ArrayList<Float> tempC = new ArrayList<>();
-        ArrayList<Float> totalC = new ArrayList<>();
-        tempC.add(1.0f);
-        tempC.add(0.0f);
-        tempC.add(0.0f);
-        tempC.add(1.0f);
-        for (int i = 0; i < f.length / 3; i++) {
-            totalC.addAll(tempC);
-        }
-
-        for (int i = 0; i < totalC.size(); i++) {
-            color[i] = totalC.get(i);
-        }
+        GlState.getInstance().viewport(0, 0, width, height);
     }
 
 
-    private float[] createPositions() {
-        ArrayList<Float> data = new ArrayList<>();
-        data.add(0.0f);             //设置圆心坐标
-        data.add(0.0f);
-        data.add(0.0f);
-        float angDegSpan = 360f / n;
-        for (float i = 0; i < 360 + angDegSpan; i += angDegSpan) {
-            data.add((float) (radius * Math.sin(i * Math.PI / 180f)));
-            data.add((float) (radius * Math.cos(i * Math.PI / 180f)));
-            data.add(0.0f);
-        }
-        float[] f = new float[data.size()];
-        for (int i = 0; i < f.length; i++) {
-            f[i] = data.get(i);
-        }
-        return f;
-    }
-
     @Override
     public void shader() {
         init();
@@ -1,17 +1,21 @@
 package com.trans.opengles.meta.basic;
 
-import android.opengl.GLES20;
 import android.opengl.GLES30;
 import android.opengl.Matrix;
 
 import com.trans.opengles.R;
+import com.trans.opengles.mesh.LodChain;
+import com.trans.opengles.mesh.MeshAssets;
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.mesh.MeshKey;
+import com.trans.opengles.mesh.SampleMeshes;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
-import com.trans.opengles.utils.ResReadUtils;
-
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-import java.util.ArrayList;
 
 /**
  * @author Tom灿
@@ -19,6 +23,11 @@ import java.util.ArrayList;
  * @date :2023/11/8 9:34
  */
 public class ConeMeta implements Render {
+    //交错顶点布局：半精度位置 + 归一化8位颜色,每个顶点12字节
+    private static final VertexLayout LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.HALF4)
+            .add(VertexLayout.COLOR, "aColor", VertexFormat.UNORM8_4)
+            .build();
     private static final Render INSTANS = new ConeMeta();
 
     private static final int BYTES_PER_FLOAT = 4;
@@ -30,16 +39,15 @@ public class ConeMeta implements Render {
     private final float[] mMVPMatrix = new float[16];
     //返回属性变量的位置
     //变换矩阵
-    private int uMatrixLocation;
-    //位置
-    private int aPositionLocation;
-    //颜色
-    private int aColorLocation;
-    private float coneCoords[];
-    private float coneTopCoords[];
-    private FloatBuffer coneBuffer;
-    private FloatBuffer coneTopBuffer;
-    private FloatBuffer colorBuffer;
+    private ShaderProgram.Uniform uMatrix;
+    //GPU端的各级细节圆锥体网格：侧面和顶部各一个VAO,从粗到细
+    private final GLMesh[] coneMeshes = new GLMesh[SampleMeshes.CONE_LODS.length];
+    private final GLMesh[] coneTopMeshes = new GLMesh[SampleMeshes.CONE_BASE_LODS.length];
+    //根据屏幕上的大小选择细节级别
+    private final LodChain lodChain = new LodChain(SampleMeshes.CONE_LOD_SEGMENTS);
+    //视口大小
+    private int mWidth;
+    private int mHeight;
     //三个顶点
     private static final int POSITION_COMPONENT_COUNT = 3;
 
@@ -72,33 +80,30 @@ public class ConeMeta implements Render {
 
 
     private void init() {
-        // 分配内存空间
-        initMemory();
-
-        // 编译着色器程序
-        // 编译顶点着色器
-        int vertexShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.vertex_cone_shader));
-        // TODO 编译顶点着色器：定义了矩阵属性变量
-        int vertexIsoscelesShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.rvertex_isosceles_triangle_shader));
-        // 编译片段着色器
-        int fragmentShaderId = compileShader(GLES30.GL_FRAGMENT_SHADER,
-                ResReadUtils.readResource(R.raw.fragment_cone_shader));
-
-        // 连接着色器程序
-        int mProgram = linkProgram(vertexShaderId, fragmentShaderId);
+        // 从进程级程序缓存获取着色器程序：相同源码的着色器只编译、链接一次
+        ShaderProgram program = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_shader, R.raw.fragment_shader);
+        int mProgram = program.getId();
 
         //在OpenGLES环境中使用程序
-        GLES30.glUseProgram(mProgram);
+        GlState.getInstance().useProgram(mProgram);
 
         //将背景设置为灰色
         GLES30.glClearColor(0.5f, 0.5f, 0.5f, 1.0f);
 
         // 获取相关属性变量的句柄
-        uMatrixLocation = GLES30.glGetUniformLocation(mProgram, "u_Matrix");  // 矩阵属性变量句柄
-        aPositionLocation = GLES30.glGetAttribLocation(mProgram, "vPosition"); // 顶点属性变量句柄
-        aColorLocation = GLES30.glGetAttribLocation(mProgram, "aColor"); // 颜色属性变量句柄
+        uMatrix = program.uniform("u_Matrix");  // 矩阵属性变量句柄
+
+        // 顶点数据从进程级网格缓存获取,缓存未命中时读取构建期烘焙的资源
+        // 侧面和顶部(圆锥底面)的顶点数量相同,共用同一份颜色数据
+        for (int i = 0; i < coneMeshes.length; i++) {
+            final MeshKey key = SampleMeshes.CONE_LODS[i];
+            final MeshKey baseKey = SampleMeshes.CONE_BASE_LODS[i];
+            coneMeshes[i] = MeshCache.getInstance().getMesh(key,
+                    () -> MeshAssets.load(key), LAYOUT, mProgram);
+            coneTopMeshes[i] = MeshCache.getInstance().getMesh(baseKey,
+                    () -> MeshAssets.load(baseKey), LAYOUT, mProgram);
+        }
     }
 
     /**
@@ -110,44 +115,14 @@ public class ConeMeta implements Render {
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
 
         //将变换矩阵传入顶点渲染器
-        GLES20.glUniformMatrix4fv(uMatrixLocation, 1, false, mMVPMatrix, 0);
-        //准备坐标数据
-        GLES30.glVertexAttribPointer(
-                aPositionLocation,
-                3,
-                GLES30.GL_FLOAT,
-                false, 0,
-                coneBuffer // TODO 圆锥体侧面
-        );
-
-        //启用顶点位置句柄
-        GLES30.glEnableVertexAttribArray(aPositionLocation);
-
-        //准备颜色数据
-        GLES30.glVertexAttribPointer(aColorLocation,
-                4, GLES30.GL_FLOAT, false, 0,
-                colorBuffer);
-        //启用顶点颜色句柄
-        GLES30.glEnableVertexAttribArray(aColorLocation);
-
+        uMatrix.setMat4(mMVPMatrix, 0);
+        // 按包围球(球心(0,0,-0.25),半径约0.56)投影到屏幕上的大小选择细节级别
+        float radius = LodChain.screenRadius(mMVPMatrix, 0, 0, -0.25f, 0.56f, mWidth, mHeight);
+        int level = lodChain.select(radius);
         // 绘制圆锥体侧面
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, coneCoords.length / 3);
-
-
-        //准备圆锥体顶部坐标数据
-        GLES30.glVertexAttribPointer(
-                aPositionLocation,
-                3,
-                GLES30.GL_FLOAT,
-                false, 0,
-                coneTopBuffer // TODO 圆锥体顶部
-        );
+        coneMeshes[level].draw();
         //绘制圆锥顶部
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, coneTopCoords.length / 3);
-
-        //禁止顶点数组的句柄
-        GLES30.glDisableVertexAttribArray(aPositionLocation);
-        GLES30.glDisableVertexAttribArray(aColorLocation);
+        coneTopMeshes[level].draw();
     }
 
 
@@ -176,6 +151,8 @@ public class ConeMeta implements Render {
                 0f, 0.0f, 1.0f);
         //计算变换矩阵
         Matrix.multiplyMM(mMVPMatrix, 0, mProjectMatrix, 0, mViewMatrix, 0);
+        mWidth = width;
+        mHeight = height;
 
 
         //正交投影方式
@@ -193,103 +170,6 @@ public class ConeMeta implements Render {
 //        }
     }
 
-
-    /**
-     * 链接小程序
-     *
-     * @param vertexShaderId   顶点着色器
-     * @param fragmentShaderId 片段着色器
-     */
-    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
-        //创建一个空的OpenGLES程序
-        final int programId = GLES30.glCreateProgram();
-        if (programId != 0) {
-            //将顶点着色器加入到程序
-            GLES30.glAttachShader(programId, vertexShaderId);
-            //将片元着色器加入到程序中
-            GLES30.glAttachShader(programId, fragmentShaderId);
-            //链接着色器程序
-            GLES30.glLinkProgram(programId);
-            final int[] linkStatus = new int[1];
-
-            GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-            if (linkStatus[0] == 0) {
-                String logInfo = GLES30.glGetProgramInfoLog(programId);
-                System.err.println(logInfo);
-                GLES30.glDeleteProgram(programId);
-                return 0;
-            }
-            return programId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 编译
-     *
-     * @param type       顶点着色器:GLES30.GL_VERTEX_SHADER
-     *                   片段着色器:GLES30.GL_FRAGMENT_SHADER
-     * @param shaderCode 着色器语言编写的着色器程序
-     * @return
-     */
-    private int compileShader(int type, String shaderCode) {
-        //创建一个着色器
-        final int shaderId = GLES30.glCreateShader(type);
-        if (shaderId != 0) {
-            GLES30.glShaderSource(shaderId, shaderCode);// 给着色器添加源代码
-            GLES30.glCompileShader(shaderId);  // 编译着色器(源代码)
-            //检测状态
-            final int[] compileStatus = new int[1];
-            GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
-            if (compileStatus[0] == 0) {
-                String logInfo = GLES30.glGetShaderInfoLog(shaderId);
-                System.err.println(logInfo);
-                //创建失败
-                GLES30.glDeleteShader(shaderId);
-                return 0;
-            }
-            return shaderId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 分配内存空间
-     */
-    private void initMemory() {
-        //顶点位置相关
-        //分配本地内存空间,每个浮点型占4字节空间；将坐标数据转换为FloatBuffer，用以传入给OpenGL ES程序
-        createPositions(0.5f, 60); // 准备圆锥体顶点数据
-        createTopPlanePositions(); // 圆锥体顶部顶点数据
-        // 圆锥体的顶点缓存区
-        coneBuffer = ByteBuffer.allocateDirect(coneCoords.length * BYTES_PER_FLOAT)
-                .order(ByteOrder.nativeOrder())
-                .asFloatBuffer();
-        coneBuffer.put(coneCoords);
-        coneBuffer.position(0);
-
-        // 圆锥体顶部顶点缓存区
-        coneTopBuffer = ByteBuffer.allocateDirect(coneTopCoords.length * BYTES_PER_FLOAT)
-                .order(ByteOrder.nativeOrder())
-                .asFloatBuffer();
-        coneTopBuffer.put(coneTopCoords);
-        coneTopBuffer.position(0);
-
-        //顶点颜色相关
-        colorBuffer = ByteBuffer.allocateDirect(color.length * BYTES_PER_FLOAT)
-                .order(ByteOrder.nativeOrder())
-                .asFloatBuffer();
-        colorBuffer.put(color);
-        colorBuffer.position(0);
-
-    }
-
     /**
      * 设置绘制窗口
      *
@@ -298,77 +178,10 @@ public class ConeMeta implements Render {
      */
     private void viewport(int width, int height) {
         //设置绘制窗口
-        GLES30.glViewport(0, 0, width, height);
-    }
-
-
-    /**
-     * 创建圆锥体侧面顶点位置和颜色
-     *
-     * @param radius 半径
-     * @param n
-     */
-    private void createPositions(float radius, int n) {
-        ArrayList<Float> data = new ArrayList<>();
-        data.add(0.0f);             //设置圆锥顶点坐标
-        data.add(0.0f);
-        data.add(-0.5f);
-        float angDegSpan = 360f / n;
-        for (float i = 0; i < 360 + angDegSpan; i += angDegSpan) {
-            data.add((float) (radius * Math.sin(i * Math.PI / 180f)));
-            data.add((float) (radius * Math.cos(i * Math.PI / 180f)));
-            data.add(0.0f);
-        }
-        float[] f = new float[data.size()];
-        for (int i = 0; i < f.length; i++) {
-            f[i] = data.get(i);
-        }
-
-        coneCoords = f;
-
-        //处理各个顶点的颜色
-        color = new float[f.length * 4 / 3];
-        ArrayList<Float> tempC = new ArrayList<>();
-        ArrayList<Float> totalC = new ArrayList<>();
-        ArrayList<Float> total0 = new ArrayList<>();
-        total0.add(0.5f);
-        total0.add(0.0f);
-        total0.add(0.0f);
-        total0.add(1.0f);
-        tempC.add(1.0f);
-        tempC.add(1.0f);
-        tempC.add(1.0f);
-        tempC.add(1.0f);
-        for (int i = 0; i < f.length / 3; i++) {
-            if (i == 0) {
-                totalC.addAll(total0);
-            } else {
-                totalC.addAll(tempC);
-            }
-
-        }
-
-        for (int i = 0; i < totalC.size(); i++) {
-            color[i] = totalC.get(i);
-        }
+        GlState.getInstance().viewport(0, 0, width, height);
     }
 
 
-    /**
-     * 创建圆锥体顶部顶点位置
-     */
-    private void createTopPlanePositions() {
-        coneTopCoords = new float[coneCoords.length];
-
-        for (int i = 0; i < coneCoords.length; i++) {
-            if (i == 2) {
-                coneTopCoords[i] = 0.0f;
-            } else {
-                coneTopCoords[i] = coneCoords[i];
-            }
-        }
-    }
-
     @Override
     public void shader() {
         init();
@@ -7,7 +7,6 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
-import android.opengl.GLES20;
 import android.opengl.GLES30;
 import android.opengl.GLUtils;
 import android.opengl.Matrix;
@@ -15,13 +14,24 @@ import android.util.Log;
 
 import com.trans.opengles.MyApplication;
 import com.trans.opengles.R;
+import com.trans.opengles.mesh.LodChain;
+import com.trans.opengles.mesh.MeshAssets;
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.mesh.MeshKey;
+import com.trans.opengles.mesh.SampleMeshes;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+import com.trans.opengles.shader.CameraBuffer;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.shader.ShaderVariants;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
+import com.trans.opengles.surface.Material;
 import com.trans.opengles.surface.Render;
-import com.trans.opengles.utils.ResReadUtils;
+import com.trans.opengles.surface.RenderQueue;
+import com.trans.opengles.surface.Transform;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-import java.util.ArrayList;
 
 /**
  * @author Tom灿
@@ -32,27 +42,25 @@ public class GlobeMeta implements Render {
     private static final Render INSTANS = new GlobeMeta();
     private static final int BYTES_PER_FLOAT = 4;
     private static final String TAG = "GlobeMeta";
-    //顶点位置缓存
-    private FloatBuffer vertexBuffer;
-    //纹理顶点位置缓存
-    private FloatBuffer mTexVertexBuffer;
+    //交错顶点布局：半精度位置 + 归一化16位纹理坐标,每个顶点12字节
+    private static final VertexLayout LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.HALF4)
+            .add(VertexLayout.TEX_COORD, "aCoordinate", VertexFormat.SNORM16_2)
+            .build();
+    //GPU端的各级细节球体网格(VBO+IBO+VAO),从粗到细；每级使用三角形最少的生成方式(正二十面体细分球体等)
+    private final GLMesh[] globeMeshes = new GLMesh[SampleMeshes.SPHERE_LODS.length];
+    //各级网格在绘制队列中的句柄
+    private final int[] globeMeshHandles = new int[SampleMeshes.SPHERE_LODS.length];
+    //根据屏幕上的大小选择细节级别
+    private final LodChain lodChain = new LodChain(SampleMeshes.SPHERE_LOD_SEGMENTS);
 
     //图片生成的位图
     private Bitmap mBitmap;
     //纹理id
     private int textureId;
 
-    //向量个数
-    private int vCount;
-
-    //相关属性id
-    private int mHProjMatrix;
-    private int mHViewMatrix;
-    private int mHModelMatrix;
-    private int mHRotateMatrix;
-    private int mHUTexture;
-    private int mHPosition;
-    private int mHCoordinate;
+    //绘制队列中的材质句柄(程序+纹理)
+    private int material;
 
 
     //相机矩阵
@@ -61,9 +69,11 @@ public class GlobeMeta implements Render {
     private final float[] mProjectMatrix = new float[16];
 
     private final float[] mModelMatrix = new float[16];
-
-    private ArrayList<Float> alVertix;
-    private ArrayList<Float> textureVertix;
+    //每帧在CPU上合成模型*旋转矩阵
+    private final Transform transform = new Transform();
+    //视口大小
+    private int mWidth;
+    private int mHeight;
 
     public GlobeMeta() {
         initSensor();
@@ -71,35 +81,29 @@ public class GlobeMeta implements Render {
 
 
     private void init() {
-        // 分配内存空间
-        initMemory();
-
-        // 编译着色器程序
-        // 编译顶点着色器
-        int vertexShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.vertex_globe_shader));
-        // 编译片段着色器
-        int fragmentShaderId = compileShader(GLES30.GL_FRAGMENT_SHADER,
-                ResReadUtils.readResource(R.raw.fragment_globe_shader));
-
-        // 连接着色器程序
-        int mProgram = linkProgram(vertexShaderId, fragmentShaderId);
+        // 从进程级程序缓存获取着色器程序：相同源码的着色器只编译、链接一次
+        ShaderProgram program = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_globe_shader, R.raw.fragment_shader,
+                ShaderVariants.WITH_TEXTURE);
+        int mProgram = program.getId();
 
         //在OpenGLES环境中使用程序
-        GLES30.glUseProgram(mProgram);
+        GlState.getInstance().useProgram(mProgram);
 
         //将背景设置为灰色
         GLES30.glClearColor(0.5f, 0.5f, 0.5f, 1.0f);
 
-        // 获取相关属性变量的句柄
-        //编译glprogram并获取控制句柄
-        mHProjMatrix = GLES20.glGetUniformLocation(mProgram, "uProjMatrix");
-        mHViewMatrix = GLES20.glGetUniformLocation(mProgram, "uViewMatrix");
-        mHModelMatrix = GLES20.glGetUniformLocation(mProgram, "uModelMatrix");
-        mHUTexture = GLES20.glGetUniformLocation(mProgram, "uTexture");
-        mHPosition = GLES20.glGetAttribLocation(mProgram, "aPosition");
-        mHCoordinate = GLES20.glGetAttribLocation(mProgram, "aCoordinate");
-        mHRotateMatrix = GLES30.glGetUniformLocation(mProgram, "uRotateMatrix");
+        // 程序和纹理注册为绘制队列中的材质,MVP矩阵由队列在执行时合成并上传
+        material = RenderQueue.getInstance().registerMaterial(new Material(program, textureId));
+
+        // 顶点数据从进程级网格缓存获取：缓存未命中时读取构建期烘焙的资源,无需在运行时细分球体；
+        // 同一EGL上下文中直接复用已上传的VBO/IBO
+        for (int i = 0; i < globeMeshes.length; i++) {
+            final MeshKey key = SampleMeshes.SPHERE_LODS[i];
+            globeMeshes[i] = MeshCache.getInstance().getMesh(key,
+                    () -> MeshAssets.load(key), LAYOUT, mProgram);
+            globeMeshHandles[i] = RenderQueue.getInstance().registerMesh(globeMeshes[i]);
+        }
     }
 
     /**
@@ -107,29 +111,18 @@ public class GlobeMeta implements Render {
      */
     private void drawGlobe() {
 
-        //把颜色缓冲区设置为我们预设的颜色
-        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
+        //把颜色缓冲区设置为我们预设的颜色,不透明通道开启了深度测试,同时清除深度缓冲
+        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
 
-        GLES30.glUniformMatrix4fv(mHProjMatrix, 1, false, mProjectMatrix, 0);
-        GLES30.glUniformMatrix4fv(mHViewMatrix, 1, false, mViewMatrix, 0);
-        GLES30.glUniformMatrix4fv(mHModelMatrix, 1, false, mModelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mHRotateMatrix, 1, false, uRotateMatrix, 0);
+        // 每帧在CPU上合成一次模型*旋转矩阵(旋转随传感器变化)
+        transform.compose(mModelMatrix, uRotateMatrix);
+        float[] mvp = transform.mvp(CameraBuffer.getInstance().getViewProjection());
 
-        GLES30.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
-
-        GLES30.glEnableVertexAttribArray(mHPosition);
-        GLES30.glVertexAttribPointer(mHPosition, 3, GLES20.GL_FLOAT,
-                false, 0, vertexBuffer);
-
-        GLES30.glEnableVertexAttribArray(mHCoordinate);
-        GLES30.glVertexAttribPointer(mHCoordinate, 2, GLES20.GL_FLOAT,
-                false, 0, mTexVertexBuffer);
-
-        GLES30.glDrawArrays(GLES20.GL_TRIANGLES, 0, vCount);
-
-        GLES30.glDisableVertexAttribArray(mHCoordinate);
-        GLES30.glDisableVertexAttribArray(mHPosition);
+        // 按球体(半径为1)投影到屏幕上的大小选择细节级别,旋转不改变以原点为球心的包围球
+        float radius = LodChain.screenRadius(mvp, 0, 0, 0, 1.0f, mWidth, mHeight);
+        // 提交到绘制队列,由队列绑定材质、合成并上传MVP后绘制
+        RenderQueue.getInstance().submit(RenderQueue.PASS_OPAQUE,
+                globeMeshHandles[lodChain.select(radius)], material, transform.getModel());
     }
 
 
@@ -159,83 +152,11 @@ public class GlobeMeta implements Render {
         // 旋转矩阵
         Matrix.setIdentityM(uRotateMatrix, 0);
 
-    }
-
+        //相机和投影矩阵写入共享的相机uniform块,由渲染器每帧上传一次；绘制队列取其中的投影*相机矩阵合成MVP
+        CameraBuffer.getInstance().setCamera(mViewMatrix, mProjectMatrix);
+        mWidth = width;
+        mHeight = height;
 
-    /**
-     * 链接小程序
-     *
-     * @param vertexShaderId   顶点着色器
-     * @param fragmentShaderId 片段着色器
-     */
-    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
-        //创建一个空的OpenGLES程序
-        final int programId = GLES30.glCreateProgram();
-        if (programId != 0) {
-            //将顶点着色器加入到程序
-            GLES30.glAttachShader(programId, vertexShaderId);
-            //将片元着色器加入到程序中
-            GLES30.glAttachShader(programId, fragmentShaderId);
-            //链接着色器程序
-            GLES30.glLinkProgram(programId);
-            final int[] linkStatus = new int[1];
-
-            GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-            if (linkStatus[0] == 0) {
-                String logInfo = GLES30.glGetProgramInfoLog(programId);
-                System.err.println(logInfo);
-                GLES30.glDeleteProgram(programId);
-                return 0;
-            }
-            return programId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 编译
-     *
-     * @param type       顶点着色器:GLES30.GL_VERTEX_SHADER
-     *                   片段着色器:GLES30.GL_FRAGMENT_SHADER
-     * @param shaderCode 着色器语言编写的着色器程序
-     * @return
-     */
-    private int compileShader(int type, String shaderCode) {
-        //创建一个着色器
-        final int shaderId = GLES30.glCreateShader(type);
-        if (shaderId != 0) {
-            GLES30.glShaderSource(shaderId, shaderCode);// 给着色器添加源代码
-            GLES30.glCompileShader(shaderId);  // 编译着色器(源代码)
-            //检测状态
-            final int[] compileStatus = new int[1];
-            GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
-            if (compileStatus[0] == 0) {
-                String logInfo = GLES30.glGetShaderInfoLog(shaderId);
-                System.err.println(logInfo);
-                //创建失败
-                GLES30.glDeleteShader(shaderId);
-                return 0;
-            }
-            return shaderId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 分配内存空间
-     */
-    private void initMemory() {
-        calculateAttribute();
-        //顶点位置相关
-        //分配本地内存空间,每个浮点型占4字节空间；将坐标数据转换为FloatBuffer，用以传入给OpenGL ES程序
-        vertexBuffer = convertToFloatBuffer(alVertix);
-        mTexVertexBuffer = convertToFloatBuffer(textureVertix);
     }
 
     /**
@@ -246,7 +167,7 @@ public class GlobeMeta implements Render {
      */
     private void viewport(int width, int height) {
         //设置绘制窗口
-        GLES30.glViewport(0, 0, width, height);
+        GlState.getInstance().viewport(0, 0, width, height);
     }
 
 
@@ -270,11 +191,11 @@ public class GlobeMeta implements Render {
         mBitmap = BitmapFactory.decodeResource(MyApplication.application.getResources(), resourceId, options);
         if (mBitmap == null) {
             Log.e(TAG, "Resource ID " + resourceId + " could not be decoded.");
-            GLES30.glDeleteTextures(1, textureIds, 0);
+            GlState.getInstance().deleteTexture(textureIds[0]);
             return 0;
         }
         //绑定纹理到OpenGL
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureIds[0]);
+        GlState.getInstance().bindTexture(GLES30.GL_TEXTURE_2D, textureIds[0]);
 
         //设置默认的纹理过滤参数
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
@@ -290,101 +211,17 @@ public class GlobeMeta implements Render {
         mBitmap.recycle();
 
         //取消绑定纹理
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
+        GlState.getInstance().bindTexture(GLES30.GL_TEXTURE_2D, 0);
 
         return textureIds[0];
     }
 
 
-    //计算顶点坐标和纹理坐标
-    private void calculateAttribute() {
-        float radius = 1.0f; // 球的半径
-        double angleSpan = Math.PI / 90f; // 将球进行单位切分的角度
-        alVertix = new ArrayList<>();
-        textureVertix = new ArrayList<>();
-        for (double vAngle = 0; vAngle < Math.PI; vAngle = vAngle + angleSpan) {
-
-            for (double hAngle = 0; hAngle < 2 * Math.PI; hAngle = hAngle + angleSpan) {
-                float x0 = (float) (radius * Math.sin(vAngle) * Math.cos(hAngle));
-                float y0 = (float) (radius * Math.sin(vAngle) * Math.sin(hAngle));
-                float z0 = (float) (radius * Math.cos((vAngle)));
-
-                float x1 = (float) (radius * Math.sin(vAngle) * Math.cos(hAngle + angleSpan));
-                float y1 = (float) (radius * Math.sin(vAngle) * Math.sin(hAngle + angleSpan));
-                float z1 = (float) (radius * Math.cos(vAngle));
-
-                float x2 = (float) (radius * Math.sin(vAngle + angleSpan) * Math.cos(hAngle + angleSpan));
-                float y2 = (float) (radius * Math.sin(vAngle + angleSpan) * Math.sin(hAngle + angleSpan));
-                float z2 = (float) (radius * Math.cos(vAngle + angleSpan));
-
-                float x3 = (float) (radius * Math.sin(vAngle + angleSpan) * Math.cos(hAngle));
-                float y3 = (float) (radius * Math.sin(vAngle + angleSpan) * Math.sin(hAngle));
-                float z3 = (float) (radius * Math.cos(vAngle + angleSpan));
-
-
-                float s0 = (float) (-hAngle / Math.PI / 2);
-                float s1 = (float) (-(hAngle + angleSpan) / Math.PI / 2);
-
-                float t0 = (float) (vAngle / Math.PI);
-                float t1 = (float) ((vAngle + angleSpan) / Math.PI);
-
-                alVertix.add(x1);
-                alVertix.add(y1);
-                alVertix.add(z1);
-                alVertix.add(x0);
-                alVertix.add(y0);
-                alVertix.add(z0);
-                alVertix.add(x3);
-                alVertix.add(y3);
-                alVertix.add(z3);
-
-                textureVertix.add(s1);// x1 y1对应纹理坐标
-                textureVertix.add(t0);
-                textureVertix.add(s0);// x0 y0对应纹理坐标
-                textureVertix.add(t0);
-                textureVertix.add(s0);// x3 y3对应纹理坐标
-                textureVertix.add(t1);
-
-                alVertix.add(x1);
-                alVertix.add(y1);
-                alVertix.add(z1);
-                alVertix.add(x3);
-                alVertix.add(y3);
-                alVertix.add(z3);
-                alVertix.add(x2);
-                alVertix.add(y2);
-                alVertix.add(z2);
-
-                textureVertix.add(s1);// x1 y1对应纹理坐标
-                textureVertix.add(t0);
-                textureVertix.add(s0);// x3 y3对应纹理坐标
-                textureVertix.add(t1);
-                textureVertix.add(s1);// x2 y3对应纹理坐标
-                textureVertix.add(t1);
-            }
-        }
-        vCount = alVertix.size() / 3;
-    }
-
-    //动态数组转FloatBuffer
-    private FloatBuffer convertToFloatBuffer(ArrayList<Float> data) {
-        float[] d = new float[data.size()];
-        for (int i = 0; i < d.length; i++) {
-            d[i] = data.get(i);
-        }
-
-        ByteBuffer buffer = ByteBuffer.allocateDirect(data.size() * 4);
-        buffer.order(ByteOrder.nativeOrder());
-        FloatBuffer ret = buffer.asFloatBuffer();
-        ret.put(d);
-        ret.position(0);
-        return ret;
-    }
-
     @Override
     public void shader() {
-        init();
+        //先加载纹理,材质中需要纹理id
         textureId = loadTexture(R.mipmap.globe);
+        init();
     }
 
     @Override
@@ -0,0 +1,142 @@
+package com.trans.opengles.meta.basic;
+
+import android.opengl.GLES30;
+import android.opengl.Matrix;
+
+import com.trans.opengles.R;
+import com.trans.opengles.mesh.MeshAssets;
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.mesh.MeshKey;
+import com.trans.opengles.mesh.SampleMeshes;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+import com.trans.opengles.shader.CameraBuffer;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.shader.ShaderVariants;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
+import com.trans.opengles.surface.InstanceBuffer;
+import com.trans.opengles.surface.Render;
+
+/**
+ * @author Tom灿
+ * @description: 实例化绘制：一万个带光照的球体只用一次绘制调用，四百个圆锥体(侧面和底面)两次。
+ * 每个实例的模型矩阵和颜色在shader()阶段写入{@link InstanceBuffer}并上传一次，每帧只更新相机：
+ * 投影*相机矩阵由着色器从共享的相机uniform块读取，不需要再设置uniform
+ * @date :2026/10/19 1:40
+ */
+public class InstancedMeta implements Render {
+    //球体：只有半精度位置,法线由位置得到
+    private static final VertexLayout BALL_LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.HALF4)
+            .build();
+    //圆锥体：半精度位置 + 归一化8位颜色
+    private static final VertexLayout CONE_LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.HALF4)
+            .add(VertexLayout.COLOR, "aColor", VertexFormat.UNORM8_4)
+            .build();
+    //球体网格的边长(个数)和间距
+    private static final int BALL_GRID = 100;
+    private static final float BALL_SPACING = 1.0f;
+    //圆锥体网格的边长(个数)和间距
+    private static final int CONE_GRID = 20;
+    private static final float CONE_SPACING = 5.0f;
+
+    //相机矩阵
+    private final float[] mViewMatrix = new float[16];
+    //投影矩阵
+    private final float[] mProjectMatrix = new float[16];
+    private final float[] model = new float[16];
+    private final long startNanos = System.nanoTime();
+
+    private ShaderProgram.Uniform lightDir;
+    private int ballProgram;
+    private int coneProgram;
+    private GLMesh ballMesh;
+    private GLMesh coneMesh;
+    private GLMesh coneBaseMesh;
+    private InstanceBuffer balls;
+    private InstanceBuffer cones;
+
+    @Override
+    public void shader() {
+        ShaderProgram ball = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_ball_shader, R.raw.fragment_shader, ShaderVariants.INSTANCED);
+        ShaderProgram cone = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_shader, R.raw.fragment_shader, ShaderVariants.INSTANCED);
+        ballProgram = ball.getId();
+        coneProgram = cone.getId();
+        lightDir = ball.uniform("uLightDir");
+
+        //一万个球体用最粗的细节级别
+        final MeshKey ballKey = SampleMeshes.SPHERE_LODS[0];
+        final MeshKey coneKey = SampleMeshes.CONE_LODS[1];
+        final MeshKey coneBaseKey = SampleMeshes.CONE_BASE_LODS[1];
+        ballMesh = MeshCache.getInstance().getMesh(ballKey,
+                () -> MeshAssets.load(ballKey), BALL_LAYOUT, ballProgram);
+        coneMesh = MeshCache.getInstance().getMesh(coneKey,
+                () -> MeshAssets.load(coneKey), CONE_LAYOUT, coneProgram);
+        coneBaseMesh = MeshCache.getInstance().getMesh(coneBaseKey,
+                () -> MeshAssets.load(coneBaseKey), CONE_LAYOUT, coneProgram);
+
+        balls = new InstanceBuffer(BALL_GRID * BALL_GRID);
+        float half = (BALL_GRID - 1) * BALL_SPACING / 2;
+        for (int y = 0; y < BALL_GRID; y++) {
+            for (int x = 0; x < BALL_GRID; x++) {
+                Matrix.setIdentityM(model, 0);
+                Matrix.translateM(model, 0, x * BALL_SPACING - half, y * BALL_SPACING - half, 0);
+                Matrix.scaleM(model, 0, 0.4f, 0.4f, 0.4f);
+                balls.add(model, 0, (float) x / BALL_GRID, (float) y / BALL_GRID, 0.8f, 1f);
+            }
+        }
+        cones = new InstanceBuffer(CONE_GRID * CONE_GRID);
+        half = (CONE_GRID - 1) * CONE_SPACING / 2;
+        for (int y = 0; y < CONE_GRID; y++) {
+            for (int x = 0; x < CONE_GRID; x++) {
+                Matrix.setIdentityM(model, 0);
+                Matrix.translateM(model, 0, x * CONE_SPACING - half, y * CONE_SPACING - half, -3f);
+                Matrix.scaleM(model, 0, 2f, 2f, 2f);
+                cones.add(model, 0, 1f, 1f, 1f, 1f);
+            }
+        }
+
+        //将背景设置为灰色
+        GLES30.glClearColor(0.5f, 0.5f, 0.5f, 1.0f);
+    }
+
+    @Override
+    public void view(int width, int height) {
+        GlState.getInstance().viewport(0, 0, width, height);
+        float ratio = (float) width / height;
+        Matrix.perspectiveM(mProjectMatrix, 0, 60, ratio, 1f, 300f);
+    }
+
+    @Override
+    public void draw() {
+        GlState state = GlState.getInstance();
+        state.setEnabled(GLES30.GL_DEPTH_TEST, true);
+        state.depthMask(true);
+        state.setEnabled(GLES30.GL_BLEND, false);
+        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
+
+        //相机绕z轴旋转
+        double angle = (System.nanoTime() - startNanos) / 1e9 * 0.2;
+        Matrix.setLookAtM(mViewMatrix, 0,
+                (float) (80 * Math.cos(angle)), (float) (80 * Math.sin(angle)), 45f,
+                0f, 0f, 0f,
+                0f, 0f, 1f);
+        //相机在draw()中变化,绘制前立即上传到相机uniform块
+        CameraBuffer camera = CameraBuffer.getInstance();
+        camera.setCamera(mViewMatrix, mProjectMatrix);
+        camera.update();
+
+        state.useProgram(ballProgram);
+        lightDir.setVec3(0.48f, 0.36f, 0.8f);
+        ballMesh.drawInstanced(balls);
+
+        state.useProgram(coneProgram);
+        coneMesh.drawInstanced(cones);
+        coneBaseMesh.drawInstanced(cones);
+    }
+}
@@ -5,8 +5,11 @@ import android.opengl.GLES30;
 import android.opengl.Matrix;
 
 import com.trans.opengles.R;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
-import com.trans.opengles.utils.ResReadUtils;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -22,6 +25,8 @@ public class PointsES30Meta implements Render {
     private static final int BYTES_PER_FLOAT = 4;
     private FloatBuffer vertexBuffer;
     private FloatBuffer colorBuffer;
+    //GPU端的顶点数据(VBO+VAO)
+    private GLMesh pointsMesh;
 
     //三个顶点
     private static final int POSITION_COMPONENT_COUNT = 3;
@@ -48,30 +53,27 @@ public class PointsES30Meta implements Render {
         // 分配内存空间
         initMemory();
 
-        // 编译着色器程序
-        // 编译顶点着色器
-        int vertexShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.vertex_triangle_shader));
-        // 编译顶点着色器：定义了矩阵属性变量
-        int vertexIsoscelesShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.rvertex_isosceles_triangle_shader));
-        // 编译片段着色器
-        int fragmentShaderId = compileShader(GLES30.GL_FRAGMENT_SHADER,
-                ResReadUtils.readResource(R.raw.fragment_triangle_shader));
-
-        // 连接着色器程序
-        int mProgram = linkProgram(vertexIsoscelesShaderId, fragmentShaderId);
+        // 从进程级程序缓存获取着色器程序：相同源码的着色器只编译、链接一次
+        ShaderProgram program = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_shader, R.raw.fragment_shader);
+        int mProgram = program.getId();
 
         //在OpenGLES环境中使用程序
-        GLES30.glUseProgram(mProgram);
+        GlState.getInstance().useProgram(mProgram);
 
         //将背景设置为白色
         GLES20.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
 
         // 获取相关属性变量的句柄
-        uMatrixLocation = GLES30.glGetUniformLocation(mProgram, "u_Matrix");  // 矩阵属性变量句柄
-        aPositionLocation = GLES30.glGetAttribLocation(mProgram, "vPosition"); // 顶点属性变量句柄
-        aColorLocation = GLES30.glGetAttribLocation(mProgram, "aColor"); // 颜色属性变量句柄
+        uMatrix = program.uniform("u_Matrix");  // 矩阵属性变量句柄
+        aPositionLocation = program.attribute("vPosition"); // 顶点属性变量句柄
+        aColorLocation = program.attribute("aColor"); // 颜色属性变量句柄
+
+        // 顶点数据一次性上传到GPU,之后每帧只需绑定VAO
+        pointsMesh = new GLMesh(GLES30.GL_TRIANGLES)
+                .attribute(aPositionLocation, POSITION_COMPONENT_COUNT, vertexBuffer)
+                .attribute(aColorLocation, 4, colorBuffer)
+                .upload();
     }
 
 
@@ -82,23 +84,8 @@ public class PointsES30Meta implements Render {
         //把颜色缓冲区设置为我们预设的颜色
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
 
-        //准备坐标数据
-        GLES30.glVertexAttribPointer(
-                0, // 顶点属性的索引:layout (location = 0) in vec4 vPosition;
-                3, //指定每个通用顶点属性的元素个数 glvertexattribpointer接受符号常量gl_bgra。初始值为4（也就是涉及颜色的时候必为4）
-                GLES30.GL_FLOAT, // 属性的元素类型。（上面都是Float所以使用GLES30.GL_FLOAT）
-                false, // 转换的时候是否要经过规范化，true：是；false：直接转化；
-                0, // 跨距，默认是0。（由于我们将顶点位置和颜色数据分别存放没写在一个数组中，所以使用默认值0）
-                vertexBuffer); // 本地数据缓存（这里我们的是顶点的位置和颜色数据）
-        //启用顶点位置句柄
-        GLES30.glEnableVertexAttribArray(0);
-
-        //准备颜色数据
-        GLES30.glVertexAttribPointer(1, 4, GLES30.GL_FLOAT,
-                false,
-                0, colorBuffer);
-        //启用顶点颜色句柄
-        GLES30.glEnableVertexAttribArray(1);
+        //绑定VAO：顶点属性已记录在VAO中
+        pointsMesh.bind();
 
 
         // TODO 绘制三个点
@@ -111,9 +98,8 @@ public class PointsES30Meta implements Render {
         // TODO 绘制三角形
 //        GLES30.glDrawArrays(GLES30.GL_TRIANGLES, 0, POSITION_COMPONENT_COUNT);
 
-        //禁止顶点数组的句柄
-        GLES30.glDisableVertexAttribArray(0);
-        GLES30.glDisableVertexAttribArray(1);
+        //解绑VAO
+        pointsMesh.unbind();
     }
 
 
@@ -125,7 +111,7 @@ public class PointsES30Meta implements Render {
     private final float[] mMVPMatrix = new float[16];
     //返回属性变量的位置
     //变换矩阵
-    private int uMatrixLocation;
+    private ShaderProgram.Uniform uMatrix;
     //位置
     private int aPositionLocation;
     //颜色
@@ -140,18 +126,9 @@ public class PointsES30Meta implements Render {
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
 
         //将变换矩阵传入顶点渲染器
-        GLES20.glUniformMatrix4fv(uMatrixLocation, 1, false, mMVPMatrix, 0);
-        //准备坐标数据
-        GLES30.glVertexAttribPointer(aPositionLocation, 3,
-                GLES30.GL_FLOAT, false, 0, vertexBuffer);
-        //启用顶点位置句柄
-        GLES30.glEnableVertexAttribArray(aPositionLocation);
-
-        //准备颜色数据
-        GLES30.glVertexAttribPointer(aColorLocation, 4,
-                GLES30.GL_FLOAT, false, 0, colorBuffer);
-        //启用顶点颜色句柄
-        GLES30.glEnableVertexAttribArray(aColorLocation);
+        uMatrix.setMat4(mMVPMatrix, 0);
+        //绑定VAO：顶点属性已记录在VAO中
+        pointsMesh.bind();
 
         //绘制三个点
         GLES30.glDrawArrays(GLES30.GL_POINTS, 0, POSITION_COMPONENT_COUNT);
@@ -163,9 +140,8 @@ public class PointsES30Meta implements Render {
         //绘制三角形
 //        GLES30.glDrawArrays(GLES30.GL_TRIANGLES, 0, POSITION_COMPONENT_COUNT);
 
-        //禁止顶点数组的句柄
-        GLES30.glDisableVertexAttribArray(aPositionLocation);
-        GLES30.glDisableVertexAttribArray(aColorLocation);
+        //解绑VAO
+        pointsMesh.unbind();
     }
 
 
@@ -203,72 +179,6 @@ public class PointsES30Meta implements Render {
 //        }
     }
 
-
-    /**
-     * 链接小程序
-     *
-     * @param vertexShaderId   顶点着色器
-     * @param fragmentShaderId 片段着色器
-     */
-    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
-        //创建一个空的OpenGLES程序
-        final int programId = GLES30.glCreateProgram();
-        if (programId != 0) {
-            //将顶点着色器加入到程序
-            GLES30.glAttachShader(programId, vertexShaderId);
-            //将片元着色器加入到程序中
-            GLES30.glAttachShader(programId, fragmentShaderId);
-            //链接着色器程序
-            GLES30.glLinkProgram(programId);
-            final int[] linkStatus = new int[1];
-
-            GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-            if (linkStatus[0] == 0) {
-                String logInfo = GLES30.glGetProgramInfoLog(programId);
-                System.err.println(logInfo);
-                GLES30.glDeleteProgram(programId);
-                return 0;
-            }
-            return programId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 编译
-     *
-     * @param type       顶点着色器:GLES30.GL_VERTEX_SHADER
-     *                   片段着色器:GLES30.GL_FRAGMENT_SHADER
-     * @param shaderCode 着色器语言编写的着色器程序
-     * @return
-     */
-    private int compileShader(int type, String shaderCode) {
-        //创建一个着色器
-        final int shaderId = GLES30.glCreateShader(type);
-        if (shaderId != 0) {
-            GLES30.glShaderSource(shaderId, shaderCode);// 给着色器添加源代码
-            GLES30.glCompileShader(shaderId);  // 编译着色器(源代码)
-            //检测状态
-            final int[] compileStatus = new int[1];
-            GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
-            if (compileStatus[0] == 0) {
-                String logInfo = GLES30.glGetShaderInfoLog(shaderId);
-                System.err.println(logInfo);
-                //创建失败
-                GLES30.glDeleteShader(shaderId);
-                return 0;
-            }
-            return shaderId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
     /**
      * 分配内存空间
      */
@@ -297,7 +207,7 @@ public class PointsES30Meta implements Render {
      */
     private void viewport(int width, int height) {
         //设置绘制窗口
-        GLES30.glViewport(0, 0, width, height);
+        GlState.getInstance().viewport(0, 0, width, height);
     }
 
     @Override
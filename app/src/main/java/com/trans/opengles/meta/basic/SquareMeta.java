@@ -3,6 +3,9 @@ package com.trans.opengles.meta.basic;
 import android.opengl.GLES20;
 import android.opengl.Matrix;
 
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
 import com.trans.opengles.surface.MyGLRenderer;
 
@@ -96,11 +99,24 @@ public class SquareMeta implements Render {
 
         // creates OpenGL ES program executables  创建OpenGL ES程序可执行文件
         GLES20.glLinkProgram(mProgram);  // 链接着色器程序对象.可以在程序对象中创建一个或多个可执行文件
+
+        // 链接后一次性查出所有uniform/attribute的句柄,绘制时不再查询
+        ShaderProgram program = ShaderProgram.reflect(mProgram);
+        colorHandle = program.uniform("vColor");
+        vPMatrixHandle = program.uniform("uMVPMatrix");
+
+        // 顶点数据和绘制列表一次性上传到GPU(VBO+IBO+VAO),每帧只需绑定VAO
+        squareMesh = new GLMesh(GLES20.GL_TRIANGLES)
+                .attribute(program.attribute("vPosition"), COORDS_PER_VERTEX, vertexBuffer)
+                .indices(drawListBuffer)
+                .upload();
     }
 
     int positionHandle;
-    int colorHandle;
-    int vPMatrixHandle;
+    //GPU端的正方形网格
+    private GLMesh squareMesh;
+    ShaderProgram.Uniform colorHandle;
+    ShaderProgram.Uniform vPMatrixHandle;
     private final int vertexStride = COORDS_PER_VERTEX * 4; // 4 bytes per vertex 每个顶点四个字节
 
     /**
@@ -109,44 +125,21 @@ public class SquareMeta implements Render {
     private void drawSquare() {
         setCameraView();
         // Add program to OpenGL ES environment 添加程序到OpenGL ES环境
-        GLES20.glUseProgram(mProgram);
-
-        // get handle to vertex shader's vPosition member  获取顶点着色器的vPosition成员的句柄
-        positionHandle = GLES20.glGetAttribLocation(mProgram, "vPosition");
-
-        // Enable a handle to the triangle vertices  启用三角形顶点的句柄
-        GLES20.glEnableVertexAttribArray(positionHandle);
-
-        // Prepare the triangle coordinate data  准备三角坐标数据
-        GLES20.glVertexAttribPointer(positionHandle, COORDS_PER_VERTEX,
-                GLES20.GL_FLOAT, false,
-                vertexStride, vertexBuffer);
+        GlState.getInstance().useProgram(mProgram);
 
-        // get handle to fragment shader's vColor member  获取片段着色器的vColor成员的句柄
-        colorHandle = GLES20.glGetUniformLocation(mProgram, "vColor");
-
-        // Set color for drawing the triangle  设置绘制三角形的颜色
-        GLES20.glUniform4fv(colorHandle, 1, color, 0);
-
-
-        // get handle to shape's transformation matrix 得到形状变换矩阵的句柄
-        vPMatrixHandle = GLES20.glGetUniformLocation(mProgram, "uMVPMatrix");
+        // Set color for drawing the triangle  设置绘制三角形的颜色(与上次相同时不调用GLES)
+        colorHandle.setVec4(color, 0);
 
         // Pass the projection and view transformation to the shader 将投影和视图转换传递给着色器
         // 将多个矩阵结合后的结果矩阵传递给着色器
-        GLES20.glUniformMatrix4fv(vPMatrixHandle, 1, false, vPMatrix, 0);
+        vPMatrixHandle.setMat4(vPMatrix, 0);
 
 
         // Draw the triangle  画出这个三角形-顶点法
 //        GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, vertexCount);
 
-        // 绘制正方形-索引法
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, drawOrder.length,
-                GLES20.GL_UNSIGNED_SHORT, drawListBuffer);
-
-
-        // Disable vertex array  禁用顶点数组
-        GLES20.glDisableVertexAttribArray(positionHandle);
+        // 绘制正方形-索引法:顶点属性和索引已记录在VAO中
+        squareMesh.draw();
     }
 
 
@@ -190,7 +183,7 @@ public class SquareMeta implements Render {
      * @param height
      */
     private void setMatrix(int width, int height) {
-        GLES20.glViewport(0, 0, width, height);
+        GlState.getInstance().viewport(0, 0, width, height);
 
         float ratio = (float) width / height;
 
@@ -10,8 +10,13 @@ import android.util.Log;
 
 import com.trans.opengles.MyApplication;
 import com.trans.opengles.R;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.shader.ShaderVariants;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
-import com.trans.opengles.utils.ResReadUtils;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -31,6 +36,9 @@ public class Texture2DMeta implements Render {
 
     private ShortBuffer mVertexIndexBuffer;
 
+    //GPU端的网格(VBO+IBO+VAO)
+    private GLMesh textureMesh;
+
     //纹理id
     private int textureId;
 
@@ -43,7 +51,7 @@ public class Texture2DMeta implements Render {
 
     //返回属性变量的位置
     //变换矩阵
-    private int uMatrixLocation;
+    private ShaderProgram.Uniform uMatrix;
     //顶点
     private int aPositionLocation;
 
@@ -86,15 +94,12 @@ public class Texture2DMeta implements Render {
 
     //图片生成的位图
     private Bitmap mBitmap;
-    private int vertexTextureShaderId;
-    private int fragmentTextureShaderId;
 
     public Texture2DMeta() {
     }
 
     private void init() {
         initMemory();
-        initShader();
         initProgram();
         textureId = loadTexture(R.mipmap.wangfei);
     }
@@ -107,16 +112,7 @@ public class Texture2DMeta implements Render {
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
 
         //将变换矩阵传入顶点渲染器
-        GLES30.glUniformMatrix4fv(uMatrixLocation, 1, false, mMVPMatrix, 0);
-        //启用顶点坐标属性
-        GLES30.glEnableVertexAttribArray(aPositionLocation);
-        GLES30.glVertexAttribPointer(aPositionLocation, 3,
-                GLES30.GL_FLOAT, false, 0, vertexBuffer);
-        //启用纹理坐标属性
-        GLES30.glEnableVertexAttribArray(aTextureLocation);
-        GLES30.glVertexAttribPointer(aTextureLocation, 2,
-                GLES30.GL_FLOAT, false, 0, mTexVertexBuffer);
-
+        uMatrix.setMat4(mMVPMatrix, 0);
         /**
          * glActiveTexture选择后续纹理状态调用将影响的纹理单元。一个实现支持的纹理单元数取决于实现，但必须至少为32。
          *
@@ -124,16 +120,11 @@ public class Texture2DMeta implements Render {
          * 其中i的取值范围是从0到GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS的值减1。初始值为GL_TEXTUREO。
          */
         //激活纹理
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0); // 选择活动纹理单元
+        GlState.getInstance().activeTexture(0); // 选择活动纹理单元
         //绑定纹理
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GlState.getInstance().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         // 绘制
-        GLES30.glDrawElements(GLES20.GL_TRIANGLES, VERTEX_INDEX.length,
-                GLES20.GL_UNSIGNED_SHORT, mVertexIndexBuffer);
-
-        //禁止顶点数组的句柄
-        GLES30.glDisableVertexAttribArray(aPositionLocation);
-        GLES30.glDisableVertexAttribArray(aTextureLocation);
+        textureMesh.draw();
     }
 
 
@@ -173,72 +164,6 @@ public class Texture2DMeta implements Render {
 //        }
     }
 
-
-    /**
-     * 链接小程序
-     *
-     * @param vertexShaderId   顶点着色器
-     * @param fragmentShaderId 片段着色器
-     */
-    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
-        //创建一个空的OpenGLES程序
-        final int programId = GLES30.glCreateProgram();
-        if (programId != 0) {
-            //将顶点着色器加入到程序
-            GLES30.glAttachShader(programId, vertexShaderId);
-            //将片元着色器加入到程序中
-            GLES30.glAttachShader(programId, fragmentShaderId);
-            //链接着色器程序
-            GLES30.glLinkProgram(programId);
-            final int[] linkStatus = new int[1];
-
-            GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-            if (linkStatus[0] == 0) {
-                String logInfo = GLES30.glGetProgramInfoLog(programId);
-                System.err.println(logInfo);
-                GLES30.glDeleteProgram(programId);
-                return 0;
-            }
-            return programId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
-    /**
-     * 编译
-     *
-     * @param type       顶点着色器:GLES30.GL_VERTEX_SHADER
-     *                   片段着色器:GLES30.GL_FRAGMENT_SHADER
-     * @param shaderCode 着色器语言编写的着色器程序
-     * @return
-     */
-    private int compileShader(int type, String shaderCode) {
-        //创建一个着色器
-        final int shaderId = GLES30.glCreateShader(type);
-        if (shaderId != 0) {
-            GLES30.glShaderSource(shaderId, shaderCode);// 给着色器添加源代码
-            GLES30.glCompileShader(shaderId);  // 编译着色器(源代码)
-            //检测状态
-            final int[] compileStatus = new int[1];
-            GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
-            if (compileStatus[0] == 0) {
-                String logInfo = GLES30.glGetShaderInfoLog(shaderId);
-                System.err.println(logInfo);
-                //创建失败
-                GLES30.glDeleteShader(shaderId);
-                return 0;
-            }
-            return shaderId;
-        } else {
-            //创建失败
-            return 0;
-        }
-    }
-
-
     /**
      * 加载纹理
      *
@@ -280,7 +205,7 @@ public class Texture2DMeta implements Render {
              * 参数1-n：指定要删除的纹理数量。
              * 参数2-texture：指定要删除的纹理数组。
              */
-            GLES30.glDeleteTextures(1, textureIds, 0); // 删除命名纹理
+            GlState.getInstance().deleteTexture(textureIds[0]); // 删除命名纹理
             return 0;
         }
 
@@ -322,7 +247,7 @@ public class Texture2DMeta implements Render {
          * 参数2-texture：指定纹理的名称。
          */
         //绑定纹理到OpenGL
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureIds[0]); // 将命名纹理绑定到纹理目标
+        GlState.getInstance().bindTexture(GLES30.GL_TEXTURE_2D, textureIds[0]); // 将命名纹理绑定到纹理目标
 
         /**
          * giTexParameter将params中的一个或多个值分配给指定为pname的纹理参数。
@@ -401,21 +326,24 @@ public class Texture2DMeta implements Render {
         mBitmap.recycle();
 
         //取消绑定纹理
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
+        GlState.getInstance().bindTexture(GLES30.GL_TEXTURE_2D, 0);
 
         return textureIds[0];
     }
 
 
     /**
-     * 连接着色器
+     * 获取着色器程序
      */
     private void initProgram() {
-        // 连接着色器程序
-        int mProgram = linkProgram(vertexTextureShaderId, fragmentTextureShaderId);
+        // 从进程级程序缓存获取着色器程序：相同源码的着色器只编译、链接一次
+        ShaderProgram program = ProgramCache.getInstance().getShaderProgram(
+                R.raw.vertex_shader, R.raw.fragment_shader,
+                ShaderVariants.WITH_TEXTURE);
+        int mProgram = program.getId();
 
         //在OpenGLES环境中使用程序
-        GLES30.glUseProgram(mProgram);
+        GlState.getInstance().useProgram(mProgram);
 
         //将背景设置为白色
         GLES20.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
@@ -423,21 +351,17 @@ public class Texture2DMeta implements Render {
 //        GLES30.glClearColor(0.0f,0.0f,0.0f,1.0f);
 
         // 获取相关属性变量的句柄
-        uMatrixLocation = GLES30.glGetUniformLocation(mProgram, "u_Matrix");  // 矩阵属性变量句柄
-        aPositionLocation = GLES30.glGetAttribLocation(mProgram, "vPosition"); // 顶点属性变量句柄
-        aTextureLocation = GLES30.glGetAttribLocation(mProgram, "aTextureCoord");
-    }
-
-    /**
-     * 创建加载、编译着色器程序
-     */
-    private void initShader() {
-        // TODO 编译顶点着色器：定义了矩阵属性变量
-        vertexTextureShaderId = compileShader(GLES30.GL_VERTEX_SHADER,
-                ResReadUtils.readResource(R.raw.vertex_texture_shader));
-        // 编译片段着色器
-        fragmentTextureShaderId = compileShader(GLES30.GL_FRAGMENT_SHADER,
-                ResReadUtils.readResource(R.raw.fragment_texture_shader));
+        uMatrix = program.uniform("u_Matrix");  // 矩阵属性变量句柄
+        aPositionLocation = program.attribute("vPosition"); // 顶点属性变量句柄
+        aTextureLocation = program.attribute("aTextureCoord");
+
+        // 顶点数据和索引一次性上传到GPU,之后每帧只需绑定VAO
+        // 位置量化为半精度浮点,[0, 1]范围内的纹理坐标量化为归一化16位整数
+        textureMesh = new GLMesh(GLES30.GL_TRIANGLES)
+                .quantized(aPositionLocation, 3, vertexBuffer, VertexFormat.HALF4)
+                .quantized(aTextureLocation, 2, mTexVertexBuffer, VertexFormat.UNORM16_2)
+                .indices(mVertexIndexBuffer)
+                .upload();
     }
 
     /**
@@ -474,7 +398,7 @@ public class Texture2DMeta implements Render {
      */
     private void viewport(int width, int height) {
         //设置绘制窗口
-        GLES30.glViewport(0, 0, width, height);
+        GlState.getInstance().viewport(0, 0, width, height);
     }
 
     @Override
@@ -4,6 +4,9 @@ import android.opengl.GLES20;
 import android.opengl.Matrix;
 import android.os.SystemClock;
 
+import com.trans.opengles.shader.ShaderProgram;
+import com.trans.opengles.surface.GLMesh;
+import com.trans.opengles.surface.GlState;
 import com.trans.opengles.surface.Render;
 import com.trans.opengles.surface.MyGLRenderer;
 
@@ -58,7 +61,9 @@ public class TriangleMeta implements Render {
 
 
     private int positionHandle;
-    private int colorHandle;
+    //GPU端的三角形网格
+    private GLMesh triangleMesh;
+    private ShaderProgram.Uniform colorHandle;
 
     // number of coordinates per vertex in this array
     static final int COORDS_PER_VERTEX = 3;   // 每个顶点的坐标数
@@ -151,6 +156,17 @@ public class TriangleMeta implements Render {
          */
         // creates OpenGL ES program executables  创建OpenGL ES程序可执行文件
         GLES20.glLinkProgram(mProgram);  // 链接着色器程序对象.可以在程序对象中创建一个或多个可执行文件
+
+        // 链接后用glGetActiveUniform/glGetActiveAttrib一次性查出所有句柄,绘制时不再查询
+        ShaderProgram program = ShaderProgram.reflect(mProgram);
+        positionHandle = program.attribute("vPosition");
+        colorHandle = program.uniform("vColor");
+        vPMatrixHandle = program.uniform("uMVPMatrix");
+
+        // 顶点数据一次性上传到GPU(VBO+VAO),drawFrame(float[])每帧只需绑定VAO
+        triangleMesh = new GLMesh(GLES20.GL_TRIANGLES)
+                .attribute(positionHandle, COORDS_PER_VERTEX, vertexBuffer)
+                .upload();
     }
 
     /**
@@ -177,7 +193,9 @@ public class TriangleMeta implements Render {
          * 参数-program:程序指定程序对象的句柄，该程序对象的可执行文件将被用作当前呈现状态的一部分。
          */
         // Add program to OpenGL ES environment 添加程序到OpenGL ES环境
-        GLES20.glUseProgram(mProgram); // 将程序对象安装为当前呈现状态的一部分
+        GlState.getInstance().useProgram(mProgram); // 将程序对象安装为当前呈现状态的一部分
+        // 客户端内存中的顶点数组只能配合默认的VAO 0使用
+        GlState.getInstance().bindVertexArray(0);
 
         /**
          * glGetAttriblocation查询由程序指定的先前链接的程序对象，以获取由名称指定的属性变量，
@@ -195,8 +213,7 @@ public class TriangleMeta implements Render {
          *
          * Note: int(Long) ==> 句柄 ==> index索引 ==> 指针的指针 ==> id ==> 位置
          */
-        // get handle to vertex shader's vPosition member  获取顶点着色器的vPosition成员的句柄
-        positionHandle = GLES20.glGetAttribLocation(mProgram, "vPosition");
+        // vPosition成员的句柄已在init()中链接后查出
 
         /**
          * glEnableVertexAttribArray启用由索引指定的通用顶点属性数组。
@@ -209,7 +226,7 @@ public class TriangleMeta implements Render {
          * 参数-index:指定要启用或禁用的通用顶点属性的索引。
          */
         // Enable a handle to the triangle vertices  启用三角形顶点的句柄
-        GLES20.glEnableVertexAttribArray(positionHandle); // 启用或禁用通用顶点属性数组  (通过索引句柄来启用对应属性变量)
+        GlState.getInstance().enableVertexAttribArray(positionHandle); // 启用或禁用通用顶点属性数组  (通过索引句柄来启用对应属性变量)
 
 
         /**
@@ -263,8 +280,7 @@ public class TriangleMeta implements Render {
          *
          * 返回值:返回统一变量的位置
          */
-        // get handle to fragment shader's vColor member  获取片段着色器的vColor成员的句柄
-        colorHandle = GLES20.glGetUniformLocation(mProgram, "vColor");
+        // vColor成员的句柄已在init()中链接后查出
 
         /**
          * glUniform用于修改统一变量或统一变量数组的值。
@@ -284,7 +300,7 @@ public class TriangleMeta implements Render {
          * 参数4:(OpenGL® ES es2.0 C规范中没有此参数)
          */
         // Set color for drawing the triangle  设置绘制三角形的颜色
-        GLES20.glUniform4fv(colorHandle, 1, color, 0); // 为当前程序对象指定统一变量的值
+        colorHandle.setVec4(color, 0); // 为当前程序对象指定统一变量的值,与上次相同时不调用GLES
 
         /**
          * glDrawArrays通过很少的子例程调用指定了多个几何原语。而不是调用GL过程来传递每个单独的顶点属性，
@@ -312,7 +328,7 @@ public class TriangleMeta implements Render {
          * 参数-index:指定要启用或禁用的通用顶点属性的索引
          */
         // Disable vertex array  禁用顶点数组
-        GLES20.glDisableVertexAttribArray(positionHandle);    // 启用或禁用通用顶点属性数组
+        GlState.getInstance().disableVertexAttribArray(positionHandle);    // 启用或禁用通用顶点属性数组
     }
 
 
@@ -327,7 +343,7 @@ public class TriangleMeta implements Render {
     }
 
     // Use to access and set the view transformation 用于访问和设置视图转换
-    private int vPMatrixHandle;
+    private ShaderProgram.Uniform vPMatrixHandle;
 
     /**
      * 创建用于绘制形状的 draw() 方法。
@@ -338,28 +354,10 @@ public class TriangleMeta implements Render {
     private void drawFrame(float[] mvpMatrix) { // pass in the calculated transformation matrix
 
         // Add program to OpenGL ES environment 添加程序到OpenGL ES环境
-        GLES20.glUseProgram(mProgram);
-
-        // get handle to vertex shader's vPosition member  获取顶点着色器的vPosition成员的句柄
-        positionHandle = GLES20.glGetAttribLocation(mProgram, "vPosition");
-
-        // Enable a handle to the triangle vertices  启用三角形顶点的句柄
-        GLES20.glEnableVertexAttribArray(positionHandle);
-
-        // Prepare the triangle coordinate data  准备三角坐标数据
-        GLES20.glVertexAttribPointer(positionHandle, COORDS_PER_VERTEX,
-                GLES20.GL_FLOAT, false,
-                vertexStride, vertexBuffer);
+        GlState.getInstance().useProgram(mProgram);
 
-        // get handle to fragment shader's vColor member  获取片段着色器的vColor成员的句柄
-        colorHandle = GLES20.glGetUniformLocation(mProgram, "vColor");
-
-        // Set color for drawing the triangle  设置绘制三角形的颜色
-        GLES20.glUniform4fv(colorHandle, 1, color, 0);
-
-
-        // get handle to shape's transformation matrix 得到形状变换矩阵的句柄
-        vPMatrixHandle = GLES20.glGetUniformLocation(mProgram, "uMVPMatrix");
+        // Set color for drawing the triangle  设置绘制三角形的颜色(与上次相同时不调用GLES)
+        colorHandle.setVec4(color, 0);
 
         /**
          * glUniform*在默认的uniform块中修改uniform变量或uniform变量数组的值。
@@ -411,14 +409,11 @@ public class TriangleMeta implements Render {
          */
         // Pass the projection and view transformation to the shader 将投影和视图转换传递给着色器
         // 将多个矩阵结合后的结果矩阵传递给着色器
-        GLES20.glUniformMatrix4fv(vPMatrixHandle, 1, false, mvpMatrix, 0);
-
+        vPMatrixHandle.setMat4(mvpMatrix, 0);
 
-        // Draw the triangle  画出这个三角形
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, vertexCount);
 
-        // Disable vertex array  禁用顶点数组
-        GLES20.glDisableVertexAttribArray(positionHandle);
+        // Draw the triangle  画出这个三角形:顶点属性已记录在VAO中
+        triangleMesh.draw();
     }
 
 
@@ -431,7 +426,7 @@ public class TriangleMeta implements Render {
      * @param height
      */
     private void setMatrix(int width, int height) {
-        GLES20.glViewport(0, 0, width, height);
+        GlState.getInstance().viewport(0, 0, width, height);
 
         float ratio = (float) width / height;
 
@@ -0,0 +1,146 @@
+package com.trans.opengles.shader;
+
+import android.opengl.GLES30;
+import android.opengl.Matrix;
+
+import com.trans.opengles.surface.Frustum;
+import com.trans.opengles.surface.GlState;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 所有ES3程序共享的相机uniform块(std140,见res/raw/include_camera.glsl)：
+ * 相机矩阵、投影矩阵、投影*相机矩阵和时间放在一个UBO中，绑定到固定的绑定点{@link #BINDING}。
+ * Render在view()中{@link #setCamera}，渲染器每帧开始时{@link #update()}一次，
+ * 无论有多少物体和程序，每帧的相机数据只上传一次；相机不变时只更新时间
+ * @date :2026/10/18 22:50
+ */
+public final class CameraBuffer {
+    //着色器中uniform块的名称和绑定点
+    public static final String BLOCK_NAME = "Camera";
+    public static final int BINDING = 0;
+
+    //std140布局中各成员的字节偏移：mat4按4个vec4列对齐,float紧随其后,块大小向上取整到16字节
+    static final int VIEW_OFFSET = 0;
+    static final int PROJECTION_OFFSET = 64;
+    static final int VIEW_PROJECTION_OFFSET = 128;
+    static final int TIME_OFFSET = 192;
+    static final int SIZE = 208;
+
+    private static final CameraBuffer INSTANCE = new CameraBuffer();
+
+    private final float[] view = new float[16];
+    private final float[] projection = new float[16];
+    private final float[] viewProjection = new float[16];
+    //由投影*相机矩阵提取的视锥,用于剔除
+    private final Frustum frustum = new Frustum();
+    private final ByteBuffer data = ByteBuffer.allocateDirect(SIZE).order(ByteOrder.nativeOrder());
+    private final long startNanos = System.nanoTime();
+    //相机矩阵在上次上传后是否改变
+    private boolean cameraDirty;
+
+    //UBO,0表示当前EGL上下文中还没有创建
+    private int bufferId;
+
+    private CameraBuffer() {
+        //没有设置相机之前使用单位矩阵
+        for (int i = 0; i < 16; i += 5) {
+            view[i] = 1f;
+            projection[i] = 1f;
+            viewProjection[i] = 1f;
+        }
+        frustum.set(viewProjection);
+    }
+
+    public static CameraBuffer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置相机,在GL线程调用,下一次{@link #update()}时上传
+     */
+    public void setCamera(float[] viewMatrix, float[] projectionMatrix) {
+        System.arraycopy(viewMatrix, 0, view, 0, 16);
+        System.arraycopy(projectionMatrix, 0, projection, 0, 16);
+        Matrix.multiplyMM(viewProjection, 0, projection, 0, view, 0);
+        frustum.set(viewProjection);
+        cameraDirty = true;
+    }
+
+    /**
+     * 投影*相机矩阵,只读
+     */
+    public float[] getViewProjection() {
+        return viewProjection;
+    }
+
+    /**
+     * 当前相机的视锥,只读
+     */
+    public Frustum getFrustum() {
+        return frustum;
+    }
+
+    /**
+     * 每帧调用一次,在GL线程绘制之前调用；Render在draw()中改变相机时,在绘制前再调用一次即可立即上传。新的EGL上下文中(见{@link #invalidateGpu()})创建UBO并绑定到{@link #BINDING}
+     */
+    public void update() {
+        float time = (System.nanoTime() - startNanos) / 1e9f;
+        GlState state = GlState.getInstance();
+        if (bufferId == 0) {
+            final int[] ids = new int[1];
+            GLES30.glGenBuffers(1, ids, 0);
+            bufferId = ids[0];
+            state.bindBufferBase(GLES30.GL_UNIFORM_BUFFER, BINDING, bufferId);
+            GLES30.glBufferData(GLES30.GL_UNIFORM_BUFFER, SIZE, null, GLES30.GL_DYNAMIC_DRAW);
+            cameraDirty = true;
+        } else {
+            //UBO一直绑定在GL_UNIFORM_BUFFER上,通常被过滤
+            state.bindBuffer(GLES30.GL_UNIFORM_BUFFER, bufferId);
+        }
+        if (cameraDirty) {
+            pack(view, projection, viewProjection, time, data.asFloatBuffer());
+            GLES30.glBufferSubData(GLES30.GL_UNIFORM_BUFFER, 0, SIZE, data);
+            cameraDirty = false;
+        } else {
+            //相机没有变化,只更新时间
+            data.putFloat(TIME_OFFSET, time);
+            data.position(TIME_OFFSET);
+            GLES30.glBufferSubData(GLES30.GL_UNIFORM_BUFFER, TIME_OFFSET, 4, data);
+            data.position(0);
+        }
+    }
+
+    /**
+     * 新的EGL上下文已创建(在onSurfaceCreated中调用)：旧的UBO已随上下文销毁,下一次update时重新创建。
+     * 不能只比较EGL上下文句柄来判断,句柄值可能被新上下文复用
+     */
+    public void invalidateGpu() {
+        bufferId = 0;
+    }
+
+    /**
+     * 把程序中的相机uniform块绑定到{@link #BINDING},程序中没有该块时什么也不做。必须在GL线程调用
+     */
+    public static void bind(int program) {
+        int index = GLES30.glGetUniformBlockIndex(program, BLOCK_NAME);
+        if (index != GLES30.GL_INVALID_INDEX) {
+            GLES30.glUniformBlockBinding(program, index, BINDING);
+        }
+    }
+
+    /**
+     * 按std140布局写入整个uniform块
+     */
+    static void pack(float[] view, float[] projection, float[] viewProjection, float time, FloatBuffer out) {
+        out.put(view, 0, 16)
+                .put(projection, 0, 16)
+                .put(viewProjection, 0, 16)
+                .put(time)
+                //块末尾的填充
+                .put(0f).put(0f).put(0f);
+    }
+}
@@ -0,0 +1,215 @@
+package com.trans.opengles.shader;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * @author Tom灿
+ * @description: 程序二进制的磁盘缓存：首次链接后用glGetProgramBinary取出驱动编译好的程序，
+ * 之后启动时用glProgramBinary直接恢复，跳过GLSL编译和链接。
+ * 文件名是GL_RENDERER、GL_VERSION和两个着色器源码的SHA-256，驱动升级后自然失效；
+ * 驱动拒绝的文件立即删除，由调用方回退到源码编译。
+ * 文件格式(小端)：16字节头部(魔数、版本、二进制格式、长度)，之后是程序二进制
+ * @date :2026/10/18 20:50
+ */
+public final class ProgramBinaryCache {
+    private static final String TAG = "ProgramBinaryCache";
+    //"PRGB"
+    private static final int MAGIC = 0x42475250;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final File dir;
+    //当前上下文的驱动标识：GL_RENDERER + GL_VERSION
+    private final String driver;
+
+    /**
+     * @param dir    缓存目录,不存在时写入时创建
+     * @param driver 驱动标识,不同驱动编译出的二进制不能通用
+     */
+    ProgramBinaryCache(File dir, String driver) {
+        this.dir = dir;
+        this.driver = driver;
+    }
+
+    /**
+     * 当前上下文支持程序二进制时创建缓存,否则返回null。必须在GL线程调用
+     */
+    static ProgramBinaryCache create(File dir) {
+        int[] formats = new int[1];
+        GLES30.glGetIntegerv(GLES30.GL_NUM_PROGRAM_BINARY_FORMATS, formats, 0);
+        if (formats[0] == 0) {
+            return null;
+        }
+        return new ProgramBinaryCache(dir, GLES30.glGetString(GLES30.GL_RENDERER)
+                + '\n' + GLES30.glGetString(GLES30.GL_VERSION));
+    }
+
+    /**
+     * 从缓存恢复程序,必须在GL线程调用
+     *
+     * @return 链接成功的程序,没有缓存或驱动拒绝时为0
+     */
+    int load(String vertexSource, String fragmentSource) {
+        File file = file(vertexSource, fragmentSource);
+        if (!file.isFile()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Blob blob;
+        try {
+            blob = read(readFile(file));
+        } catch (IOException e) {
+            Log.w(TAG, "discard " + file.getName(), e);
+            file.delete();
+            return 0;
+        }
+        int program = GLES30.glCreateProgram();
+        if (program == 0) {
+            return 0;
+        }
+        GLES30.glProgramBinary(program, blob.format, blob.binary, blob.binary.remaining());
+        final int[] linkStatus = new int[1];
+        GLES30.glGetProgramiv(program, GLES30.GL_LINK_STATUS, linkStatus, 0);
+        if (linkStatus[0] == 0) {
+            //格式不受支持时glProgramBinary会产生GL_INVALID_ENUM,取出错误避免干扰后续检查
+            GLES30.glGetError();
+            Log.i(TAG, "driver rejected " + file.getName());
+            GLES30.glDeleteProgram(program);
+            file.delete();
+            return 0;
+        }
+        Log.d(TAG, "program " + program + " restored in " + (System.nanoTime() - start) / 1000 + "us");
+        return program;
+    }
+
+    /**
+     * 保存已链接程序的二进制,必须在GL线程调用。链接前应设置GL_PROGRAM_BINARY_RETRIEVABLE_HINT
+     */
+    void save(int program, String vertexSource, String fragmentSource) {
+        final int[] length = new int[1];
+        GLES30.glGetProgramiv(program, GLES30.GL_PROGRAM_BINARY_LENGTH, length, 0);
+        if (length[0] <= 0) {
+            return;
+        }
+        ByteBuffer binary = ByteBuffer.allocateDirect(length[0]);
+        final int[] format = new int[1];
+        GLES30.glGetProgramBinary(program, length[0], length, 0, format, 0, binary);
+        binary.limit(length[0]);
+
+        File file = file(vertexSource, fragmentSource);
+        //先写临时文件再重命名,进程被杀时不会留下不完整的文件
+        File temp = new File(dir, file.getName() + ".tmp");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.w(TAG, "cannot create " + dir);
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            write(format[0], binary, out);
+        } catch (IOException e) {
+            Log.w(TAG, "cannot write " + temp, e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    private File file(String vertexSource, String fragmentSource) {
+        return new File(dir, key(driver, vertexSource, fragmentSource) + ".bin");
+    }
+
+    /**
+     * 缓存键：驱动标识与两个着色器源码的SHA-256(十六进制)
+     */
+    static String key(String driver, String vertexSource, String fragmentSource) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest((driver + '\0' + vertexSource + '\0' + fragmentSource)
+                .getBytes(StandardCharsets.UTF_8));
+        StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 写出程序二进制
+     */
+    static void write(int format, ByteBuffer binary, OutputStream out) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + binary.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(format)
+                .putInt(binary.remaining());
+        buf.put(binary.duplicate());
+        out.write(buf.array());
+    }
+
+    /**
+     * 读取程序二进制,返回的缓冲区是buf的切片
+     *
+     * @throws IOException 格式不正确
+     */
+    static Blob read(ByteBuffer buf) throws IOException {
+        buf = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) {
+            throw new IOException("Not a program binary");
+        }
+        int version = buf.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported program binary version: " + version);
+        }
+        int format = buf.getInt();
+        int length = buf.getInt();
+        if (length <= 0 || length > buf.remaining()) {
+            throw new IOException("Truncated program binary");
+        }
+        buf.limit(buf.position() + length);
+        return new Blob(format, buf.slice());
+    }
+
+    private static ByteBuffer readFile(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buf = ByteBuffer.allocateDirect((int) channel.size());
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
+    static final class Blob {
+        //glGetProgramBinary返回的二进制格式
+        final int format;
+        final ByteBuffer binary;
+
+        Blob(int format, ByteBuffer binary) {
+            this.format = format;
+            this.binary = binary;
+        }
+    }
+}
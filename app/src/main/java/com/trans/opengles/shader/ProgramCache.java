@@ -0,0 +1,278 @@
+package com.trans.opengles.shader;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+import java.io.File;
+import java.util.HashMap;
+
+/**
+ * @author Tom灿
+ * @description: 进程级着色器程序缓存，所有Render实例共享。
+ * 按源码缓存：同一EGL上下文中每个不同的着色器阶段只编译一次，每对顶点/片段着色器只链接一次，
+ * 之后直接返回已链接的程序。链接后立即从程序上分离着色器对象，
+ * 一批程序创建完成后调用{@link #releaseShaders()}删除着色器对象，驱动可以回收编译中间结果。
+ * 源码末尾的空白不影响编译结果，比较前先去掉，只有末尾换行不同的文件共用一个着色器。
+ * 设置了二进制缓存目录时，新链接的程序保存到{@link ProgramBinaryCache}，下次启动直接恢复
+ * @date :2026/10/18 20:10
+ */
+public final class ProgramCache {
+    private static final String TAG = "ProgramCache";
+
+    private static final ProgramCache INSTANCE = new ProgramCache();
+
+    //已编译的着色器阶段：类型 + 源码 -> 着色器对象,releaseShaders后清空
+    private final HashMap<String, Integer> shaders = new HashMap<>();
+    //已链接的程序：顶点源码 + 片段源码 -> 程序对象
+    private final HashMap<String, Integer> programs = new HashMap<>();
+    //程序对象 -> 反射表,共享程序的Render共用同一份uniform影子值
+    private final HashMap<Integer, ShaderProgram> reflections = new HashMap<>();
+    //缓存的着色器和程序是否属于当前EGL上下文,invalidateGpu后为false
+    private boolean contextReady;
+    //程序二进制缓存目录,为null时不使用二进制缓存
+    private File binaryDir;
+    //当前上下文的程序二进制缓存,驱动不支持程序二进制时为null
+    private ProgramBinaryCache binaryCache;
+
+    //编译、链接次数以及累计耗时
+    private int compileCount;
+    private int linkCount;
+    private long compileNanos;
+    private long linkNanos;
+    //直接返回已链接程序的次数
+    private int hits;
+    //从程序二进制恢复的次数
+    private int binaryHits;
+
+    private ProgramCache() {
+    }
+
+    public static ProgramCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置程序二进制缓存目录,从下一个EGL上下文开始生效
+     */
+    public synchronized void setBinaryDirectory(File dir) {
+        binaryDir = dir;
+    }
+
+    /**
+     * 获取由两个raw资源中的着色器链接成的程序,必须在GL线程调用。
+     * 源码经过预处理,两个着色器注入同样的宏
+     *
+     * @param defines 变体的宏,见{@link ShaderVariants}
+     * @return 程序对象,编译或链接失败时为0
+     */
+    public int getProgram(int vertexResId, int fragmentResId, String... defines) {
+        ShaderSources sources = ShaderSources.getInstance();
+        return getProgram(sources.get(vertexResId, defines), sources.get(fragmentResId, defines));
+    }
+
+    /**
+     * 与{@link #getProgram(int, int, String...)}相同,返回带uniform/attribute反射表的程序,必须在GL线程调用。
+     * 程序中的相机uniform块绑定到{@link CameraBuffer#BINDING}
+     *
+     * @return 失败时返回id为0、没有任何uniform的程序
+     */
+    public synchronized ShaderProgram getShaderProgram(int vertexResId, int fragmentResId, String... defines) {
+        int program = getProgram(vertexResId, fragmentResId, defines);
+        ShaderProgram shaderProgram = reflections.get(program);
+        if (shaderProgram == null) {
+            shaderProgram = ShaderProgram.reflect(program);
+            if (program != 0) {
+                //共享的相机uniform块固定在同一个绑定点
+                CameraBuffer.bind(program);
+            }
+            reflections.put(program, shaderProgram);
+        }
+        return shaderProgram;
+    }
+
+    /**
+     * 获取由顶点/片段着色器源码链接成的程序,必须在GL线程调用
+     *
+     * @return 程序对象,编译或链接失败时为0
+     */
+    public synchronized int getProgram(String vertexSource, String fragmentSource) {
+        if (!contextReady) {
+            contextReady = true;
+            binaryCache = binaryDir != null ? ProgramBinaryCache.create(binaryDir) : null;
+        }
+        vertexSource = normalize(vertexSource);
+        fragmentSource = normalize(fragmentSource);
+        String key = vertexSource + '\0' + fragmentSource;
+        Integer cached = programs.get(key);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        if (binaryCache != null) {
+            int program = binaryCache.load(vertexSource, fragmentSource);
+            if (program != 0) {
+                binaryHits++;
+                programs.put(key, program);
+                return program;
+            }
+        }
+        int vertexShader = getShader(GLES30.GL_VERTEX_SHADER, vertexSource);
+        int fragmentShader = getShader(GLES30.GL_FRAGMENT_SHADER, fragmentSource);
+        if (vertexShader == 0 || fragmentShader == 0) {
+            return 0;
+        }
+        int program = linkProgram(vertexShader, fragmentShader);
+        if (program != 0) {
+            programs.put(key, program);
+            if (binaryCache != null) {
+                binaryCache.save(program, vertexSource, fragmentSource);
+            }
+        }
+        return program;
+    }
+
+    /**
+     * 删除已编译的着色器对象。已链接的程序不受影响,之后用到同样源码的新程序需要重新编译。
+     * 在一批程序创建完成后(例如Render.shader()之后)在GL线程调用
+     */
+    public synchronized void releaseShaders() {
+        if (contextReady) {
+            for (int shader : shaders.values()) {
+                GLES30.glDeleteShader(shader);
+            }
+        }
+        shaders.clear();
+    }
+
+    /**
+     * 新的EGL上下文已创建(在onSurfaceCreated中调用)：旧的着色器和程序已随旧上下文销毁,只丢弃引用。
+     * 不能只比较EGL上下文句柄来判断,句柄值可能被新上下文复用
+     */
+    public synchronized void invalidateGpu() {
+        contextReady = false;
+        shaders.clear();
+        programs.clear();
+        reflections.clear();
+        binaryCache = null;
+    }
+
+    public synchronized int getCompileCount() {
+        return compileCount;
+    }
+
+    public synchronized int getLinkCount() {
+        return linkCount;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getBinaryHits() {
+        return binaryHits;
+    }
+
+    /**
+     * 累计编译耗时(毫秒)
+     */
+    public synchronized float getCompileMillis() {
+        return compileNanos / 1e6f;
+    }
+
+    /**
+     * 累计链接耗时(毫秒)
+     */
+    public synchronized float getLinkMillis() {
+        return linkNanos / 1e6f;
+    }
+
+    private int getShader(int type, String source) {
+        String key = type + "\0" + source;
+        Integer cached = shaders.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int shader = compileShader(type, source);
+        if (shader != 0) {
+            shaders.put(key, shader);
+        }
+        return shader;
+    }
+
+    /**
+     * 编译
+     *
+     * @param type   顶点着色器:GLES30.GL_VERTEX_SHADER
+     *               片段着色器:GLES30.GL_FRAGMENT_SHADER
+     * @param source 着色器语言编写的着色器程序
+     * @return 着色器对象,失败时为0
+     */
+    private int compileShader(int type, String source) {
+        long start = System.nanoTime();
+        final int shaderId = GLES30.glCreateShader(type);
+        if (shaderId == 0) {
+            return 0;
+        }
+        GLES30.glShaderSource(shaderId, source);
+        GLES30.glCompileShader(shaderId);
+        final int[] compileStatus = new int[1];
+        GLES30.glGetShaderiv(shaderId, GLES30.GL_COMPILE_STATUS, compileStatus, 0);
+        long elapsed = System.nanoTime() - start;
+        compileCount++;
+        compileNanos += elapsed;
+        if (compileStatus[0] == 0) {
+            Log.e(TAG, "compile failed: " + GLES30.glGetShaderInfoLog(shaderId));
+            GLES30.glDeleteShader(shaderId);
+            return 0;
+        }
+        Log.d(TAG, (type == GLES30.GL_VERTEX_SHADER ? "vertex" : "fragment")
+                + " shader compiled in " + elapsed / 1000 + "us");
+        return shaderId;
+    }
+
+    /**
+     * 链接程序,完成后分离着色器对象
+     *
+     * @return 程序对象,失败时为0
+     */
+    private int linkProgram(int vertexShaderId, int fragmentShaderId) {
+        long start = System.nanoTime();
+        final int programId = GLES30.glCreateProgram();
+        if (programId == 0) {
+            return 0;
+        }
+        GLES30.glAttachShader(programId, vertexShaderId);
+        GLES30.glAttachShader(programId, fragmentShaderId);
+        if (binaryCache != null) {
+            //提示驱动保留可取出的程序二进制
+            GLES30.glProgramParameteri(programId, GLES30.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GLES30.GL_TRUE);
+        }
+        GLES30.glLinkProgram(programId);
+        final int[] linkStatus = new int[1];
+        GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
+        //程序链接后不再需要着色器对象,分离后着色器可以单独删除
+        GLES30.glDetachShader(programId, vertexShaderId);
+        GLES30.glDetachShader(programId, fragmentShaderId);
+        long elapsed = System.nanoTime() - start;
+        linkCount++;
+        linkNanos += elapsed;
+        if (linkStatus[0] == 0) {
+            Log.e(TAG, "link failed: " + GLES30.glGetProgramInfoLog(programId));
+            GLES30.glDeleteProgram(programId);
+            return 0;
+        }
+        Log.d(TAG, "program " + programId + " linked in " + elapsed / 1000 + "us");
+        return programId;
+    }
+
+    /**
+     * 去掉源码末尾的空白,只保留一个换行
+     */
+    static String normalize(String source) {
+        int end = source.length();
+        while (end > 0 && Character.isWhitespace(source.charAt(end - 1))) {
+            end--;
+        }
+        return source.substring(0, end) + "\n";
+    }
+}
@@ -0,0 +1,148 @@
+package com.trans.opengles.shader;
+
+import java.util.HashSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author Tom灿
+ * @description: GLSL预处理：展开#include、在#version之后注入#define，并输出规范化的源码。
+ * 规范化去掉注释、行尾空白和空行，#define按名称排序，因此只有注释、空白或定义顺序不同的源码得到同一个字符串，
+ * 程序缓存和二进制缓存都以它为键。编译错误日志中的行号指的是规范化后的源码。#ifdef等条件编译留给驱动处理
+ * @date :2026/10/18 21:50
+ */
+public final class ShaderPreprocessor {
+    private static final Pattern INCLUDE = Pattern.compile("^\\s*#\\s*include\\s+\"([^\"]+)\"\\s*$");
+    private static final Pattern VERSION = Pattern.compile("^\\s*#\\s*version\\b.*$");
+    private static final Pattern DEFINE = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)(?:=(.*))?");
+
+    /**
+     * 按名称查找被包含的源码
+     */
+    public interface IncludeResolver {
+        String resolve(String name);
+    }
+
+    private final IncludeResolver resolver;
+
+    public ShaderPreprocessor(IncludeResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * 预处理着色器源码
+     *
+     * @param defines 注入的宏,形如"NAME"或"NAME=VALUE"
+     * @return 规范化的源码,以换行结尾
+     * @throws IllegalArgumentException 宏名不合法、找不到被包含的文件或被包含的文件中有#version
+     */
+    public String process(String source, String... defines) {
+        StringBuilder body = new StringBuilder(source.length());
+        String version = expand(source, body, new HashSet<>(), true);
+
+        StringBuilder out = new StringBuilder(body.length() + 64);
+        if (version != null) {
+            out.append(version).append('\n');
+        }
+        for (String define : sortDefines(defines)) {
+            out.append("#define ").append(define).append('\n');
+        }
+        return out.append(body).toString();
+    }
+
+    /**
+     * 去掉注释并展开#include,每个文件只包含一次
+     *
+     * @return 顶层源码的#version行,没有时为null
+     */
+    private String expand(String source, StringBuilder out, HashSet<String> included, boolean topLevel) {
+        String version = null;
+        for (String line : stripComments(source).split("\n")) {
+            line = trimEnd(line);
+            if (line.isEmpty()) {
+                continue;
+            }
+            Matcher include = INCLUDE.matcher(line);
+            if (include.matches()) {
+                String name = include.group(1);
+                if (included.add(name)) {
+                    String text = resolver.resolve(name);
+                    if (text == null) {
+                        throw new IllegalArgumentException("Cannot resolve #include \"" + name + "\"");
+                    }
+                    expand(text, out, included, false);
+                }
+                continue;
+            }
+            if (VERSION.matcher(line).matches()) {
+                if (!topLevel) {
+                    throw new IllegalArgumentException("#version in included file: " + line);
+                }
+                if (version == null) {
+                    version = line.trim();
+                    continue;
+                }
+            }
+            out.append(line).append('\n');
+        }
+        return version;
+    }
+
+    private static TreeSet<String> sortDefines(String[] defines) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String define : defines) {
+            Matcher matcher = DEFINE.matcher(define.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Illegal define: " + define);
+            }
+            String value = matcher.group(2);
+            sorted.add(value == null || value.trim().isEmpty()
+                    ? matcher.group(1) : matcher.group(1) + " " + value.trim());
+        }
+        return sorted;
+    }
+
+    /**
+     * 去掉//和块注释。跨行块注释中的换行保留,避免注释前后的内容拼到同一行(例如把下一行并入预处理指令)；
+     * 空行随后在{@link #expand}中去掉,输出的行号与原文件并不对应。GLSL没有字符串字面量,不需要处理引号
+     */
+    static String stripComments(String source) {
+        StringBuilder out = new StringBuilder(source.length());
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < n && source.charAt(i + 1) == '/') {
+                while (i < n && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < n && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                for (int j = i; j < end; j++) {
+                    if (source.charAt(j) == '\n') {
+                        out.append('\n');
+                    }
+                }
+                //块注释相当于一个空格
+                out.append(' ');
+                i = end;
+            } else if (c != '\r') {
+                out.append(c);
+                i++;
+            } else {
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static String trimEnd(String line) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
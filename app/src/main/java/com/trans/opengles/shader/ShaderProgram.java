@@ -0,0 +1,243 @@
+package com.trans.opengles.shader;
+
+import android.opengl.GLES30;
+
+import java.util.HashMap;
+
+/**
+ * @author Tom灿
+ * @description: 着色器程序的反射表：链接后用glGetActiveUniform/glGetActiveAttrib一次性查出所有活动的
+ * uniform和attribute位置，之后按名称查表，不再调用glGetUniformLocation/glGetAttribLocation。
+ * 每个uniform保存最后一次上传的值，setMat4/setVec4等与上次相同时不调用GLES。
+ * 影子值属于程序本身，共享同一程序的Render必须使用同一个实例(见{@link ProgramCache#getShaderProgram})
+ * @date :2026/10/18 22:20
+ */
+public final class ShaderProgram {
+    private final int id;
+    private final HashMap<String, Uniform> uniforms = new HashMap<>();
+    private final HashMap<String, Integer> attributes = new HashMap<>();
+
+    //实际上传与因值未变化而跳过的uniform次数
+    private int uploadCount;
+    private int skipCount;
+
+    private ShaderProgram(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 查询程序中所有活动的uniform和attribute,必须在GL线程调用
+     *
+     * @param program 已链接的程序,为0时得到空表
+     */
+    public static ShaderProgram reflect(int program) {
+        ShaderProgram shaderProgram = new ShaderProgram(program);
+        if (program == 0) {
+            return shaderProgram;
+        }
+        final int[] count = new int[1];
+        final int[] size = new int[1];
+        final int[] type = new int[1];
+        GLES30.glGetProgramiv(program, GLES30.GL_ACTIVE_UNIFORMS, count, 0);
+        for (int i = 0; i < count[0]; i++) {
+            String name = arrayName(GLES30.glGetActiveUniform(program, i, size, 0, type, 0));
+            //uniform块中的成员没有位置
+            int location = GLES30.glGetUniformLocation(program, name);
+            if (location >= 0) {
+                shaderProgram.uniforms.put(name, shaderProgram.new Uniform(location, type[0], size[0]));
+            }
+        }
+        GLES30.glGetProgramiv(program, GLES30.GL_ACTIVE_ATTRIBUTES, count, 0);
+        for (int i = 0; i < count[0]; i++) {
+            String name = arrayName(GLES30.glGetActiveAttrib(program, i, size, 0, type, 0));
+            shaderProgram.attributes.put(name, GLES30.glGetAttribLocation(program, name));
+        }
+        return shaderProgram;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 按名称获取uniform。不存在或被编译器优化掉时返回一个位置为-1的uniform,设置它不产生任何GLES调用
+     */
+    public Uniform uniform(String name) {
+        Uniform uniform = uniforms.get(name);
+        if (uniform == null) {
+            uniform = new Uniform(-1, 0, 0);
+            uniforms.put(name, uniform);
+        }
+        return uniform;
+    }
+
+    /**
+     * 按名称获取attribute的位置,不存在时为-1
+     */
+    public int attribute(String name) {
+        Integer location = attributes.get(name);
+        return location != null ? location : -1;
+    }
+
+    public int getUploadCount() {
+        return uploadCount;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    /**
+     * 数组uniform的名称带有"[0]"后缀,去掉后与声明的名称一致
+     */
+    private static String arrayName(String name) {
+        return name.endsWith("[0]") ? name.substring(0, name.length() - 3) : name;
+    }
+
+    /**
+     * 把value[offset, offset + count)与影子值比较,不同时复制到影子值中
+     *
+     * @param known 影子值是否有效,无效时总是复制
+     * @return 是否需要上传
+     */
+    static boolean update(float[] shadow, boolean known, float[] value, int offset, int count) {
+        if (known) {
+            boolean same = true;
+            for (int i = 0; i < count; i++) {
+                if (shadow[i] != value[offset + i]) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                return false;
+            }
+        }
+        System.arraycopy(value, offset, shadow, 0, count);
+        return true;
+    }
+
+    /**
+     * 程序中的一个uniform。设置值之前该程序必须是当前程序(glUseProgram)
+     */
+    public final class Uniform {
+        private final int location;
+        //GL类型,例如GL_FLOAT_MAT4
+        private final int type;
+        //数组长度,不是数组时为1
+        private final int size;
+        //最后一次上传的值
+        private final float[] floats = new float[16];
+        private int intValue;
+        //影子值是否有效：链接后第一次设置时总是上传
+        private boolean known;
+
+        Uniform(int location, int type, int size) {
+            this.location = location;
+            this.type = type;
+            this.size = size;
+        }
+
+        public int getLocation() {
+            return location;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setMat4(float[] value, int offset) {
+            if (location < 0) {
+                return;
+            }
+            if (update(floats, known, value, offset, 16)) {
+                known = true;
+                uploadCount++;
+                GLES30.glUniformMatrix4fv(location, 1, false, value, offset);
+            } else {
+                skipCount++;
+            }
+        }
+
+        public void setVec4(float[] value, int offset) {
+            if (location < 0) {
+                return;
+            }
+            if (update(floats, known, value, offset, 4)) {
+                known = true;
+                uploadCount++;
+                GLES30.glUniform4fv(location, 1, value, offset);
+            } else {
+                skipCount++;
+            }
+        }
+
+        public void setVec4(float x, float y, float z, float w) {
+            if (location < 0) {
+                return;
+            }
+            if (!known || floats[0] != x || floats[1] != y || floats[2] != z || floats[3] != w) {
+                floats[0] = x;
+                floats[1] = y;
+                floats[2] = z;
+                floats[3] = w;
+                known = true;
+                uploadCount++;
+                GLES30.glUniform4f(location, x, y, z, w);
+            } else {
+                skipCount++;
+            }
+        }
+
+        public void setVec3(float x, float y, float z) {
+            if (location < 0) {
+                return;
+            }
+            if (!known || floats[0] != x || floats[1] != y || floats[2] != z) {
+                floats[0] = x;
+                floats[1] = y;
+                floats[2] = z;
+                known = true;
+                uploadCount++;
+                GLES30.glUniform3f(location, x, y, z);
+            } else {
+                skipCount++;
+            }
+        }
+
+        public void setFloat(float value) {
+            if (location < 0) {
+                return;
+            }
+            if (!known || floats[0] != value) {
+                floats[0] = value;
+                known = true;
+                uploadCount++;
+                GLES30.glUniform1f(location, value);
+            } else {
+                skipCount++;
+            }
+        }
+
+        /**
+         * 整数与采样器
+         */
+        public void setInt(int value) {
+            if (location < 0) {
+                return;
+            }
+            if (!known || intValue != value) {
+                intValue = value;
+                known = true;
+                uploadCount++;
+                GLES30.glUniform1i(location, value);
+            } else {
+                skipCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.trans.opengles.shader;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.trans.opengles.MyApplication;
+import com.trans.opengles.utils.ResReadUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Tom灿
+ * @description: 进程级着色器源码仓库，按资源id缓存res/raw中的GLSL源码，每个资源只读取一次。
+ * 进程启动时可在后台线程{@link #preload(int...)}，GL线程创建程序时直接取到字符串；
+ * 同一资源正在被其他线程读取时等待其完成，不会重复读取。
+ * 带宏的变体经{@link ShaderPreprocessor}展开#include(按res/raw中的资源名查找)后同样缓存
+ * @date :2026/10/18 21:20
+ */
+public final class ShaderSources {
+    private static final String TAG = "ShaderSources";
+
+    private static final ShaderSources INSTANCE = new ShaderSources();
+
+    private final ConcurrentHashMap<Integer, String> sources = new ConcurrentHashMap<>();
+    //预处理后的源码：资源id + 排序后的宏 -> 规范化源码
+    private final ConcurrentHashMap<String, String> variants = new ConcurrentHashMap<>();
+    private final ShaderPreprocessor preprocessor = new ShaderPreprocessor(this::getIncluded);
+
+    private ShaderSources() {
+    }
+
+    public static ShaderSources getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取着色器源码,未缓存时读取资源,可在任意线程调用
+     *
+     * @throws android.content.res.Resources.NotFoundException 资源不存在
+     * @throws java.io.UncheckedIOException                    读取失败
+     */
+    public String get(int resourceId) {
+        return sources.computeIfAbsent(resourceId, ResReadUtils::readResource);
+    }
+
+    /**
+     * 获取预处理后的着色器源码,可在任意线程调用
+     *
+     * @param defines 注入的宏,见{@link ShaderVariants}
+     */
+    public String get(int resourceId, String... defines) {
+        String[] sorted = defines.clone();
+        Arrays.sort(sorted);
+        String key = resourceId + Arrays.toString(sorted);
+        return variants.computeIfAbsent(key, k -> preprocessor.process(get(resourceId), sorted));
+    }
+
+    /**
+     * 被#include的源码,按res/raw中的资源名查找
+     */
+    private String getIncluded(String name) {
+        Context context = MyApplication.application;
+        int resourceId = context.getResources().getIdentifier(name, "raw", context.getPackageName());
+        return resourceId != 0 ? get(resourceId) : null;
+    }
+
+    /**
+     * 预先读取一组资源,在后台线程调用。读取失败只记录日志,使用时由{@link #get(int)}再次读取并抛出异常
+     */
+    public void preload(int... resourceIds) {
+        long start = System.nanoTime();
+        for (int resourceId : resourceIds) {
+            try {
+                get(resourceId);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "preload 0x" + Integer.toHexString(resourceId) + " failed", e);
+            }
+        }
+        Log.d(TAG, resourceIds.length + " shaders preloaded in " + (System.nanoTime() - start) / 1000 + "us");
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        sources.clear();
+        variants.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package com.trans.opengles.shader;
+
+/**
+ * @author Tom灿
+ * @description: 着色器变体的宏名，通过{@link ProgramCache#getProgram(int, int, String...)}注入，
+ * 同一份源码按宏组合编译出不同的程序
+ * @date :2026/10/18 21:50
+ */
+public final class ShaderVariants {
+    //按纹理坐标采样纹理,否则使用顶点颜色
+    public static final String WITH_TEXTURE = "WITH_TEXTURE";
+    //实例化绘制：每实例的模型矩阵和颜色来自实例属性,投影*相机矩阵来自相机uniform块
+    public static final String INSTANCED = "INSTANCED";
+
+    private ShaderVariants() {
+    }
+}
@@ -0,0 +1,373 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.R;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+import com.trans.opengles.shader.ProgramCache;
+import com.trans.opengles.shader.ShaderProgram;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 即时模式的2D批量绘制：矩形、三角形、圆、线段和点(逐顶点颜色)先累积到CPU端的暂存数组，
+ * 图元类型改变、容量用尽或{@link #end()}时才整批上传到一个流式VBO/IBO并发起一次绘制调用，
+ * 成千上万个图元只需要少数几次绘制调用。
+ * 顶点为2个float位置加RGBA8颜色共12字节，索引为16位；上传时先用glBufferData(null)丢弃旧存储，
+ * 驱动可以分配新的存储而不必等待GPU读完上一批。必须在GL线程创建和使用，EGL上下文重建后重新创建
+ * @date :2026/10/19 0:40
+ */
+public final class Batch2D {
+    //默认容量：顶点个数,16位索引下不超过65535
+    public static final int DEFAULT_MAX_VERTICES = 16384;
+    //圆的默认分段数和最大分段数
+    public static final int DEFAULT_SEGMENTS = 32;
+    static final int MAX_SEGMENTS = 256;
+
+    //每个顶点的int个数：x、y的浮点位模式和颜色
+    static final int VERTEX_INTS = 3;
+    private static final VertexLayout LAYOUT = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "vPosition", VertexFormat.FLOAT2)
+            .add(VertexLayout.COLOR, "aColor", VertexFormat.UNORM8_4)
+            .build();
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private final int maxVertices;
+    private final int maxIndices;
+
+    //CPU端暂存的顶点和索引
+    private final int[] vertices;
+    private final short[] indices;
+    private int vertexCount;
+    private int indexCount;
+    //当前批次的图元类型：GL_TRIANGLES、GL_LINES或GL_POINTS
+    private int mode = GLES30.GL_TRIANGLES;
+
+    //上传用的直接缓冲,在第一次提交时分配
+    private IntBuffer vertexBuffer;
+    private ShortBuffer indexBuffer;
+
+    //GPU端对象,在第一次提交时创建
+    private ShaderProgram program;
+    private ShaderProgram.Uniform matrix;
+    private int vao;
+    private int vbo;
+    private int ibo;
+
+    //圆的单位向量表,分段数不变时重复使用
+    private final float[] cos = new float[MAX_SEGMENTS];
+    private final float[] sin = new float[MAX_SEGMENTS];
+    private int tableSegments;
+
+    //begin()之后发起的绘制调用次数和提交的图元个数
+    private int drawCount;
+    private int primitiveCount;
+
+    public Batch2D() {
+        this(DEFAULT_MAX_VERTICES);
+    }
+
+    /**
+     * @param maxVertices 一批最多的顶点个数,不超过65535
+     */
+    public Batch2D(int maxVertices) {
+        if (maxVertices < MAX_SEGMENTS + 1 || maxVertices > 0xFFFF) {
+            throw new IllegalArgumentException("maxVertices out of range: " + maxVertices);
+        }
+        this.maxVertices = maxVertices;
+        this.maxIndices = maxVertices * 3;
+        vertices = new int[maxVertices * VERTEX_INTS];
+        indices = new short[maxIndices];
+    }
+
+    /**
+     * 开始一帧的批量绘制：使用程序、上传矩阵并设置2D状态(开启混合,关闭深度测试)
+     *
+     * @param mvp 投影矩阵,例如按像素坐标的正交投影
+     */
+    public void begin(float[] mvp) {
+        if (program == null) {
+            create();
+        }
+        GlState state = GlState.getInstance();
+        state.useProgram(program.getId());
+        matrix.setMat4(mvp, 0);
+        state.setEnabled(GLES30.GL_DEPTH_TEST, false);
+        state.setEnabled(GLES30.GL_BLEND, true);
+        state.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        drawCount = 0;
+        primitiveCount = 0;
+    }
+
+    /**
+     * 提交剩余的图元,结束本帧的批量绘制
+     */
+    public void end() {
+        flush();
+    }
+
+    /**
+     * 纯色矩形
+     *
+     * @param color ARGB颜色,与android.graphics.Color相同
+     */
+    public void rect(float x, float y, float width, float height, int color) {
+        rect(x, y, width, height, color, color, color, color);
+    }
+
+    /**
+     * 四个角颜色不同的矩形,颜色顺序为(x,y)、(x+width,y)、(x+width,y+height)、(x,y+height)
+     */
+    public void rect(float x, float y, float width, float height, int c0, int c1, int c2, int c3) {
+        int base = reserve(GLES30.GL_TRIANGLES, 4, 6);
+        vertex(x, y, c0);
+        vertex(x + width, y, c1);
+        vertex(x + width, y + height, c2);
+        vertex(x, y + height, c3);
+        index(base, base + 1, base + 2);
+        index(base, base + 2, base + 3);
+        primitiveCount++;
+    }
+
+    public void triangle(float x0, float y0, float x1, float y1, float x2, float y2, int color) {
+        triangle(x0, y0, color, x1, y1, color, x2, y2, color);
+    }
+
+    /**
+     * 逐顶点颜色的三角形
+     */
+    public void triangle(float x0, float y0, int c0, float x1, float y1, int c1, float x2, float y2, int c2) {
+        int base = reserve(GLES30.GL_TRIANGLES, 3, 3);
+        vertex(x0, y0, c0);
+        vertex(x1, y1, c1);
+        vertex(x2, y2, c2);
+        index(base, base + 1, base + 2);
+        primitiveCount++;
+    }
+
+    public void circle(float cx, float cy, float radius, int color) {
+        circle(cx, cy, radius, DEFAULT_SEGMENTS, color, color);
+    }
+
+    /**
+     * 实心圆：中心点加一圈顶点组成的扇形,用三角形列表存储以便与其他图元合批
+     *
+     * @param segments    分段数,限制在3到{@link #MAX_SEGMENTS}之间
+     * @param centerColor 中心颜色
+     * @param edgeColor   边缘颜色
+     */
+    public void circle(float cx, float cy, float radius, int segments, int centerColor, int edgeColor) {
+        segments = Math.max(3, Math.min(MAX_SEGMENTS, segments));
+        buildTable(segments);
+        int base = reserve(GLES30.GL_TRIANGLES, segments + 1, segments * 3);
+        vertex(cx, cy, centerColor);
+        for (int i = 0; i < segments; i++) {
+            vertex(cx + radius * cos[i], cy + radius * sin[i], edgeColor);
+        }
+        for (int i = 0; i < segments; i++) {
+            int next = i + 1 == segments ? 0 : i + 1;
+            index(base, base + 1 + i, base + 1 + next);
+        }
+        primitiveCount++;
+    }
+
+    public void line(float x0, float y0, float x1, float y1, int color) {
+        line(x0, y0, color, x1, y1, color);
+    }
+
+    /**
+     * 线段(宽度为1像素),两端颜色可以不同
+     */
+    public void line(float x0, float y0, int c0, float x1, float y1, int c1) {
+        int base = reserve(GLES30.GL_LINES, 2, 2);
+        vertex(x0, y0, c0);
+        vertex(x1, y1, c1);
+        indices[indexCount++] = (short) base;
+        indices[indexCount++] = (short) (base + 1);
+        primitiveCount++;
+    }
+
+    /**
+     * 点,大小由顶点着色器的gl_PointSize决定
+     */
+    public void point(float x, float y, int color) {
+        int base = reserve(GLES30.GL_POINTS, 1, 1);
+        vertex(x, y, color);
+        indices[indexCount++] = (short) base;
+        primitiveCount++;
+    }
+
+    /**
+     * 把暂存的图元上传并绘制,没有图元时什么也不做
+     */
+    public void flush() {
+        if (indexCount == 0) {
+            return;
+        }
+        GlState state = GlState.getInstance();
+        state.bindVertexArray(vao);
+        state.setEnabled(GLES30.GL_PRIMITIVE_RESTART_FIXED_INDEX, false);
+
+        vertexBuffer.clear();
+        vertexBuffer.put(vertices, 0, vertexCount * VERTEX_INTS).flip();
+        state.bindBuffer(GLES30.GL_ARRAY_BUFFER, vbo);
+        //先丢弃旧存储再写入,避免等待GPU读完上一批
+        GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER, maxVertices * LAYOUT.getStride(), null,
+                GLES30.GL_STREAM_DRAW);
+        GLES30.glBufferSubData(GLES30.GL_ARRAY_BUFFER, 0, vertexCount * LAYOUT.getStride(), vertexBuffer);
+
+        indexBuffer.clear();
+        indexBuffer.put(indices, 0, indexCount).flip();
+        state.bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, ibo);
+        GLES30.glBufferData(GLES30.GL_ELEMENT_ARRAY_BUFFER, maxIndices * 2, null, GLES30.GL_STREAM_DRAW);
+        GLES30.glBufferSubData(GLES30.GL_ELEMENT_ARRAY_BUFFER, 0, indexCount * 2, indexBuffer);
+
+        GLES30.glDrawElements(mode, indexCount, GLES30.GL_UNSIGNED_SHORT, 0);
+        drawCount++;
+        vertexCount = 0;
+        indexCount = 0;
+    }
+
+    /**
+     * 释放GPU端资源
+     */
+    public void release() {
+        GlState state = GlState.getInstance();
+        if (vao != 0) {
+            state.deleteVertexArray(vao);
+            state.deleteBuffers(new int[]{vbo, ibo});
+            vao = 0;
+            vbo = 0;
+            ibo = 0;
+        }
+        program = null;
+        vertexCount = 0;
+        indexCount = 0;
+    }
+
+    /**
+     * begin()之后发起的绘制调用次数
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * begin()之后提交的图元个数
+     */
+    public int getPrimitiveCount() {
+        return primitiveCount;
+    }
+
+    int getVertexCount() {
+        return vertexCount;
+    }
+
+    int getIndexCount() {
+        return indexCount;
+    }
+
+    int getMode() {
+        return mode;
+    }
+
+    int[] getVertices() {
+        return vertices;
+    }
+
+    short[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * 为一个图元预留空间：图元类型改变或容量不足时先提交当前批次
+     *
+     * @return 图元第一个顶点的下标
+     */
+    private int reserve(int mode, int vertices, int indices) {
+        if (vertexCount > 0 && (mode != this.mode
+                || vertexCount + vertices > maxVertices || indexCount + indices > maxIndices)) {
+            flush();
+        }
+        this.mode = mode;
+        return vertexCount;
+    }
+
+    private void vertex(float x, float y, int color) {
+        int i = vertexCount++ * VERTEX_INTS;
+        vertices[i] = Float.floatToRawIntBits(x);
+        vertices[i + 1] = Float.floatToRawIntBits(y);
+        vertices[i + 2] = rgba(color, LITTLE_ENDIAN);
+    }
+
+    private void index(int a, int b, int c) {
+        indices[indexCount++] = (short) a;
+        indices[indexCount++] = (short) b;
+        indices[indexCount++] = (short) c;
+    }
+
+    private void buildTable(int segments) {
+        if (tableSegments == segments) {
+            return;
+        }
+        double step = 2 * Math.PI / segments;
+        for (int i = 0; i < segments; i++) {
+            cos[i] = (float) Math.cos(i * step);
+            sin[i] = (float) Math.sin(i * step);
+        }
+        tableSegments = segments;
+    }
+
+    /**
+     * 获取程序,创建VAO和流式VBO/IBO,属性绑定记录在VAO中
+     */
+    private void create() {
+        program = ProgramCache.getInstance().getShaderProgram(R.raw.vertex_shader, R.raw.fragment_shader);
+        matrix = program.uniform("u_Matrix");
+        int[] locations = LAYOUT.locations(program.getId());
+
+        GlState state = GlState.getInstance();
+        final int[] ids = new int[2];
+        GLES30.glGenVertexArrays(1, ids, 0);
+        vao = ids[0];
+        GLES30.glGenBuffers(2, ids, 0);
+        vbo = ids[0];
+        ibo = ids[1];
+        state.bindVertexArray(vao);
+        state.bindBuffer(GLES30.GL_ARRAY_BUFFER, vbo);
+        for (int a = 0; a < LAYOUT.size(); a++) {
+            if (locations[a] < 0) {
+                continue;
+            }
+            VertexLayout.Attribute attribute = LAYOUT.get(a);
+            VertexFormat format = attribute.getFormat();
+            GLES30.glVertexAttribPointer(locations[a], format.getSize(), format.getType(),
+                    format.isNormalized(), LAYOUT.getStride(), attribute.getOffset());
+            state.enableVertexAttribArray(locations[a]);
+        }
+        state.bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, ibo);
+
+        vertexBuffer = ByteBuffer.allocateDirect(maxVertices * LAYOUT.getStride())
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        indexBuffer = ByteBuffer.allocateDirect(maxIndices * 2)
+                .order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    /**
+     * ARGB颜色转换为内存中按R、G、B、A字节排列的int,写入本机字节序的缓冲后即为UNORM8_4格式
+     *
+     * @param littleEndian 本机是否为小端
+     */
+    static int rgba(int argb, boolean littleEndian) {
+        if (littleEndian) {
+            //字节从低到高为R、G、B、A
+            return (argb & 0xFF00FF00) | ((argb >>> 16) & 0xFF) | ((argb & 0xFF) << 16);
+        }
+        return (argb << 8) | (argb >>> 24);
+    }
+}
@@ -0,0 +1,110 @@
+package com.trans.opengles.surface;
+
+import com.trans.opengles.mesh.Bounds;
+
+/**
+ * @author Tom灿
+ * @description: 视锥：从投影*相机矩阵中直接提取6个世界空间平面(Gribb-Hartmann方法)，
+ * 裁剪坐标满足-w≤x,y,z≤w,即矩阵第4行加减前3行。平面法线朝向视锥内部并归一化，
+ * 点到平面的有符号距离小于0即在平面外。判断都是保守的：相交或无法确定时视为可见
+ * @date :2026/10/19 2:10
+ */
+public final class Frustum {
+    //左、右、下、上、近、远,每个平面(a,b,c,d)：a*x+b*y+c*z+d>=0在内部
+    static final int PLANES = 6;
+    private final float[] planes = new float[PLANES * 4];
+
+    /**
+     * 从投影*相机矩阵(列主序)提取平面
+     */
+    public void set(float[] viewProjection) {
+        for (int p = 0; p < PLANES; p++) {
+            //p=0,1取第1行,2,3取第2行,4,5取第3行；偶数为第4行加该行,奇数为减
+            int row = p / 2;
+            float sign = (p & 1) == 0 ? 1f : -1f;
+            float a = viewProjection[3] + sign * viewProjection[row];
+            float b = viewProjection[7] + sign * viewProjection[4 + row];
+            float c = viewProjection[11] + sign * viewProjection[8 + row];
+            float d = viewProjection[15] + sign * viewProjection[12 + row];
+            float length = (float) Math.sqrt(a * a + b * b + c * c);
+            if (length == 0f) {
+                //退化的平面(例如投影矩阵的近平面为0)不剔除任何物体
+                a = 0f;
+                b = 0f;
+                c = 0f;
+                d = 1f;
+            } else {
+                a /= length;
+                b /= length;
+                c /= length;
+                d /= length;
+            }
+            planes[p * 4] = a;
+            planes[p * 4 + 1] = b;
+            planes[p * 4 + 2] = c;
+            planes[p * 4 + 3] = d;
+        }
+    }
+
+    /**
+     * 世界空间中的球与视锥是否相交
+     */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        for (int p = 0; p < PLANES * 4; p += 4) {
+            if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 世界空间中的轴对齐包围盒与视锥是否相交
+     *
+     * @param ex 包围盒在x方向的半边长,ey、ez同理
+     */
+    public boolean intersectsBox(float cx, float cy, float cz, float ex, float ey, float ez) {
+        for (int p = 0; p < PLANES * 4; p += 4) {
+            float a = planes[p], b = planes[p + 1], c = planes[p + 2];
+            //包围盒在平面法线上的投影半径
+            float r = Math.abs(a) * ex + Math.abs(b) * ey + Math.abs(c) * ez;
+            if (a * cx + b * cy + c * cz + planes[p + 3] < -r) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 模型空间包围体经模型矩阵变换后是否与视锥相交：先判断包围球(半径乘以最大缩放),
+     * 通过后再判断变换后包围盒的轴对齐包围盒
+     *
+     * @param model 模型矩阵,从model[offset]开始
+     */
+    public boolean intersects(Bounds bounds, float[] model, int offset) {
+        float cx = bounds.getCenterX(), cy = bounds.getCenterY(), cz = bounds.getCenterZ();
+        float m0 = model[offset], m1 = model[offset + 1], m2 = model[offset + 2];
+        float m4 = model[offset + 4], m5 = model[offset + 5], m6 = model[offset + 6];
+        float m8 = model[offset + 8], m9 = model[offset + 9], m10 = model[offset + 10];
+        float wx = m0 * cx + m4 * cy + m8 * cz + model[offset + 12];
+        float wy = m1 * cx + m5 * cy + m9 * cz + model[offset + 13];
+        float wz = m2 * cx + m6 * cy + m10 * cz + model[offset + 14];
+        float scale = (float) Math.sqrt(Math.max(m0 * m0 + m1 * m1 + m2 * m2,
+                Math.max(m4 * m4 + m5 * m5 + m6 * m6, m8 * m8 + m9 * m9 + m10 * m10)));
+        if (!intersectsSphere(wx, wy, wz, bounds.getRadius() * scale)) {
+            return false;
+        }
+        //变换后的半边长：各轴为矩阵元素绝对值与原半边长的乘积之和
+        float ex = (bounds.getMaxX() - bounds.getMinX()) / 2;
+        float ey = (bounds.getMaxY() - bounds.getMinY()) / 2;
+        float ez = (bounds.getMaxZ() - bounds.getMinZ()) / 2;
+        return intersectsBox(wx, wy, wz,
+                Math.abs(m0) * ex + Math.abs(m4) * ey + Math.abs(m8) * ez,
+                Math.abs(m1) * ex + Math.abs(m5) * ey + Math.abs(m9) * ez,
+                Math.abs(m2) * ex + Math.abs(m6) * ey + Math.abs(m10) * ez);
+    }
+
+    float[] getPlanes() {
+        return planes;
+    }
+}
@@ -0,0 +1,364 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.mesh.Bounds;
+import com.trans.opengles.mesh.MeshData;
+import com.trans.opengles.mesh.VertexEncoder;
+import com.trans.opengles.mesh.VertexFormat;
+import com.trans.opengles.mesh.VertexLayout;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+
+/**
+ * @author Tom灿
+ * @description: GPU端网格。顶点数据在shader()阶段一次性上传到VBO/IBO(GL_STATIC_DRAW)，
+ * 属性绑定记录在ES3的VAO中，draw()阶段只需要绑定VAO并发起一次绘制调用。
+ * 带索引的三角形带绘制时开启GL_PRIMITIVE_RESTART_FIXED_INDEX,多条带可以合并为一次绘制调用。
+ * VAO绑定和开关都经过{@link GlState},绘制后不解绑,连续绘制同一网格时不再重复绑定。
+ * 大网格可以用{@link #range}划分为共享VBO/IBO/VAO的若干分块,每块有自己的包围体,分别剔除和绘制
+ * @date :2026/10/18 10:12
+ */
+public class GLMesh {
+
+    //图元类型：GL_TRIANGLES、GL_TRIANGLE_FAN等
+    private final int drawMode;
+
+    //等待上传的顶点缓冲(上传完成后释放,不再持有CPU端数据)
+    private final ArrayList<Stream> pending = new ArrayList<>();
+    private Buffer pendingIndices;
+
+    //顶点数组对象
+    private int vao;
+    //顶点缓冲对象(每个单独属性或交错缓冲一个)以及索引缓冲对象
+    private int[] vbos = new int[0];
+    private int ibo;
+
+    //顶点个数
+    private int vertexCount;
+    //索引个数以及索引类型
+    private int indexCount;
+    private int indexType;
+    //第一个索引在IBO中的位置,分块时不为0
+    private int firstIndex;
+    //模型空间包围体,为null时不剔除
+    private Bounds bounds;
+    //分块所属的网格,GPU对象由它持有
+    private GLMesh parent;
+    //已上传到GPU的字节数
+    private int byteSize;
+
+    public GLMesh(int drawMode) {
+        this.drawMode = drawMode;
+    }
+
+    /**
+     * 由CPU端网格数据创建GPU端网格(尚未上传)：按布局把各数据流量化、交错打包到一个VBO中
+     *
+     * @param data      网格数据
+     * @param layout    顶点布局
+     * @param locations 与布局中的属性一一对应的着色器属性位置,见{@link VertexLayout#locations(int)}
+     */
+    public static GLMesh from(MeshData data, VertexLayout layout, int[] locations) {
+        GLMesh mesh = new GLMesh(data.getDrawMode())
+                .vertices(layout, layout.interleave(data), locations);
+        mesh.bounds = data.getBounds();
+        if (data.getIndices() != null) {
+            mesh.indices(data.getIndices(), data.getIndexType());
+        }
+        return mesh;
+    }
+
+    /**
+     * 添加一个顶点属性
+     *
+     * @param location 属性变量的位置,小于0表示着色器中没有该属性(直接忽略)
+     * @param size     每个顶点的分量个数
+     * @param data     顶点数据
+     */
+    public GLMesh attribute(int location, int size, FloatBuffer data) {
+        if (location < 0) {
+            return this;
+        }
+        return attribute(location, VertexFormat.floats(size), data, data.remaining() / size);
+    }
+
+    /**
+     * 添加一个已编码的顶点属性
+     *
+     * @param location 属性变量的位置,小于0表示着色器中没有该属性(直接忽略)
+     * @param format   存储格式
+     * @param data     按format编码的顶点数据
+     */
+    public GLMesh attribute(int location, VertexFormat format, ByteBuffer data) {
+        if (location < 0) {
+            return this;
+        }
+        return attribute(location, format, data, data.remaining() / format.getBytes());
+    }
+
+    /**
+     * 把浮点属性量化为format后添加
+     *
+     * @param components 每个顶点的浮点分量个数
+     */
+    public GLMesh quantized(int location, int components, FloatBuffer data, VertexFormat format) {
+        if (location < 0) {
+            return this;
+        }
+        return attribute(location, format, VertexEncoder.encode(data, components, format));
+    }
+
+    /**
+     * 添加一个交错顶点缓冲,按布局设置其中每个属性
+     *
+     * @param layout    顶点布局
+     * @param data      按布局编码的顶点数据
+     * @param locations 与布局中的属性一一对应的着色器属性位置,小于0的属性不绑定
+     */
+    public GLMesh vertices(VertexLayout layout, ByteBuffer data, int[] locations) {
+        return stream(layout, locations, data, data.remaining() / layout.getStride());
+    }
+
+    private GLMesh attribute(int location, VertexFormat format, Buffer data, int count) {
+        return stream(VertexLayout.of(format), new int[]{location}, data, count);
+    }
+
+    private GLMesh stream(VertexLayout layout, int[] locations, Buffer data, int count) {
+        if (pending.isEmpty()) {
+            vertexCount = count;
+        }
+        pending.add(new Stream(layout, locations, data, count * layout.getStride()));
+        return this;
+    }
+
+    /**
+     * 设置16位索引
+     */
+    public GLMesh indices(ShortBuffer data) {
+        return indices(data, GLES30.GL_UNSIGNED_SHORT);
+    }
+
+    /**
+     * 设置32位索引
+     */
+    public GLMesh indices(IntBuffer data) {
+        return indices(data, GLES30.GL_UNSIGNED_INT);
+    }
+
+    /**
+     * 设置索引
+     *
+     * @param data 索引数据
+     * @param type GL_UNSIGNED_SHORT或GL_UNSIGNED_INT
+     */
+    public GLMesh indices(Buffer data, int type) {
+        pendingIndices = data;
+        indexCount = data.remaining();
+        indexType = type;
+        return this;
+    }
+
+    /**
+     * 上传数据到GPU，必须在GL线程(shader()阶段)调用。
+     * EGL上下文重建后旧的对象已随上下文销毁,这里直接生成新的对象而不去删除旧的id
+     */
+    public GLMesh upload() {
+        GlState state = GlState.getInstance();
+        final int[] ids = new int[1];
+        GLES30.glGenVertexArrays(1, ids, 0);
+        vao = ids[0];
+        state.bindVertexArray(vao);
+
+        byteSize = 0;
+        vbos = new int[pending.size()];
+        if (vbos.length > 0) {
+            GLES30.glGenBuffers(vbos.length, vbos, 0);
+        }
+        for (int i = 0; i < vbos.length; i++) {
+            Stream stream = pending.get(i);
+            state.bindBuffer(GLES30.GL_ARRAY_BUFFER, vbos[i]);
+            GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER, stream.bytes,
+                    stream.data, GLES30.GL_STATIC_DRAW);
+            byteSize += stream.bytes;
+            VertexLayout layout = stream.layout;
+            for (int a = 0; a < layout.size(); a++) {
+                int location = stream.locations[a];
+                if (location < 0) {
+                    continue;
+                }
+                //偏移量是属性在当前绑定的VBO中的字节偏移,而不是客户端内存地址
+                VertexLayout.Attribute attribute = layout.get(a);
+                VertexFormat format = attribute.getFormat();
+                GLES30.glVertexAttribPointer(location, format.getSize(), format.getType(),
+                        format.isNormalized(), layout.getStride(), attribute.getOffset());
+                state.enableVertexAttribArray(location);
+            }
+        }
+
+        if (pendingIndices != null) {
+            GLES30.glGenBuffers(1, ids, 0);
+            ibo = ids[0];
+            //索引缓冲的绑定状态记录在VAO中
+            state.bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, ibo);
+            int bytes = indexCount * indexBytes();
+            GLES30.glBufferData(GLES30.GL_ELEMENT_ARRAY_BUFFER, bytes, pendingIndices,
+                    GLES30.GL_STATIC_DRAW);
+            byteSize += bytes;
+        }
+
+        //先解绑VAO,避免之后的索引缓冲绑定被记录到这个VAO中
+        state.bindVertexArray(0);
+
+        pending.clear();
+        pendingIndices = null;
+        return this;
+    }
+
+    /**
+     * 绘制整个网格
+     */
+    public void draw() {
+        if (indexCount > 0) {
+            GlState state = GlState.getInstance();
+            state.bindVertexArray(vao);
+            //索引类型的最大值作为重启索引；只对三角形带开启,不影响顶点数为65536的short索引网格
+            state.setEnabled(GLES30.GL_PRIMITIVE_RESTART_FIXED_INDEX, drawMode == GLES30.GL_TRIANGLE_STRIP);
+            GLES30.glDrawElements(drawMode, indexCount, indexType, firstIndex * indexBytes());
+        } else {
+            draw(0, vertexCount);
+        }
+    }
+
+    /**
+     * 网格中一段连续索引组成的分块,与本网格共享GPU对象,用于分块剔除。
+     * 必须在upload()之后调用。三角形带分块的首尾不能是重启索引,分块之间需要重启索引分隔
+     *
+     * @param first  第一个索引
+     * @param count  索引个数
+     * @param bounds 分块的包围体
+     */
+    public GLMesh range(int first, int count, Bounds bounds) {
+        if (first < 0 || count < 0 || first + count > indexCount) {
+            throw new IndexOutOfBoundsException("range " + first + "+" + count + " of " + indexCount);
+        }
+        GLMesh chunk = new GLMesh(drawMode);
+        chunk.parent = parent != null ? parent : this;
+        chunk.vao = vao;
+        chunk.vertexCount = vertexCount;
+        chunk.indexType = indexType;
+        chunk.firstIndex = firstIndex + first;
+        chunk.indexCount = count;
+        chunk.bounds = bounds;
+        return chunk;
+    }
+
+    /**
+     * 绘制网格中的一段连续顶点
+     *
+     * @param first 起始顶点
+     * @param count 顶点个数
+     */
+    public void draw(int first, int count) {
+        GlState.getInstance().bindVertexArray(vao);
+        GLES30.glDrawArrays(drawMode, first, count);
+    }
+
+    /**
+     * 实例化绘制整个网格：每个实例一份网格,模型矩阵和颜色来自instances,只需一次绘制调用。
+     * 着色器需使用{@link com.trans.opengles.shader.ShaderVariants#INSTANCED}变体
+     */
+    public void drawInstanced(InstanceBuffer instances) {
+        int instanceCount = instances.getCount();
+        if (instanceCount == 0) {
+            return;
+        }
+        GlState state = GlState.getInstance();
+        state.bindVertexArray(vao);
+        instances.bind(state);
+        if (indexCount > 0) {
+            state.setEnabled(GLES30.GL_PRIMITIVE_RESTART_FIXED_INDEX, drawMode == GLES30.GL_TRIANGLE_STRIP);
+            GLES30.glDrawElementsInstanced(drawMode, indexCount, indexType,
+                    firstIndex * indexBytes(), instanceCount);
+        } else {
+            GLES30.glDrawArraysInstanced(drawMode, 0, vertexCount, instanceCount);
+        }
+    }
+
+    /**
+     * 绑定VAO,由调用方自行发起绘制调用(例如需要切换图元类型时)
+     */
+    public void bind() {
+        GlState.getInstance().bindVertexArray(vao);
+    }
+
+    /**
+     * 解绑VAO
+     */
+    public void unbind() {
+        GlState.getInstance().bindVertexArray(0);
+    }
+
+    /**
+     * 释放GPU端资源
+     */
+    public void release() {
+        if (parent != null) {
+            //分块不持有GPU对象
+            return;
+        }
+        GlState state = GlState.getInstance();
+        if (vao != 0) {
+            state.deleteVertexArray(vao);
+            vao = 0;
+        }
+        if (vbos.length > 0) {
+            state.deleteBuffers(vbos);
+            vbos = new int[0];
+        }
+        if (ibo != 0) {
+            state.deleteBuffers(new int[]{ibo});
+            ibo = 0;
+        }
+        byteSize = 0;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * 模型空间包围体,未知时为null
+     */
+    public Bounds getBounds() {
+        return bounds;
+    }
+
+    private int indexBytes() {
+        return indexType == GLES30.GL_UNSIGNED_SHORT ? 2 : 4;
+    }
+
+    public int getByteSize() {
+        return byteSize;
+    }
+
+    private static class Stream {
+        final VertexLayout layout;
+        final int[] locations;
+        final Buffer data;
+        //数据的字节数
+        final int bytes;
+
+        Stream(VertexLayout layout, int[] locations, Buffer data, int bytes) {
+            this.layout = layout;
+            this.locations = locations;
+            this.data = data;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: GL状态跟踪：保存当前程序、各纹理单元的纹理、缓冲、VAO、启用的顶点属性、
+ * 混合/深度/剔除状态和视口的影子值，与影子值相同的设置直接过滤，只把真正的变化交给GLES30。
+ * 影子值只有在所有状态修改都经过这里时才可靠，因此同一上下文中不要再直接调用对应的GLES函数。
+ * 只能在GL线程使用；新的EGL上下文创建后调用{@link #reset()}，所有状态变为未知，下一次设置必定发出
+ * @date :2026/10/18 23:30
+ */
+public final class GlState {
+    //影子值未知
+    private static final int UNKNOWN = -1;
+    //跟踪的纹理单元和顶点属性个数,ES3至少支持16个,超出范围的设置不过滤
+    static final int MAX_TEXTURE_UNITS = 16;
+    static final int MAX_VERTEX_ATTRIBS = 16;
+
+    //跟踪的纹理目标
+    private static final int[] TEXTURE_TARGETS = {
+            GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_CUBE_MAP, GLES30.GL_TEXTURE_3D, GLES30.GL_TEXTURE_2D_ARRAY
+    };
+    //跟踪的缓冲目标,GL_ELEMENT_ARRAY_BUFFER的绑定属于VAO
+    private static final int[] BUFFER_TARGETS = {
+            GLES30.GL_ARRAY_BUFFER, GLES30.GL_ELEMENT_ARRAY_BUFFER, GLES30.GL_UNIFORM_BUFFER,
+            GLES30.GL_COPY_READ_BUFFER, GLES30.GL_COPY_WRITE_BUFFER,
+            GLES30.GL_PIXEL_PACK_BUFFER, GLES30.GL_PIXEL_UNPACK_BUFFER
+    };
+    //跟踪的开关
+    private static final int[] CAPABILITIES = {
+            GLES30.GL_BLEND, GLES30.GL_CULL_FACE, GLES30.GL_DEPTH_TEST, GLES30.GL_DITHER,
+            GLES30.GL_POLYGON_OFFSET_FILL, GLES30.GL_PRIMITIVE_RESTART_FIXED_INDEX,
+            GLES30.GL_RASTERIZER_DISCARD, GLES30.GL_SAMPLE_ALPHA_TO_COVERAGE,
+            GLES30.GL_SAMPLE_COVERAGE, GLES30.GL_SCISSOR_TEST, GLES30.GL_STENCIL_TEST
+    };
+
+    private static final GlState INSTANCE = new GlState();
+
+    private int program;
+    private int activeUnit;
+    //[纹理单元 * 纹理目标个数 + 目标下标] -> 纹理
+    private final int[] textures = new int[MAX_TEXTURE_UNITS * TEXTURE_TARGETS.length];
+    private final int[] buffers = new int[BUFFER_TARGETS.length];
+    private int vertexArray;
+    //当前VAO中各属性是否启用：1启用,0禁用
+    private final int[] attribs = new int[MAX_VERTEX_ATTRIBS];
+    private final int[] capabilities = new int[CAPABILITIES.length];
+    //srcRGB, dstRGB, srcAlpha, dstAlpha
+    private final int[] blendFunc = new int[4];
+    private int depthFunc;
+    private int depthMask;
+    private int cullFace;
+    private int frontFace;
+    private final int[] viewport = new int[4];
+
+    //发出和被过滤的调用次数
+    private long issued;
+    private long filtered;
+
+    private GlState() {
+        reset();
+    }
+
+    public static GlState getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 所有影子值变为未知,在新的EGL上下文中或外部代码修改了状态之后调用
+     */
+    public void reset() {
+        program = UNKNOWN;
+        activeUnit = UNKNOWN;
+        Arrays.fill(textures, UNKNOWN);
+        Arrays.fill(buffers, UNKNOWN);
+        vertexArray = UNKNOWN;
+        Arrays.fill(attribs, UNKNOWN);
+        Arrays.fill(capabilities, UNKNOWN);
+        Arrays.fill(blendFunc, UNKNOWN);
+        depthFunc = UNKNOWN;
+        depthMask = UNKNOWN;
+        cullFace = UNKNOWN;
+        frontFace = UNKNOWN;
+        Arrays.fill(viewport, UNKNOWN);
+    }
+
+    public void useProgram(int program) {
+        if (this.program == program) {
+            filtered++;
+            return;
+        }
+        this.program = program;
+        issued++;
+        GLES30.glUseProgram(program);
+    }
+
+    /**
+     * 选择活动纹理单元
+     *
+     * @param unit 纹理单元序号,从0开始(不是GL_TEXTURE0)
+     */
+    public void activeTexture(int unit) {
+        if (activeUnit == unit) {
+            filtered++;
+            return;
+        }
+        activeUnit = unit;
+        issued++;
+        GLES30.glActiveTexture(GLES30.GL_TEXTURE0 + unit);
+    }
+
+    /**
+     * 把纹理绑定到指定纹理单元。之后活动纹理单元总是unit,随后的glTexParameter等作用于这个纹理
+     *
+     * @param unit 纹理单元序号,从0开始
+     */
+    public void bindTexture(int unit, int target, int texture) {
+        activeTexture(unit);
+        int slot = indexOf(TEXTURE_TARGETS, target);
+        if (slot >= 0 && unit < MAX_TEXTURE_UNITS) {
+            int index = unit * TEXTURE_TARGETS.length + slot;
+            if (textures[index] == texture) {
+                filtered++;
+                return;
+            }
+            textures[index] = texture;
+        }
+        issued++;
+        GLES30.glBindTexture(target, texture);
+    }
+
+    /**
+     * 把纹理绑定到当前活动的纹理单元
+     */
+    public void bindTexture(int target, int texture) {
+        bindTexture(activeUnit == UNKNOWN ? 0 : activeUnit, target, texture);
+    }
+
+    /**
+     * 删除纹理,绑定着它的纹理单元恢复为0
+     */
+    public void deleteTexture(int texture) {
+        for (int i = 0; i < textures.length; i++) {
+            if (textures[i] == texture) {
+                textures[i] = 0;
+            }
+        }
+        issued++;
+        GLES30.glDeleteTextures(1, new int[]{texture}, 0);
+    }
+
+    public void bindBuffer(int target, int buffer) {
+        int slot = indexOf(BUFFER_TARGETS, target);
+        if (slot >= 0) {
+            if (buffers[slot] == buffer) {
+                filtered++;
+                return;
+            }
+            buffers[slot] = buffer;
+        }
+        issued++;
+        GLES30.glBindBuffer(target, buffer);
+    }
+
+    /**
+     * 绑定到索引绑定点,同时也会改变target的通用绑定
+     */
+    public void bindBufferBase(int target, int index, int buffer) {
+        int slot = indexOf(BUFFER_TARGETS, target);
+        if (slot >= 0) {
+            buffers[slot] = buffer;
+        }
+        issued++;
+        GLES30.glBindBufferBase(target, index, buffer);
+    }
+
+    /**
+     * 删除缓冲,绑定着它的目标恢复为0
+     */
+    public void deleteBuffers(int[] ids) {
+        for (int id : ids) {
+            for (int i = 0; i < buffers.length; i++) {
+                if (buffers[i] == id) {
+                    buffers[i] = 0;
+                }
+            }
+        }
+        issued++;
+        GLES30.glDeleteBuffers(ids.length, ids, 0);
+    }
+
+    /**
+     * 绑定VAO。索引缓冲和顶点属性的启用状态属于VAO,切换后变为未知
+     */
+    public void bindVertexArray(int vertexArray) {
+        if (this.vertexArray == vertexArray) {
+            filtered++;
+            return;
+        }
+        this.vertexArray = vertexArray;
+        buffers[indexOf(BUFFER_TARGETS, GLES30.GL_ELEMENT_ARRAY_BUFFER)] = UNKNOWN;
+        Arrays.fill(attribs, UNKNOWN);
+        issued++;
+        GLES30.glBindVertexArray(vertexArray);
+    }
+
+    /**
+     * 删除VAO,正在使用时绑定恢复为0
+     */
+    public void deleteVertexArray(int vertexArray) {
+        if (this.vertexArray == vertexArray) {
+            this.vertexArray = 0;
+            buffers[indexOf(BUFFER_TARGETS, GLES30.GL_ELEMENT_ARRAY_BUFFER)] = UNKNOWN;
+            Arrays.fill(attribs, UNKNOWN);
+        }
+        issued++;
+        GLES30.glDeleteVertexArrays(1, new int[]{vertexArray}, 0);
+    }
+
+    public void enableVertexAttribArray(int location) {
+        setVertexAttribArray(location, 1);
+    }
+
+    public void disableVertexAttribArray(int location) {
+        setVertexAttribArray(location, 0);
+    }
+
+    private void setVertexAttribArray(int location, int enabled) {
+        if (location < 0) {
+            return;
+        }
+        if (location < MAX_VERTEX_ATTRIBS) {
+            if (attribs[location] == enabled) {
+                filtered++;
+                return;
+            }
+            attribs[location] = enabled;
+        }
+        issued++;
+        if (enabled == 1) {
+            GLES30.glEnableVertexAttribArray(location);
+        } else {
+            GLES30.glDisableVertexAttribArray(location);
+        }
+    }
+
+    /**
+     * glEnable/glDisable
+     */
+    public void setEnabled(int capability, boolean enabled) {
+        int slot = indexOf(CAPABILITIES, capability);
+        int value = enabled ? 1 : 0;
+        if (slot >= 0) {
+            if (capabilities[slot] == value) {
+                filtered++;
+                return;
+            }
+            capabilities[slot] = value;
+        }
+        issued++;
+        if (enabled) {
+            GLES30.glEnable(capability);
+        } else {
+            GLES30.glDisable(capability);
+        }
+    }
+
+    public void blendFunc(int src, int dst) {
+        blendFuncSeparate(src, dst, src, dst);
+    }
+
+    public void blendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        if (blendFunc[0] == srcRGB && blendFunc[1] == dstRGB
+                && blendFunc[2] == srcAlpha && blendFunc[3] == dstAlpha) {
+            filtered++;
+            return;
+        }
+        blendFunc[0] = srcRGB;
+        blendFunc[1] = dstRGB;
+        blendFunc[2] = srcAlpha;
+        blendFunc[3] = dstAlpha;
+        issued++;
+        GLES30.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+    }
+
+    public void depthFunc(int func) {
+        if (depthFunc == func) {
+            filtered++;
+            return;
+        }
+        depthFunc = func;
+        issued++;
+        GLES30.glDepthFunc(func);
+    }
+
+    public void depthMask(boolean flag) {
+        int value = flag ? 1 : 0;
+        if (depthMask == value) {
+            filtered++;
+            return;
+        }
+        depthMask = value;
+        issued++;
+        GLES30.glDepthMask(flag);
+    }
+
+    public void cullFace(int mode) {
+        if (cullFace == mode) {
+            filtered++;
+            return;
+        }
+        cullFace = mode;
+        issued++;
+        GLES30.glCullFace(mode);
+    }
+
+    public void frontFace(int mode) {
+        if (frontFace == mode) {
+            filtered++;
+            return;
+        }
+        frontFace = mode;
+        issued++;
+        GLES30.glFrontFace(mode);
+    }
+
+    public void viewport(int x, int y, int width, int height) {
+        if (viewport[0] == x && viewport[1] == y && viewport[2] == width && viewport[3] == height) {
+            filtered++;
+            return;
+        }
+        viewport[0] = x;
+        viewport[1] = y;
+        viewport[2] = width;
+        viewport[3] = height;
+        issued++;
+        GLES30.glViewport(x, y, width, height);
+    }
+
+    /**
+     * 发出的状态调用次数
+     */
+    public long getIssuedCount() {
+        return issued;
+    }
+
+    /**
+     * 因与当前状态相同而被过滤的调用次数
+     */
+    public long getFilteredCount() {
+        return filtered;
+    }
+
+    public void resetCounters() {
+        issued = 0;
+        filtered = 0;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
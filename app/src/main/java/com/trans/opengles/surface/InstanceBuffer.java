@@ -0,0 +1,154 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 实例化绘制的每实例数据：模型矩阵(16个float,列主序)和RGBA颜色(4个float)紧密排列在一个float数组中，
+ * 修改后在下一次绘制时整体上传到一个VBO。{@link GLMesh#drawInstanced(InstanceBuffer)}把它作为
+ * 除数为1的顶点属性挂到网格的VAO上，同一网格的所有实例只需一次绘制调用。
+ * 属性位置与res/raw/include_transform.glsl中INSTANCED变体的声明一致。必须在GL线程创建和使用，EGL上下文重建后重新创建
+ * @date :2026/10/19 1:20
+ */
+public final class InstanceBuffer {
+    //实例属性的位置：mat4占用连续4个位置
+    public static final int MODEL_LOCATION = 4;
+    public static final int COLOR_LOCATION = 8;
+    //每个实例的float个数和字节数
+    public static final int FLOATS_PER_INSTANCE = 20;
+    static final int COLOR_OFFSET = 16;
+    private static final int STRIDE = FLOATS_PER_INSTANCE * 4;
+
+    private float[] data;
+    private int count;
+    //CPU端数据在上次上传后是否改变
+    private boolean dirty;
+
+    private FloatBuffer buffer;
+    private int vbo;
+    //VBO已分配的实例个数
+    private int uploadedCapacity;
+
+    /**
+     * @param capacity 初始容量(实例个数),不够时自动扩容
+     */
+    public InstanceBuffer(int capacity) {
+        data = new float[Math.max(1, capacity) * FLOATS_PER_INSTANCE];
+    }
+
+    /**
+     * 清空所有实例
+     */
+    public void clear() {
+        count = 0;
+        dirty = true;
+    }
+
+    /**
+     * 添加一个实例
+     *
+     * @param model  模型矩阵,从model[offset]开始
+     * @param offset 偏移
+     * @return 实例下标
+     */
+    public int add(float[] model, int offset, float r, float g, float b, float a) {
+        if (count * FLOATS_PER_INSTANCE == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        int index = count++;
+        set(index, model, offset, r, g, b, a);
+        return index;
+    }
+
+    /**
+     * 修改一个实例的模型矩阵和颜色
+     */
+    public void set(int index, float[] model, int offset, float r, float g, float b, float a) {
+        pack(data, index, model, offset, r, g, b, a);
+        dirty = true;
+    }
+
+    /**
+     * 只修改一个实例的模型矩阵
+     */
+    public void setModel(int index, float[] model, int offset) {
+        System.arraycopy(model, offset, data, index * FLOATS_PER_INSTANCE, 16);
+        dirty = true;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 上传改变了的数据,并在当前绑定的VAO上设置实例属性。由{@link GLMesh}在绑定VAO之后调用
+     */
+    void bind(GlState state) {
+        if (vbo == 0) {
+            final int[] ids = new int[1];
+            GLES30.glGenBuffers(1, ids, 0);
+            vbo = ids[0];
+        }
+        state.bindBuffer(GLES30.GL_ARRAY_BUFFER, vbo);
+        if (dirty) {
+            upload();
+            dirty = false;
+        }
+        //属性指针和除数是VAO的状态,同一网格可能与不同的实例缓冲搭配,每次绘制都重新设置
+        for (int column = 0; column < 4; column++) {
+            int location = MODEL_LOCATION + column;
+            GLES30.glVertexAttribPointer(location, 4, GLES30.GL_FLOAT, false, STRIDE, column * 16);
+            GLES30.glVertexAttribDivisor(location, 1);
+            state.enableVertexAttribArray(location);
+        }
+        GLES30.glVertexAttribPointer(COLOR_LOCATION, 4, GLES30.GL_FLOAT, false, STRIDE, COLOR_OFFSET * 4);
+        GLES30.glVertexAttribDivisor(COLOR_LOCATION, 1);
+        state.enableVertexAttribArray(COLOR_LOCATION);
+    }
+
+    private void upload() {
+        int floats = count * FLOATS_PER_INSTANCE;
+        if (buffer == null || buffer.capacity() < floats) {
+            buffer = ByteBuffer.allocateDirect(data.length * 4)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+        buffer.clear();
+        buffer.put(data, 0, floats).flip();
+        int capacity = data.length / FLOATS_PER_INSTANCE;
+        if (capacity != uploadedCapacity) {
+            //容量变化时重新分配存储
+            GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER, capacity * STRIDE, null, GLES30.GL_DYNAMIC_DRAW);
+            uploadedCapacity = capacity;
+        }
+        GLES30.glBufferSubData(GLES30.GL_ARRAY_BUFFER, 0, floats * 4, buffer);
+    }
+
+    /**
+     * 释放GPU端资源
+     */
+    public void release() {
+        if (vbo != 0) {
+            GlState.getInstance().deleteBuffers(new int[]{vbo});
+            vbo = 0;
+            uploadedCapacity = 0;
+            dirty = true;
+        }
+    }
+
+    /**
+     * 把一个实例写入data：16个float的模型矩阵后跟RGBA颜色
+     */
+    static void pack(float[] data, int index, float[] model, int offset, float r, float g, float b, float a) {
+        int base = index * FLOATS_PER_INSTANCE;
+        System.arraycopy(model, offset, data, base, 16);
+        data[base + COLOR_OFFSET] = r;
+        data[base + COLOR_OFFSET + 1] = g;
+        data[base + COLOR_OFFSET + 2] = b;
+        data[base + COLOR_OFFSET + 3] = a;
+    }
+}
@@ -0,0 +1,54 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.shader.ShaderProgram;
+
+/**
+ * @author Tom灿
+ * @description: 绘制用的材质：着色器程序、纹理(单元0)和接收MVP矩阵的uniform。
+ * 由{@link RenderQueue}按程序、纹理分组后绑定，状态变化经过{@link GlState}过滤
+ * @date :2026/10/19 0:10
+ */
+public final class Material {
+    private final ShaderProgram program;
+    //GL_TEXTURE_2D纹理,0表示不使用纹理
+    private final int texture;
+    //投影*相机*模型矩阵
+    private final ShaderProgram.Uniform matrix;
+
+    public Material(ShaderProgram program, int texture) {
+        this(program, texture, "u_Matrix");
+    }
+
+    /**
+     * @param matrixUniform 接收MVP矩阵的uniform名称
+     */
+    public Material(ShaderProgram program, int texture, String matrixUniform) {
+        this.program = program;
+        this.texture = texture;
+        this.matrix = program.uniform(matrixUniform);
+    }
+
+    public ShaderProgram getProgram() {
+        return program;
+    }
+
+    public int getTexture() {
+        return texture;
+    }
+
+    public ShaderProgram.Uniform getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * 使用程序并绑定纹理
+     */
+    void bind(GlState state) {
+        state.useProgram(program.getId());
+        if (texture != 0) {
+            state.bindTexture(0, GLES30.GL_TEXTURE_2D, texture);
+        }
+    }
+}
@@ -3,6 +3,10 @@ package com.trans.opengles.surface;
 import android.opengl.GLES20;
 import android.opengl.GLSurfaceView;
 
+import com.trans.opengles.mesh.MeshCache;
+import com.trans.opengles.shader.CameraBuffer;
+import com.trans.opengles.shader.ProgramCache;
+
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
@@ -20,7 +24,16 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
 
     @Override
     public void onSurfaceCreated(GL10 gl, EGLConfig config) {
+        // 新的EGL上下文,GL状态的影子值全部作废
+        GlState.getInstance().reset();
+        RenderQueue.getInstance().reset();
+        // 旧上下文中的GPU对象已销毁,缓存的句柄作废
+        MeshCache.getInstance().invalidateGpu();
+        ProgramCache.getInstance().invalidateGpu();
+        CameraBuffer.getInstance().invalidateGpu();
         render.shader();
+        //程序都已链接,删除编译好的着色器对象
+        ProgramCache.getInstance().releaseShaders();
     }
 
     @Override
@@ -31,7 +44,11 @@ public class MyGLRenderer implements GLSurfaceView.Renderer {
 
     @Override
     public void onDrawFrame(GL10 gl) {
+        // 每帧上传一次共享的相机uniform块,之后所有程序直接读取
+        CameraBuffer.getInstance().update();
         render.draw();
+        // 执行本帧提交的绘制包：按排序键排序后绘制
+        RenderQueue.getInstance().flush();
     }
 
 
@@ -25,8 +25,8 @@ public class MyGLSurfaceView extends GLSurfaceView {
         //  To allow the triangle to rotate automatically, this line is commented out: 为了让三角形自动旋转，这一行被注释掉了(启动连续渲染):
 //        setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
 
-        // Create an OpenGL ES 2.0 context
-        setEGLContextClientVersion(2);
+        // Create an OpenGL ES 3.0 context (VAO等ES3特性需要3.0上下文)
+        setEGLContextClientVersion(3);
 
         renderer = new MyGLRenderer(render);
 
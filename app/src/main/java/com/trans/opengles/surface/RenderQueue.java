@@ -0,0 +1,294 @@
+package com.trans.opengles.surface;
+
+import android.opengl.GLES30;
+
+import com.trans.opengles.mesh.Bounds;
+import com.trans.opengles.shader.CameraBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * @author Tom灿
+ * @description: 绘制命令队列。Render在draw()中不直接发出GL调用，而是提交紧凑的绘制包
+ * (排序键、网格句柄、材质句柄、矩阵槽位)，全部存放在基本类型数组中；
+ * 渲染器在draw()之后{@link #flush()}：按64位排序键基数排序后依次执行。
+ * 排序键从高到低为：通道、深度桶、程序、纹理、网格。不透明物体由近到远绘制，尽早被深度测试拒绝；
+ * 透明物体由远到近；同一深度桶内相同程序、纹理的绘制相邻，状态切换最少。
+ * 提交时先用网格的包围体对相机视锥做剔除，视锥外的物体不进入队列
+ * @date :2026/10/19 0:20
+ */
+public final class RenderQueue {
+    //绘制通道：不透明、透明(混合,不写深度)、叠加层(不做深度测试)
+    public static final int PASS_OPAQUE = 0;
+    public static final int PASS_TRANSPARENT = 1;
+    public static final int PASS_OVERLAY = 2;
+
+    //排序键各字段的位置：通道4位、深度桶16位、程序12位、纹理12位、网格16位,最高4位为0
+    static final int PASS_SHIFT = 56;
+    static final int DEPTH_SHIFT = 40;
+    static final int PROGRAM_SHIFT = 28;
+    static final int TEXTURE_SHIFT = 16;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final RenderQueue INSTANCE = new RenderQueue();
+
+    //句柄 -> 网格/材质,在新的EGL上下文中清空
+    private final ArrayList<GLMesh> meshes = new ArrayList<>();
+    private final ArrayList<Material> materials = new ArrayList<>();
+
+    //绘制包,下标即矩阵槽位
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] meshIds = new int[INITIAL_CAPACITY];
+    private int[] materialIds = new int[INITIAL_CAPACITY];
+    private float[] matrices = new float[INITIAL_CAPACITY * 16];
+    private int count;
+
+    //排序用的缓冲：排序后的键和绘制包下标
+    private long[] sortKeys = new long[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private long[] tmpKeys = new long[INITIAL_CAPACITY];
+    private int[] tmpOrder = new int[INITIAL_CAPACITY];
+    private final int[] histogram = new int[256];
+
+    private final Transform transform = new Transform();
+
+    //上一帧执行的绘制包个数
+    private int lastCount;
+    //本帧和上一帧被视锥剔除的提交个数
+    private int culled;
+    private int lastCulled;
+
+    private RenderQueue() {
+    }
+
+    public static RenderQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 清空句柄和未执行的绘制包,在新的EGL上下文中Render创建资源之前调用
+     */
+    public void reset() {
+        meshes.clear();
+        materials.clear();
+        count = 0;
+        culled = 0;
+    }
+
+    /**
+     * 注册网格,返回网格句柄
+     */
+    public int registerMesh(GLMesh mesh) {
+        meshes.add(mesh);
+        return meshes.size() - 1;
+    }
+
+    /**
+     * 注册材质,返回材质句柄
+     */
+    public int registerMaterial(Material material) {
+        materials.add(material);
+        return materials.size() - 1;
+    }
+
+    /**
+     * 提交一个绘制包,在GL线程的draw()中调用。网格有包围体且完全在视锥外时直接剔除
+     *
+     * @param pass     绘制通道
+     * @param mesh     网格句柄
+     * @param material 材质句柄
+     * @param model    模型矩阵,复制到矩阵槽位中
+     * @return 是否进入队列,被剔除时为false
+     */
+    public boolean submit(int pass, int mesh, int material, float[] model) {
+        CameraBuffer camera = CameraBuffer.getInstance();
+        Bounds bounds = meshes.get(mesh).getBounds();
+        if (bounds != null && !camera.getFrustum().intersects(bounds, model, 0)) {
+            culled++;
+            return false;
+        }
+        if (count == keys.length) {
+            grow();
+        }
+        int slot = count++;
+        System.arraycopy(model, 0, matrices, slot * 16, 16);
+        Material m = materials.get(material);
+        int depth = depthBucket(viewDepth(camera.getViewProjection(), model));
+        if (pass != PASS_OPAQUE) {
+            //透明物体和叠加层由远到近
+            depth = 0xFFFF - depth;
+        }
+        keys[slot] = key(pass, depth, m.getProgram().getId(), m.getTexture(), mesh);
+        meshIds[slot] = mesh;
+        materialIds[slot] = material;
+        return true;
+    }
+
+    /**
+     * 排序并执行所有绘制包,每帧在draw()之后调用一次
+     */
+    public void flush() {
+        lastCount = count;
+        lastCulled = culled;
+        culled = 0;
+        if (count == 0) {
+            return;
+        }
+        System.arraycopy(keys, 0, sortKeys, 0, count);
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        radixSort(sortKeys, order, count, tmpKeys, tmpOrder, histogram);
+
+        GlState state = GlState.getInstance();
+        float[] viewProjection = CameraBuffer.getInstance().getViewProjection();
+        int pass = -1;
+        int material = -1;
+        for (int i = 0; i < count; i++) {
+            int slot = order[i];
+            int packetPass = (int) (sortKeys[i] >>> PASS_SHIFT);
+            if (packetPass != pass) {
+                pass = packetPass;
+                applyPass(state, pass);
+            }
+            Material m = materials.get(materialIds[slot]);
+            if (materialIds[slot] != material) {
+                material = materialIds[slot];
+                m.bind(state);
+            }
+            //每个绘制包在CPU上合成一次MVP,着色器中每个顶点只做一次矩阵乘法
+            m.getMatrix().setMat4(transform.mvp(viewProjection, matrices, slot * 16), 0);
+            meshes.get(meshIds[slot]).draw();
+        }
+        //glClear清除深度缓冲时受深度写入掩码影响,结束时恢复写入
+        state.depthMask(true);
+        count = 0;
+    }
+
+    /**
+     * 上一帧执行的绘制包个数
+     */
+    public int getLastCount() {
+        return lastCount;
+    }
+
+    /**
+     * 上一帧被视锥剔除的提交个数
+     */
+    public int getLastCulledCount() {
+        return lastCulled;
+    }
+
+    private static void applyPass(GlState state, int pass) {
+        switch (pass) {
+            case PASS_OPAQUE:
+                state.setEnabled(GLES30.GL_DEPTH_TEST, true);
+                state.depthMask(true);
+                state.setEnabled(GLES30.GL_BLEND, false);
+                break;
+            case PASS_TRANSPARENT:
+                state.setEnabled(GLES30.GL_DEPTH_TEST, true);
+                state.depthMask(false);
+                state.setEnabled(GLES30.GL_BLEND, true);
+                state.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+            default:
+                state.setEnabled(GLES30.GL_DEPTH_TEST, false);
+                state.setEnabled(GLES30.GL_BLEND, true);
+                state.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+        }
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        meshIds = Arrays.copyOf(meshIds, capacity);
+        materialIds = Arrays.copyOf(materialIds, capacity);
+        matrices = Arrays.copyOf(matrices, capacity * 16);
+        sortKeys = new long[capacity];
+        order = new int[capacity];
+        tmpKeys = new long[capacity];
+        tmpOrder = new int[capacity];
+    }
+
+    /**
+     * 组合排序键,程序、纹理和网格只取低位,冲突只影响分组不影响正确性
+     */
+    static long key(int pass, int depthBucket, int program, int texture, int mesh) {
+        return ((long) (pass & 0xF) << PASS_SHIFT)
+                | ((long) (depthBucket & 0xFFFF) << DEPTH_SHIFT)
+                | ((long) (program & 0xFFF) << PROGRAM_SHIFT)
+                | ((long) (texture & 0xFFF) << TEXTURE_SHIFT)
+                | (mesh & 0xFFFF);
+    }
+
+    /**
+     * 深度桶：正浮点数的位模式随数值单调递增,取高16位(指数和7位尾数)即得到相对精度约1%的桶,
+     * 不需要知道近、远平面。相机后方和相机处的物体为0
+     */
+    static int depthBucket(float depth) {
+        if (!(depth > 0f)) {
+            return 0;
+        }
+        return Float.floatToRawIntBits(Math.min(depth, Float.MAX_VALUE)) >>> 16;
+    }
+
+    /**
+     * 物体原点到相机的深度：投影*相机矩阵作用于模型矩阵平移部分后的裁剪坐标w
+     */
+    static float viewDepth(float[] viewProjection, float[] model) {
+        return viewProjection[3] * model[12] + viewProjection[7] * model[13]
+                + viewProjection[11] * model[14] + viewProjection[15] * model[15];
+    }
+
+    /**
+     * 按无符号64位键的LSD基数排序,每趟8位,所有键该字节都相同的趟直接跳过。
+     * 稳定排序,结果写回keys和values
+     *
+     * @param tmpKeys   长度不小于count的临时数组
+     * @param tmpValues 长度不小于count的临时数组
+     * @param histogram 长度为256的临时数组
+     */
+    static void radixSort(long[] keys, int[] values, int count,
+                          long[] tmpKeys, int[] tmpValues, int[] histogram) {
+        if (count < 2) {
+            return;
+        }
+        long[] srcKeys = keys;
+        int[] srcValues = values;
+        long[] dstKeys = tmpKeys;
+        int[] dstValues = tmpValues;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(histogram, 0);
+            for (int i = 0; i < count; i++) {
+                histogram[(int) (srcKeys[i] >>> shift) & 0xFF]++;
+            }
+            if (histogram[(int) (srcKeys[0] >>> shift) & 0xFF] == count) {
+                continue;
+            }
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = histogram[b];
+                histogram[b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < count; i++) {
+                int d = histogram[(int) (srcKeys[i] >>> shift) & 0xFF]++;
+                dstKeys[d] = srcKeys[i];
+                dstValues[d] = srcValues[i];
+            }
+            long[] k = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = k;
+            int[] v = srcValues;
+            srcValues = dstValues;
+            dstValues = v;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, count);
+            System.arraycopy(srcValues, 0, values, 0, count);
+        }
+    }
+}
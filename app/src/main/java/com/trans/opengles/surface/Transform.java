@@ -0,0 +1,69 @@
+package com.trans.opengles.surface;
+
+/**
+ * @author Tom灿
+ * @description: 物体的变换：每帧在CPU上把投影*相机矩阵与模型矩阵链合成一个MVP矩阵，
+ * 着色器只需做一次mat4×vec4，不必对每个顶点重复整条矩阵链。
+ * 所有运算都写入预先分配的float[]，绘制过程中不产生对象。矩阵按列主序存储，与android.opengl.Matrix一致
+ * @date :2026/10/18 23:10
+ */
+public final class Transform {
+    //合成后的模型矩阵
+    private final float[] model = new float[16];
+    //投影*相机*模型矩阵
+    private final float[] mvp = new float[16];
+
+    /**
+     * 合成模型矩阵 = model * local,local是相对模型的变换(例如传感器旋转)
+     *
+     * @return 模型矩阵,下一次compose时被覆盖
+     */
+    public float[] compose(float[] model, float[] local) {
+        multiply(this.model, model, local);
+        return this.model;
+    }
+
+    /**
+     * 计算MVP = viewProjection * 当前模型矩阵
+     *
+     * @return MVP矩阵,下一次mvp时被覆盖
+     */
+    public float[] mvp(float[] viewProjection) {
+        multiply(mvp, viewProjection, model);
+        return mvp;
+    }
+
+    /**
+     * 计算MVP = viewProjection * model,模型矩阵从models[offset]开始
+     *
+     * @return MVP矩阵,下一次mvp时被覆盖
+     */
+    public float[] mvp(float[] viewProjection, float[] models, int offset) {
+        System.arraycopy(models, offset, model, 0, 16);
+        return mvp(viewProjection);
+    }
+
+    public float[] getModel() {
+        return model;
+    }
+
+    public float[] getMvp() {
+        return mvp;
+    }
+
+    /**
+     * result = lhs * rhs,result不能与lhs或rhs是同一个数组
+     */
+    static void multiply(float[] result, float[] lhs, float[] rhs) {
+        for (int col = 0; col < 4; col++) {
+            float r0 = rhs[col * 4];
+            float r1 = rhs[col * 4 + 1];
+            float r2 = rhs[col * 4 + 2];
+            float r3 = rhs[col * 4 + 3];
+            for (int row = 0; row < 4; row++) {
+                result[col * 4 + row] = lhs[row] * r0 + lhs[4 + row] * r1
+                        + lhs[8 + row] * r2 + lhs[12 + row] * r3;
+            }
+        }
+    }
+}
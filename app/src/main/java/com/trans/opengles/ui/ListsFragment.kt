@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView.SimpleOnItemTouchListener
 import com.trans.opengles.R
 import com.trans.opengles.meta.basic.ARMeta
 import com.trans.opengles.meta.basic.BackgroundMeta
+import com.trans.opengles.meta.basic.Batch2DMeta
 import com.trans.opengles.meta.basic.CircleMeta
 import com.trans.opengles.meta.basic.ConeMeta
 import com.trans.opengles.meta.basic.CylinderMeta
@@ -20,6 +21,7 @@ import com.trans.opengles.meta.basic.LinesES30Meta
 import com.trans.opengles.meta.basic.PointsES30Meta
 import com.trans.opengles.meta.basic.BallMeta
 import com.trans.opengles.meta.basic.GlobeMeta
+import com.trans.opengles.meta.basic.InstancedMeta
 import com.trans.opengles.meta.basic.SquareES30Meta
 import com.trans.opengles.meta.basic.SquareMeta
 import com.trans.opengles.meta.basic.Texture2DMeta
@@ -82,6 +84,11 @@ class ListsFragment : Fragment() {
                     getString(R.string.cover_circle_des),
                     CircleMeta::class.java
                 ),
+                SampleItem(
+                    getString(R.string.cover_batch2d),
+                    getString(R.string.cover_batch2d_des),
+                    Batch2DMeta::class.java
+                ),
                 SampleItem(
                     getString(R.string.cover_texture2D),
                     getString(R.string.cover_texture2D_des),
@@ -102,6 +109,11 @@ class ListsFragment : Fragment() {
                     getString(R.string.cover_ball_des),
                     BallMeta::class.java
                 ),
+                SampleItem(
+                    getString(R.string.cover_instanced),
+                    getString(R.string.cover_instanced_des),
+                    InstancedMeta::class.java
+                ),
                 SampleItem(
                     getString(R.string.cover_globe),
                     getString(R.string.cover_globe_des),
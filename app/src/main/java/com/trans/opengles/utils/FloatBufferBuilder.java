@@ -0,0 +1,91 @@
+package com.trans.opengles.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * @author Tom灿
+ * @description: float顶点数据构建器：直接写入本地字节序的直接缓冲区(direct buffer)，
+ * 代替ArrayList<Float>,生成几何数据时不产生装箱对象；容量不足时按2倍扩容
+ * @date :2026/10/18 11:05
+ */
+public class FloatBufferBuilder {
+    private static final int BYTES_PER_FLOAT = 4;
+
+    private FloatBuffer buffer;
+
+    /**
+     * @param capacity 预估的float个数,按已知的切分数预先计算可避免扩容
+     */
+    public FloatBufferBuilder(int capacity) {
+        buffer = allocate(Math.max(capacity, 1));
+    }
+
+    public FloatBufferBuilder put(float v) {
+        ensureCapacity(1);
+        buffer.put(v);
+        return this;
+    }
+
+    public FloatBufferBuilder put(float x, float y) {
+        ensureCapacity(2);
+        buffer.put(x).put(y);
+        return this;
+    }
+
+    public FloatBufferBuilder put(float x, float y, float z) {
+        ensureCapacity(3);
+        buffer.put(x).put(y).put(z);
+        return this;
+    }
+
+    public FloatBufferBuilder put(float x, float y, float z, float w) {
+        ensureCapacity(4);
+        buffer.put(x).put(y).put(z).put(w);
+        return this;
+    }
+
+    public FloatBufferBuilder put(float[] data) {
+        ensureCapacity(data.length);
+        buffer.put(data);
+        return this;
+    }
+
+    /**
+     * 已写入的float个数
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * 结束构建,返回position为0、limit为已写入长度的缓冲区,可直接传给glBufferData
+     */
+    public FloatBuffer build() {
+        FloatBuffer result = buffer;
+        result.flip();
+        buffer = null;
+        return result;
+    }
+
+    private void ensureCapacity(int count) {
+        if (buffer.remaining() >= count) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < count) {
+            capacity *= 2;
+        }
+        FloatBuffer grown = allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    private static FloatBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * BYTES_PER_FLOAT)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+}
@@ -0,0 +1,143 @@
+package com.trans.opengles.utils;
+
+import android.opengl.GLES30;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * @author Tom灿
+ * @description: 索引数据构建器：顶点数不超过65536时写入GL_UNSIGNED_SHORT索引,
+ * 否则写入GL_UNSIGNED_INT索引；容量由生成器按网格拓扑精确计算,不扩容。
+ * 三角形带可以写入图元重启索引(GL_PRIMITIVE_RESTART_FIXED_INDEX,即索引类型的最大值)来分隔多条带
+ * @date :2026/10/18 14:20
+ */
+public class IndexBufferBuilder {
+    private static final int MAX_SHORT_VERTICES = 65536;
+
+    private final ShortBuffer shorts;
+    private final IntBuffer ints;
+
+    /**
+     * @param capacity    索引个数
+     * @param vertexCount 网格顶点个数,决定索引类型
+     */
+    public IndexBufferBuilder(int capacity, int vertexCount) {
+        this(capacity, vertexCount, false);
+    }
+
+    /**
+     * @param capacity         索引个数(包括重启索引)
+     * @param vertexCount      网格顶点个数,决定索引类型
+     * @param primitiveRestart 是否写入重启索引：short索引的最大值0xFFFF被保留,顶点数只能到65535
+     */
+    public IndexBufferBuilder(int capacity, int vertexCount, boolean primitiveRestart) {
+        ByteBuffer bb;
+        if (vertexCount <= (primitiveRestart ? MAX_SHORT_VERTICES - 1 : MAX_SHORT_VERTICES)) {
+            bb = ByteBuffer.allocateDirect(capacity * 2).order(ByteOrder.nativeOrder());
+            shorts = bb.asShortBuffer();
+            ints = null;
+        } else {
+            bb = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder());
+            shorts = null;
+            ints = bb.asIntBuffer();
+        }
+    }
+
+    public IndexBufferBuilder put(int index) {
+        if (shorts != null) {
+            shorts.put((short) index);
+        } else {
+            ints.put(index);
+        }
+        return this;
+    }
+
+    /**
+     * 写入一个图元重启索引
+     */
+    public IndexBufferBuilder restart() {
+        return put(restartIndex(getType()));
+    }
+
+    /**
+     * 写入一个三角形的三个索引
+     */
+    public IndexBufferBuilder put(int a, int b, int c) {
+        if (shorts != null) {
+            shorts.put((short) a).put((short) b).put((short) c);
+        } else {
+            ints.put(a).put(b).put(c);
+        }
+        return this;
+    }
+
+    /**
+     * 按绝对位置写入一个三角形的三个索引,不移动写入位置。
+     * 不同线程写入互不重叠的区间是安全的,全部写完后用buildAll()结束构建
+     *
+     * @param offset 第一个索引的位置
+     */
+    public IndexBufferBuilder set(int offset, int a, int b, int c) {
+        if (shorts != null) {
+            shorts.put(offset, (short) a).put(offset + 1, (short) b).put(offset + 2, (short) c);
+        } else {
+            ints.put(offset, a).put(offset + 1, b).put(offset + 2, c);
+        }
+        return this;
+    }
+
+    /**
+     * 按绝对位置写入一个索引,不移动写入位置
+     */
+    public IndexBufferBuilder set(int offset, int index) {
+        if (shorts != null) {
+            shorts.put(offset, (short) index);
+        } else {
+            ints.put(offset, index);
+        }
+        return this;
+    }
+
+    /**
+     * 已写入的索引个数
+     */
+    public int size() {
+        return shorts != null ? shorts.position() : ints.position();
+    }
+
+    /**
+     * 索引类型：GL_UNSIGNED_SHORT或GL_UNSIGNED_INT
+     */
+    public int getType() {
+        return shorts != null ? GLES30.GL_UNSIGNED_SHORT : GLES30.GL_UNSIGNED_INT;
+    }
+
+    /**
+     * 开启GL_PRIMITIVE_RESTART_FIXED_INDEX后,索引类型的最大值表示结束当前图元、开始新的图元
+     *
+     * @param type GL_UNSIGNED_SHORT或GL_UNSIGNED_INT
+     */
+    public static int restartIndex(int type) {
+        return type == GLES30.GL_UNSIGNED_SHORT ? 0xFFFF : 0xFFFFFFFF;
+    }
+
+    /**
+     * 结束构建,返回position为0、limit为已写入长度的缓冲区
+     */
+    public Buffer build() {
+        return shorts != null ? shorts.flip() : ints.flip();
+    }
+
+    /**
+     * 结束构建,返回覆盖全部容量的缓冲区(用于按绝对位置set()写满的场景)
+     */
+    public Buffer buildAll() {
+        Buffer result = shorts != null ? shorts : ints;
+        result.clear();
+        return result;
+    }
+}
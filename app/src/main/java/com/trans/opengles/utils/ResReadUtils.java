@@ -4,10 +4,11 @@ import android.content.res.Resources;
 
 import com.trans.opengles.MyApplication;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * @author Tom灿
@@ -17,28 +18,34 @@ import java.io.InputStreamReader;
 public class ResReadUtils {
 
     /**
-     * 读取资源
+     * 读取资源：一次读出全部字节再按UTF-8解码,不逐行拼接
      *
      * @param resourceId
+     * @throws Resources.NotFoundException 资源不存在
+     * @throws UncheckedIOException        读取失败
      */
     public static String readResource(int resourceId) {
-        StringBuilder builder = new StringBuilder();
-        try {
-            InputStream inputStream = MyApplication.application.getResources().openRawResource(resourceId);
-            InputStreamReader streamReader = new InputStreamReader(inputStream);
+        try (InputStream inputStream = MyApplication.application.getResources().openRawResource(resourceId)) {
+            return readText(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read resource 0x" + Integer.toHexString(resourceId), e);
+        }
+    }
 
-            BufferedReader bufferedReader = new BufferedReader(streamReader);
-            String textLine;
-            while ((textLine = bufferedReader.readLine()) != null) {
-                builder.append(textLine);
-                builder.append("\n");
+    /**
+     * 读出流中的全部内容并按UTF-8解码。raw资源的available()就是资源长度,通常一次读完
+     */
+    public static String readText(InputStream in) throws IOException {
+        byte[] bytes = new byte[Math.max(in.available(), 256)];
+        int length = 0;
+        int read;
+        while ((read = in.read(bytes, length, bytes.length - length)) >= 0) {
+            length += read;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (Resources.NotFoundException e) {
-            e.printStackTrace();
         }
-        return builder.toString();
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
     }
 
 }
@@ -1,7 +0,0 @@
-#version 300 es
-precision mediump float;
-in vec4 vColor;
-out vec4 fragColor;
-void main() {
-    fragColor = vColor;
-}
\ No newline at end of file
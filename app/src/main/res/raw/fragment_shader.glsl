@@ -0,0 +1,18 @@
+#version 300 es
+//WITH_TEXTURE：按纹理坐标采样，否则直接输出插值后的顶点颜色
+#ifdef WITH_TEXTURE
+precision highp float;
+uniform sampler2D uTexture;
+in vec2 vTexCoord;
+#else
+precision mediump float;
+in vec4 vColor;
+#endif
+out vec4 fragColor;
+void main() {
+#ifdef WITH_TEXTURE
+    fragColor = texture(uTexture, vTexCoord);
+#else
+    fragColor = vColor;
+#endif
+}
@@ -0,0 +1,8 @@
+//相机uniform块(std140),所有程序共享,由CameraBuffer每帧更新一次,绑定点0
+layout (std140) uniform Camera {
+    mat4 uViewMatrix;
+    mat4 uProjMatrix;
+    mat4 uViewProjMatrix;
+    //进程启动后的秒数
+    float uTime;
+};
@@ -0,0 +1,9 @@
+//顶点位置和变换矩阵,所有带变换矩阵的顶点着色器共用
+layout (location = 0) in vec4 vPosition;
+uniform mat4 u_Matrix;
+//INSTANCED：投影*相机矩阵取自相机uniform块(不使用u_Matrix),每实例的模型矩阵(占用位置4~7)和颜色来自InstanceBuffer
+#ifdef INSTANCED
+#include "include_camera"
+layout (location = 4) in mat4 aInstanceModel;
+layout (location = 8) in vec4 aInstanceColor;
+#endif
@@ -1,8 +1,18 @@
 #version 300 es
-in vec4 vPosition;
-uniform mat4 u_Matrix;
+#include "include_transform"
 out vec4 vColor;
+#ifdef INSTANCED
+//指向光源的单位向量(世界坐标)
+uniform vec3 uLightDir;
+#endif
 void main(){
+#ifdef INSTANCED
+    gl_Position=uViewProjMatrix*(aInstanceModel*vPosition);
+    //单位球的法线就是顶点位置；实例只做平移、旋转和等比缩放,mat3(模型矩阵)即可变换法线
+    vec3 normal=normalize(mat3(aInstanceModel)*vPosition.xyz);
+    float diffuse=max(dot(normal,uLightDir),0.0);
+    vColor=vec4(aInstanceColor.rgb*(0.25+0.75*diffuse),aInstanceColor.a);
+#else
     gl_Position=u_Matrix*vPosition;
     float color;
     if(vPosition.z>0.0){
@@ -11,9 +21,5 @@ void main(){
         color=-vPosition.z;
     }
     vColor=vec4(color,color,color,1.0);
+#endif
 }
-
-
-
-
-
@@ -1,7 +1,5 @@
 #version 300 es
-layout (location = 0) in vec4 vPosition;
-layout (location = 1) in vec4 aColor;
-uniform mat4 u_Matrix;
+#include "include_transform"
 out vec4 vColor;
 void main() {
     gl_Position=u_Matrix*vPosition;
@@ -11,4 +9,3 @@ void main() {
         vColor=vec4(0.8,0.8,0.8,1.0);
     }
 }
-
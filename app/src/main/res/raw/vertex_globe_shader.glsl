@@ -1,22 +1,10 @@
 #version 300 es
-in vec4 aPosition;
+//顶点着色器：投影*相机*模型*旋转矩阵已在CPU上合成为u_Matrix,每个顶点只做一次矩阵乘法
+#include "include_transform"
 in vec2 aCoordinate;
-//顶点着色器
-uniform mat4 uProjMatrix;
-uniform mat4 uViewMatrix;
-uniform mat4 uModelMatrix;
-out vec2 vCoordinate;
-uniform mat4 uRotateMatrix;
+out vec2 vTexCoord;
 
 void main(){
-    gl_Position=uProjMatrix*uViewMatrix*uModelMatrix*uRotateMatrix*aPosition;
-    vCoordinate=aCoordinate;
+    gl_Position=u_Matrix*vPosition;
+    vTexCoord=aCoordinate;
 }
-
-
-
-
-
-
-
-
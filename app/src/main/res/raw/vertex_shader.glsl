@@ -0,0 +1,26 @@
+#version 300 es
+#include "include_transform"
+//WITH_TEXTURE：输出纹理坐标(s,t)，否则输出顶点颜色
+#ifdef WITH_TEXTURE
+layout (location = 1) in vec2 aTextureCoord;
+out vec2 vTexCoord;
+#else
+layout (location = 1) in vec4 aColor;
+out vec4 vColor;
+#endif
+void main() {
+#ifdef INSTANCED
+    gl_Position  = uViewProjMatrix*(aInstanceModel*vPosition);
+#else
+    gl_Position  = u_Matrix*vPosition;
+#endif
+    gl_PointSize = 10.0;
+#ifdef WITH_TEXTURE
+    vTexCoord = aTextureCoord;
+#elif defined(INSTANCED)
+    //顶点颜色乘以实例颜色
+    vColor = aColor*aInstanceColor;
+#else
+    vColor = aColor;
+#endif
+}
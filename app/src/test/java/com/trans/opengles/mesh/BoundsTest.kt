@@ -0,0 +1,95 @@
+package com.trans.opengles.mesh
+
+import com.trans.opengles.utils.IndexBufferBuilder
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.nio.FloatBuffer
+
+/**
+ * 网格包围体与球体分块
+ */
+class BoundsTest {
+
+    @Test
+    fun sphereBoundsAreUnitBoxAndSphere() {
+        val data = SphereGenerator.create(1.0f, 24, 48, false)
+        val bounds = data.bounds
+        assertEquals(-1f, bounds.minX, 1e-6f)
+        assertEquals(1f, bounds.maxX, 1e-6f)
+        assertEquals(-1f, bounds.minZ, 1e-6f)
+        assertEquals(1f, bounds.maxZ, 1e-6f)
+        assertEquals(0f, bounds.centerY, 1e-6f)
+        assertEquals(1f, bounds.radius, 1e-5f)
+        assertSame(bounds, data.bounds)
+    }
+
+    @Test
+    fun coneBoundsContainEveryVertex() {
+        val data = ConeGenerator.create(0.5f, 32)
+        val b = data.bounds
+        val p = data.positions
+        for (v in 0 until data.vertexCount) {
+            val x = p.get(v * 3)
+            val y = p.get(v * 3 + 1)
+            val z = p.get(v * 3 + 2)
+            assertTrue(x >= b.minX && x <= b.maxX && y >= b.minY && y <= b.maxY && z >= b.minZ && z <= b.maxZ)
+            val dx = x - b.centerX
+            val dy = y - b.centerY
+            val dz = z - b.centerZ
+            assertTrue(Math.sqrt((dx * dx + dy * dy + dz * dz).toDouble()) <= b.radius + 1e-5)
+        }
+    }
+
+    @Test
+    fun rangeSkipsRestartIndices() {
+        val positions = FloatBuffer.wrap(floatArrayOf(0f, 0f, 0f, 1f, 2f, 3f, -4f, 0f, 0f))
+        val bounds = Bounds.of(positions, intArrayOf(2, 0xFFFF, 0, 1), 1, 3, 0xFFFF)!!
+        assertEquals(0f, bounds.minX, 0f)
+        assertEquals(1f, bounds.maxX, 0f)
+        assertEquals(3f, bounds.maxZ, 0f)
+        assertNull(Bounds.of(positions, intArrayOf(0xFFFF), 0, 1, 0xFFFF))
+    }
+
+    @Test
+    fun chunksMatchIndexBuffer() {
+        val rings = 12
+        val segments = 24
+        val chunked = SphereGenerator.createChunkedStrip(1.0f, rings, segments, false, 3, 4)
+        val data = chunked.data
+        val chunks = chunked.chunks
+        val indices = MeshOptimizer.readIndices(data)
+        val restart = IndexBufferBuilder.restartIndex(data.indexType)
+        assertEquals(12, chunks.size)
+        assertEquals(chunks.last().first + chunks.last().count, indices.size)
+        for ((i, chunk) in chunks.withIndex()) {
+            //分块首尾不是重启索引,块之间恰好一个重启索引
+            assertTrue(indices[chunk.first] != restart && indices[chunk.first + chunk.count - 1] != restart)
+            if (i > 0) {
+                assertEquals(restart, indices[chunk.first - 1])
+            }
+            //生成器给出的包围体与分块索引引用的顶点一致；每块覆盖60°纬度、90°经度
+            val expected = Bounds.of(data.positions, indices, chunk.first, chunk.count, restart)!!
+            val b = chunk.bounds
+            assertEquals(expected.minX, b.minX, 1e-6f)
+            assertEquals(expected.maxY, b.maxY, 1e-6f)
+            assertEquals(expected.minZ, b.minZ, 1e-6f)
+            assertEquals(expected.radius, b.radius, 1e-6f)
+            assertTrue(b.radius < 1f)
+        }
+    }
+
+    @Test
+    fun sampleSphereChunksMatchGenerator() {
+        val chunks = SampleMeshes.sphereChunks()
+        assertEquals(SampleMeshes.SPHERE_RING_CHUNKS * SampleMeshes.SPHERE_SEGMENT_CHUNKS, chunks.size)
+        val ranges = SphereGenerator.chunkRanges(90, 180,
+                SampleMeshes.SPHERE_RING_CHUNKS, SampleMeshes.SPHERE_SEGMENT_CHUNKS)
+        for ((i, chunk) in chunks.withIndex()) {
+            assertEquals(ranges[i * 2], chunk.first)
+            assertEquals(ranges[i * 2 + 1], chunk.count)
+        }
+    }
+}
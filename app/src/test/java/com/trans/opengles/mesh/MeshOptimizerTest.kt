@@ -0,0 +1,130 @@
+package com.trans.opengles.mesh
+
+import android.opengl.GLES30
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Random
+
+/**
+ * 顶点缓存优化、顶点读取重排以及ACMR/ATVR统计
+ */
+class MeshOptimizerTest {
+
+    @Test
+    fun cacheOptimizationKeepsTrianglesAndWinding() {
+        val data = IcosphereGenerator.create(1.0f, 3, false)
+        val indices = MeshOptimizer.readIndices(data)
+        val optimized = VertexCacheOptimizer.optimize(indices, data.vertexCount)
+        assertEquals(canonicalTriangles(indices), canonicalTriangles(optimized))
+    }
+
+    @Test
+    fun cacheOptimizationLowersAcmr() {
+        for (data in listOf(IcosphereGenerator.create(1.0f, 4, false),
+                CubeSphereGenerator.create(1.0f, 32, false),
+                SphereGenerator.create(1.0f, 45, 90, false))) {
+            val indices = MeshOptimizer.readIndices(data)
+            val before = VertexCacheStats.analyze(indices, data.vertexCount)
+            val after = VertexCacheStats.analyze(
+                    VertexCacheOptimizer.optimize(indices, data.vertexCount), data.vertexCount)
+            assertTrue("$before -> $after", after.acmr < before.acmr)
+            assertTrue("$before -> $after", after.acmr < 0.8f)
+        }
+    }
+
+    @Test
+    fun cacheOptimizationRecoversShuffledTriangles() {
+        val data = IcosphereGenerator.create(1.0f, 4, false)
+        val indices = shuffleTriangles(MeshOptimizer.readIndices(data), Random(1))
+        val before = VertexCacheStats.analyze(indices, data.vertexCount)
+        val after = VertexCacheStats.analyze(
+                VertexCacheOptimizer.optimize(indices, data.vertexCount), data.vertexCount)
+        assertTrue("$before", before.acmr > 2.0f)
+        assertTrue("$after", after.acmr < 0.8f)
+    }
+
+    @Test
+    fun handlesEmptyAndDegenerateInput() {
+        assertEquals(0, VertexCacheOptimizer.optimize(IntArray(0), 0).size)
+        val indices = intArrayOf(0, 0, 1, 1, 2, 3, 2, 3, 3)
+        val optimized = VertexCacheOptimizer.optimize(indices, 4)
+        assertEquals(canonicalTriangles(indices), canonicalTriangles(optimized))
+    }
+
+    @Test
+    fun vertexFetchFollowsFirstUse() {
+        val indices = intArrayOf(3, 1, 4, 4, 1, 0)
+        val remap = MeshOptimizer.optimizeVertexFetch(indices, 6)
+        assertArrayEquals(intArrayOf(0, 1, 2, 2, 1, 3), indices)
+        //未引用的顶点2、5排在最后
+        assertArrayEquals(intArrayOf(3, 1, 4, 0, 2, 5), remap)
+        val attributes = floatArrayOf(0f, 0f, 1f, 1f, 2f, 2f, 3f, 3f, 4f, 4f, 5f, 5f)
+        assertArrayEquals(floatArrayOf(3f, 3f, 1f, 1f, 4f, 4f, 0f, 0f, 2f, 2f, 5f, 5f),
+                MeshOptimizer.remap(attributes, 2, remap), 0f)
+    }
+
+    @Test
+    fun optimizedMeshHasSameTriangles() {
+        val data = CubeSphereGenerator.create(1.0f, 8, true)
+        val optimized = MeshOptimizer.optimize(data)
+        assertEquals(GLES30.GL_TRIANGLES, optimized.drawMode)
+        assertEquals(data.vertexCount, optimized.vertexCount)
+        assertEquals(data.indexCount, optimized.indexCount)
+        assertEquals(positionTriangles(data), positionTriangles(optimized))
+        //重排后索引按首次出现的顺序递增
+        var max = -1
+        for (index in MeshOptimizer.readIndices(optimized)) {
+            assertTrue(index <= max + 1)
+            max = maxOf(max, index)
+        }
+    }
+
+    @Test
+    fun leavesStripsUntouched() {
+        val strip = CylinderGenerator.createStrip(0.5f, 1.0f, 16)
+        assertSame(strip, MeshOptimizer.optimize(strip))
+    }
+
+    @Test
+    fun statsCountFifoMisses() {
+        //两个共边三角形：4个顶点各变换一次
+        val stats = VertexCacheStats.analyze(intArrayOf(0, 1, 2, 2, 1, 3), 4)
+        assertEquals(4, stats.transformCount)
+        assertEquals(2.0f, stats.acmr, 0f)
+        assertEquals(1.0f, stats.atvr, 0f)
+        //缓存大小为1时第二个三角形的顶点1已被挤出
+        assertEquals(5, VertexCacheStats.analyze(intArrayOf(0, 1, 2, 2, 1, 3), 4, 1).transformCount)
+    }
+
+    /**
+     * 把每个三角形旋转到最小索引在前(保持绕序),排序后比较
+     */
+    private fun canonicalTriangles(indices: IntArray): List<List<Int>> =
+            (0 until indices.size / 3).map { t ->
+                val tri = listOf(indices[t * 3], indices[t * 3 + 1], indices[t * 3 + 2])
+                val first = tri.indexOf(tri.minOrNull()!!)
+                List(3) { tri[(first + it) % 3] }
+            }.sortedWith(compareBy({ it[0] }, { it[1] }, { it[2] }))
+
+    /**
+     * 以顶点位置表示的三角形集合,与顶点编号无关
+     */
+    private fun positionTriangles(data: MeshData): Set<List<Float>> {
+        val p = data.positions
+        val indices = MeshOptimizer.readIndices(data)
+        return (0 until indices.size / 3).map { t ->
+            val corners = List(3) { k -> List(3) { j -> p.get(indices[t * 3 + k] * 3 + j) } }
+            val first = corners.indices.minWithOrNull(
+                    compareBy({ corners[it][0] }, { corners[it][1] }, { corners[it][2] }))!!
+            List(3) { corners[(first + it) % 3] }.flatten()
+        }.toSet()
+    }
+
+    private fun shuffleTriangles(indices: IntArray, random: Random): IntArray {
+        val order = (0 until indices.size / 3).shuffled(random)
+        return IntArray(indices.size) { indices[order[it / 3] * 3 + it % 3] }
+    }
+}
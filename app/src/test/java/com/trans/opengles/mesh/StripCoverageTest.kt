@@ -0,0 +1,272 @@
+package com.trans.opengles.mesh
+
+import android.opengl.GLES30
+import com.trans.opengles.utils.IndexBufferBuilder
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.nio.FloatBuffer
+import java.nio.IntBuffer
+import java.nio.ShortBuffer
+
+/**
+ * 三角形带输出的正确性：把三角形带(展开重启索引)与原来的输出分别从多个方向正交投影、
+ * 按像素中心光栅化并做深度测试,逐像素比较是否覆盖以及可见的是正面还是背面
+ */
+class StripCoverageTest {
+
+    @Test
+    fun sphereStripCoversSameFragmentsAsTriangleList() {
+        for ((rings, segments) in listOf(6 to 12, 24 to 48, 90 to 180)) {
+            val list = SphereGenerator.create(1.0f, rings, segments, false)
+            val strip = SphereGenerator.createStrip(1.0f, rings, segments, false)
+
+            assertEquals(GLES30.GL_TRIANGLE_STRIP, strip.drawMode)
+            assertEquals(SphereGenerator.stripIndexCount(rings, segments), strip.indexCount)
+            //约为三角形列表索引数据的1/3
+            assertTrue(strip.indexCount < list.indexCount * 0.4)
+            for (view in VIEWS) {
+                assertCoverageEquals("sphere $rings x $segments", rasterize(triangles(list), view),
+                        rasterize(triangles(strip), view), true)
+            }
+        }
+    }
+
+    @Test
+    fun chunkedSphereCoversSameFragmentsAsTriangleList() {
+        for ((rings, segments) in listOf(6 to 12, 90 to 180)) {
+            val list = SphereGenerator.create(1.0f, rings, segments, false)
+            val chunked = SphereGenerator.createChunkedStrip(1.0f, rings, segments, false, 3, 4).data
+
+            assertEquals(GLES30.GL_TRIANGLE_STRIP, chunked.drawMode)
+            assertEquals(list.vertexCount, chunked.vertexCount)
+            assertEquals(list.indexCount / 3, triangles(chunked).size)
+            for (view in VIEWS) {
+                assertCoverageEquals("chunked sphere $rings x $segments", rasterize(triangles(list), view),
+                        rasterize(triangles(chunked), view), true)
+            }
+        }
+    }
+
+    @Test
+    fun cylinderStripCoversSameFragmentsAsFans() {
+        for (n in intArrayOf(8, 32, 120)) {
+            val strip = CylinderGenerator.createStrip(0.5f, 1.0f, n)
+
+            assertEquals(GLES30.GL_TRIANGLE_STRIP, strip.drawMode)
+            assertEquals(CylinderGenerator.stripIndexCount(n), strip.indexCount)
+            val tris = triangles(strip)
+            //侧面2n个三角形,顶部、底部各n - 2个
+            assertEquals(4 * n - 4, tris.size)
+            assertOutward(tris)
+            //原来的顶部、底部扇形从外侧看是顺时针,只比较覆盖范围
+            for (view in VIEWS) {
+                assertCoverageEquals("cylinder $n", rasterize(cylinderReference(n), view),
+                        rasterize(tris, view), false)
+            }
+        }
+    }
+
+    /**
+     * 原来的圆柱体：顶部、底部按扇形展开；侧面原来把上下交替的顶点对当作GL_TRIANGLE_FAN绘制,
+     * 得到的并不是圆柱面,这里按同样的顶点对拆分成四边形作为参照
+     */
+    private fun cylinderReference(n: Int): List<FloatArray> {
+        val data = CylinderGenerator.create(0.5f, 1.0f, n)
+        val p = data.positions
+        val tris = ArrayList<FloatArray>()
+        for (i in 0 until n) {
+            val top = 2 * i
+            val bottom = top + 1
+            tris += triangle(p, bottom, top, bottom + 2)
+            tris += triangle(p, bottom + 2, top, top + 2)
+        }
+        val side = CylinderGenerator.sideCount(n)
+        val cap = CylinderGenerator.capCount(n)
+        for (first in intArrayOf(side, side + cap)) {
+            for (i in 1 until cap - 1) {
+                tris += triangle(p, first, first + i, first + i + 1)
+            }
+        }
+        return tris
+    }
+
+    /**
+     * 圆柱体的三角形都朝外：侧面法线背离轴线,顶部朝+z,底部朝-z
+     */
+    private fun assertOutward(tris: List<FloatArray>) {
+        for (t in tris) {
+            val n = normal(t)
+            val cx = (t[0] + t[3] + t[6]) / 3
+            val cy = (t[1] + t[4] + t[7]) / 3
+            val cz = (t[2] + t[5] + t[8]) / 3
+            val outward = when {
+                t[2] == t[5] && t[5] == t[8] -> n[2] * (if (cz > 0.5f) 1 else -1)
+                else -> n[0] * cx + n[1] * cy
+            }
+            assertTrue("inward triangle " + t.contentToString(), outward > 0)
+        }
+    }
+
+    private fun assertCoverageEquals(name: String, expected: Coverage, actual: Coverage,
+                                     compareFacing: Boolean) {
+        var mismatches = 0
+        for (i in expected.facing.indices) {
+            val e = expected.facing[i]
+            val a = actual.facing[i]
+            if (if (compareFacing) e != a else (e == NONE) != (a == NONE)) {
+                mismatches++
+            }
+        }
+        assertEquals("$name: mismatched pixels", 0, mismatches)
+        assertTrue("$name: nothing rasterized", actual.facing.any { it != NONE })
+    }
+
+    /**
+     * 每个像素上最近的片段是正面、背面还是没有覆盖
+     */
+    private class Coverage(val facing: ByteArray)
+
+    /**
+     * 沿view方向正交投影后按像素中心采样,边上的像素中心算作覆盖。
+     * 深度测试保留最近的片段,深度相同时正面优先,结果与绘制顺序无关
+     */
+    private fun rasterize(tris: List<FloatArray>, view: DoubleArray): Coverage {
+        val d = normalize(view)
+        val u = normalize(if (Math.abs(d[2]) > 0.99) cross(doubleArrayOf(0.0, 1.0, 0.0), d)
+                          else cross(doubleArrayOf(0.0, 0.0, 1.0), d))
+        //u x v = d,投影后逆时针即为朝向观察者
+        val v = cross(d, u)
+        val facing = ByteArray(SIZE * SIZE)
+        //离观察者越近深度越大
+        val depth = DoubleArray(SIZE * SIZE) { Double.NEGATIVE_INFINITY }
+        val xs = DoubleArray(3)
+        val ys = DoubleArray(3)
+        val zs = DoubleArray(3)
+        for (t in tris) {
+            for (k in 0..2) {
+                xs[k] = t[k * 3] * u[0] + t[k * 3 + 1] * u[1] + t[k * 3 + 2] * u[2]
+                ys[k] = t[k * 3] * v[0] + t[k * 3 + 1] * v[1] + t[k * 3 + 2] * v[2]
+                zs[k] = t[k * 3] * d[0] + t[k * 3 + 1] * d[1] + t[k * 3 + 2] * d[2]
+            }
+            val area = (xs[1] - xs[0]) * (ys[2] - ys[0]) - (xs[2] - xs[0]) * (ys[1] - ys[0])
+            if (area == 0.0) {
+                continue
+            }
+            val face = if (area > 0) FRONT else BACK
+            val minX = pixel(minOf(xs[0], xs[1], xs[2]))
+            val maxX = pixel(maxOf(xs[0], xs[1], xs[2]))
+            val minY = pixel(minOf(ys[0], ys[1], ys[2]))
+            val maxY = pixel(maxOf(ys[0], ys[1], ys[2]))
+            for (py in minY..maxY) {
+                val y = center(py)
+                for (px in minX..maxX) {
+                    val x = center(px)
+                    //重心坐标,同号(含0)时像素中心在三角形内
+                    val w0 = edge(xs[1], ys[1], xs[2], ys[2], x, y) / area
+                    val w1 = edge(xs[2], ys[2], xs[0], ys[0], x, y) / area
+                    val w2 = edge(xs[0], ys[0], xs[1], ys[1], x, y) / area
+                    if (w0 < 0 || w1 < 0 || w2 < 0) {
+                        continue
+                    }
+                    val z = w0 * zs[0] + w1 * zs[1] + w2 * zs[2]
+                    val i = py * SIZE + px
+                    if (z > depth[i] || (z == depth[i] && face == FRONT)) {
+                        depth[i] = z
+                        facing[i] = face
+                    }
+                }
+            }
+        }
+        return Coverage(facing)
+    }
+
+    companion object {
+        private const val SIZE = 128
+        private const val EXTENT = 1.25
+        private const val NONE: Byte = 0
+        private const val FRONT: Byte = 1
+        private const val BACK: Byte = 2
+
+        //轴向和斜向的观察方向
+        private val VIEWS = listOf(
+                doubleArrayOf(0.0, 0.0, 1.0), doubleArrayOf(0.0, 0.0, -1.0),
+                doubleArrayOf(1.0, 0.0, 0.0), doubleArrayOf(0.0, -1.0, 0.0),
+                doubleArrayOf(1.0, 2.0, 3.0), doubleArrayOf(-2.0, 1.0, -0.5),
+                doubleArrayOf(6.0, 0.0, -1.0))
+
+        /**
+         * 展开为独立三角形(每个9个float),三角形带按GL的规则处理奇数三角形的绕序和重启索引
+         */
+        private fun triangles(data: MeshData): List<FloatArray> {
+            val p = data.positions
+            val order = ArrayList<Int>()
+            val indices = data.indices
+            if (indices != null) {
+                val restart = IndexBufferBuilder.restartIndex(data.indexType)
+                for (i in 0 until data.indexCount) {
+                    order += when (indices) {
+                        is ShortBuffer -> indices.get(indices.position() + i).toInt() and 0xFFFF
+                        is IntBuffer -> indices.get(indices.position() + i)
+                        else -> throw IllegalArgumentException()
+                    }
+                }
+                if (data.drawMode == GLES30.GL_TRIANGLE_STRIP) {
+                    return strips(p, order, restart)
+                }
+            } else {
+                for (i in 0 until data.vertexCount) {
+                    order += i
+                }
+            }
+            assertEquals(GLES30.GL_TRIANGLES, data.drawMode)
+            return (0 until order.size / 3).map { triangle(p, order[it * 3], order[it * 3 + 1], order[it * 3 + 2]) }
+        }
+
+        private fun strips(p: FloatBuffer, order: List<Int>, restart: Int): List<FloatArray> {
+            val tris = ArrayList<FloatArray>()
+            var start = 0
+            for (end in 0..order.size) {
+                if (end < order.size && order[end] != restart) {
+                    continue
+                }
+                for (k in start until end - 2) {
+                    tris += if ((k - start) % 2 == 0) triangle(p, order[k], order[k + 1], order[k + 2])
+                            else triangle(p, order[k + 1], order[k], order[k + 2])
+                }
+                start = end + 1
+            }
+            return tris
+        }
+
+        private fun triangle(p: FloatBuffer, a: Int, b: Int, c: Int): FloatArray {
+            val t = FloatArray(9)
+            for ((k, v) in intArrayOf(a, b, c).withIndex()) {
+                for (j in 0..2) {
+                    t[k * 3 + j] = p.get(p.position() + v * 3 + j)
+                }
+            }
+            return t
+        }
+
+        private fun normal(t: FloatArray): DoubleArray = cross(
+                doubleArrayOf((t[3] - t[0]).toDouble(), (t[4] - t[1]).toDouble(), (t[5] - t[2]).toDouble()),
+                doubleArrayOf((t[6] - t[0]).toDouble(), (t[7] - t[1]).toDouble(), (t[8] - t[2]).toDouble()))
+
+        private fun cross(a: DoubleArray, b: DoubleArray) = doubleArrayOf(
+                a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0])
+
+        private fun normalize(a: DoubleArray): DoubleArray {
+            val len = Math.sqrt(a[0] * a[0] + a[1] * a[1] + a[2] * a[2])
+            return doubleArrayOf(a[0] / len, a[1] / len, a[2] / len)
+        }
+
+        private fun edge(ax: Double, ay: Double, bx: Double, by: Double, x: Double, y: Double) =
+                (bx - ax) * (y - ay) - (by - ay) * (x - ax)
+
+        private fun center(i: Int) = -EXTENT + (i + 0.5) * 2 * EXTENT / SIZE
+
+        private fun pixel(x: Double) =
+                Math.floor((x + EXTENT) * SIZE / (2 * EXTENT)).toInt().coerceIn(0, SIZE - 1)
+    }
+}
@@ -0,0 +1,117 @@
+package com.trans.opengles.mesh
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.FloatBuffer
+
+/**
+ * 顶点属性量化编码
+ */
+class VertexEncoderTest {
+
+    @Test
+    fun halfFloatRoundTripsEveryHalf() {
+        for (bits in 0..0xFFFF) {
+            val half = bits.toShort()
+            val value = VertexEncoder.fromHalf(half)
+            if (value.isNaN()) {
+                assertTrue(VertexEncoder.fromHalf(VertexEncoder.toHalf(value)).isNaN())
+            } else {
+                assertEquals(Integer.toHexString(bits), half, VertexEncoder.toHalf(value))
+            }
+        }
+    }
+
+    @Test
+    fun halfFloatRoundsToNearestEven() {
+        assertEquals(0x3C00, half(1.0f))
+        assertEquals(0xC000, half(-2.0f))
+        //1与1 + 2^-10的中点舍入到偶数1,1 + 2^-10与1 + 2^-9的中点舍入到1 + 2^-9
+        assertEquals(0x3C00, half(1.0f + Math.scalb(1.0f, -11)))
+        assertEquals(0x3C02, half(1.0f + 3 * Math.scalb(1.0f, -11)))
+        assertEquals(0x7BFF, half(65504.0f))
+        assertEquals(0x7BFF, half(65519.0f))
+        assertEquals(0x7C00, half(65520.0f))
+        assertEquals(0x7C00, half(Float.POSITIVE_INFINITY))
+        //非规格化数
+        assertEquals(0x0001, half(Math.scalb(1.0f, -24)))
+        assertEquals(0x0000, half(Math.scalb(1.0f, -25)))
+        assertEquals(0x0001, half(1.5f * Math.scalb(1.0f, -25)))
+        assertEquals(0x0400, half(Math.scalb(1.0f, -14)))
+        assertEquals(0x8000, half(-0.0f))
+    }
+
+    @Test
+    fun normalizedIntegersUseFullRange() {
+        assertEquals(32767.toShort(), VertexEncoder.toSnorm16(1.0f))
+        assertEquals((-32767).toShort(), VertexEncoder.toSnorm16(-1.0f))
+        assertEquals((-32767).toShort(), VertexEncoder.toSnorm16(-2.0f))
+        assertEquals(0xFFFF, VertexEncoder.toUnorm16(1.0f).toInt() and 0xFFFF)
+        assertEquals(0x8000, VertexEncoder.toUnorm16(0.5f).toInt() and 0xFFFF)
+        assertEquals(255, VertexEncoder.toUnorm8(1.0f).toInt() and 0xFF)
+        assertEquals(0, VertexEncoder.toUnorm8(-1.0f).toInt())
+    }
+
+    @Test
+    fun packs1010102WithXInLowBits() {
+        val packed = VertexEncoder.packSnorm1010102(1.0f, -1.0f, 0.0f, 1.0f)
+        assertEquals(0x1FF, packed and 0x3FF)
+        assertEquals(0x201, (packed ushr 10) and 0x3FF)
+        assertEquals(0, (packed ushr 20) and 0x3FF)
+        assertEquals(1, packed ushr 30)
+        //单位向量的量化误差不超过半个步长
+        val z = (VertexEncoder.packSnorm1010102(0.0f, 0.0f, 0.6f, 0.0f) shl 2) shr 22
+        assertEquals(0.6f, z / 511.0f, 0.5f / 511)
+    }
+
+    @Test
+    fun encodePadsPositionsToFourHalves() {
+        val positions = floats(1.0f, -2.0f, 0.5f, 0.0f, 0.0f, 0.0f)
+        val encoded = VertexEncoder.encode(positions, 3, VertexFormat.HALF4)
+        assertEquals(2 * VertexFormat.HALF4.bytes, encoded.remaining())
+        val shorts = encoded.order(ByteOrder.nativeOrder()).asShortBuffer()
+        val expected = intArrayOf(0x3C00, 0xC000, 0x3800, 0x3C00, 0, 0, 0, 0x3C00)
+        for (i in expected.indices) {
+            assertEquals(expected[i], shorts.get(i).toInt() and 0xFFFF)
+        }
+        assertTrue(encoded.isDirect)
+    }
+
+    @Test
+    fun encodeColorsAsBytes() {
+        val encoded = VertexEncoder.encode(floats(1.0f, 0.0f, 0.5f, 1.0f), 4, VertexFormat.UNORM8_4)
+        assertEquals(4, encoded.remaining())
+        assertEquals(255, encoded.get(0).toInt() and 0xFF)
+        assertEquals(0, encoded.get(1).toInt())
+        assertEquals(128, encoded.get(2).toInt() and 0xFF)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsTooManyComponents() {
+        VertexEncoder.encode(floats(1.0f, 2.0f, 3.0f), 3, VertexFormat.HALF2)
+    }
+
+    @Test
+    fun choosesTexCoordFormatByRange() {
+        assertSame(VertexFormat.UNORM16_2, VertexEncoder.chooseTexCoordFormat(floats(0.0f, 1.0f, 0.5f, 0.25f)))
+        assertSame(VertexFormat.SNORM16_2, VertexEncoder.chooseTexCoordFormat(floats(-1.0f, 1.0f, 0.5f, 0.0f)))
+        assertSame(VertexFormat.HALF2, VertexEncoder.chooseTexCoordFormat(floats(-0.5f, 1.5f)))
+        //各种球体的纹理坐标都可以用归一化16位整数
+        for (key in SampleMeshes.SPHERE_LODS + SampleMeshes.SPHERE) {
+            val texCoords = SampleMeshes.generate(key).texCoords
+            assertTrue(key.toString(), VertexEncoder.chooseTexCoordFormat(texCoords) !== VertexFormat.HALF2)
+        }
+    }
+
+    private fun half(value: Float) = VertexEncoder.toHalf(value).toInt() and 0xFFFF
+
+    private fun floats(vararg values: Float): FloatBuffer {
+        val buffer = ByteBuffer.allocateDirect(values.size * 4).order(ByteOrder.nativeOrder()).asFloatBuffer()
+        buffer.put(values).position(0)
+        return buffer
+    }
+}
@@ -0,0 +1,49 @@
+package com.trans.opengles.mesh
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.nio.ByteOrder
+
+/**
+ * 交错顶点布局的偏移计算与数据打包
+ */
+class VertexLayoutTest {
+
+    private val layout = VertexLayout.builder()
+            .add(VertexLayout.POSITION, "aPosition", VertexFormat.HALF4)
+            .add(VertexLayout.TEX_COORD, "aCoordinate", VertexFormat.SNORM16_2)
+            .build()
+
+    @Test
+    fun offsetsFollowDeclarationOrder() {
+        assertEquals(2, layout.size())
+        assertEquals(0, layout.get(0).offset)
+        assertEquals(8, layout.get(1).offset)
+        assertEquals(12, layout.stride)
+        assertEquals(VertexFormat.FLOAT3.bytes, VertexLayout.of(VertexFormat.FLOAT3).stride)
+    }
+
+    @Test
+    fun interleavesEveryStreamAtItsOffset() {
+        val data = SampleMeshes.generate(SampleMeshes.SPHERE_LODS[0])
+        val buffer = layout.interleave(data).order(ByteOrder.nativeOrder())
+        assertEquals(data.vertexCount * layout.stride, buffer.remaining())
+        for (i in 0 until data.vertexCount) {
+            val base = i * layout.stride
+            for (c in 0 until 3) {
+                assertEquals(VertexEncoder.toHalf(data.positions.get(i * 3 + c)), buffer.getShort(base + c * 2))
+            }
+            assertEquals(VertexEncoder.toHalf(1.0f), buffer.getShort(base + 6))
+            for (c in 0 until 2) {
+                assertEquals(VertexEncoder.toSnorm16(data.texCoords.get(i * 2 + c)),
+                        buffer.getShort(base + 8 + c * 2))
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsMissingStream() {
+        VertexLayout.builder().add(VertexLayout.NORMAL, "aNormal", VertexFormat.SNORM_10_10_10_2).build()
+                .interleave(SampleMeshes.generate(SampleMeshes.SPHERE_LODS[0]))
+    }
+}
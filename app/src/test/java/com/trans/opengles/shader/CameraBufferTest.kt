@@ -0,0 +1,51 @@
+package com.trans.opengles.shader
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * 相机uniform块的std140布局
+ */
+class CameraBufferTest {
+
+    @Test
+    fun packMatchesStd140Offsets() {
+        val data = ByteBuffer.allocate(CameraBuffer.SIZE).order(ByteOrder.nativeOrder())
+        val view = FloatArray(16) { it + 1f }
+        val projection = FloatArray(16) { it + 101f }
+        val viewProjection = FloatArray(16) { it + 201f }
+        CameraBuffer.pack(view, projection, viewProjection, 2.5f, data.asFloatBuffer())
+
+        assertEquals(1f, data.getFloat(CameraBuffer.VIEW_OFFSET), 0f)
+        assertEquals(16f, data.getFloat(CameraBuffer.VIEW_OFFSET + 60), 0f)
+        assertEquals(101f, data.getFloat(CameraBuffer.PROJECTION_OFFSET), 0f)
+        assertEquals(201f, data.getFloat(CameraBuffer.VIEW_PROJECTION_OFFSET), 0f)
+        assertEquals(216f, data.getFloat(CameraBuffer.VIEW_PROJECTION_OFFSET + 60), 0f)
+        assertEquals(2.5f, data.getFloat(CameraBuffer.TIME_OFFSET), 0f)
+        //块大小是16字节的整数倍
+        assertEquals(0, CameraBuffer.SIZE % 16)
+    }
+
+    @Test
+    fun includeDeclaresCameraBlock() {
+        val raw = File("src/main/res/raw")
+        val out = ShaderPreprocessor { null }.process(File(raw, "include_camera.glsl").readText())
+        assertTrue(out, out.startsWith("layout (std140) uniform " + CameraBuffer.BLOCK_NAME + " {\n"))
+        assertTrue(out, out.contains("mat4 uViewProjMatrix;\n    float uTime;\n"))
+    }
+
+    @Test
+    fun instancedVariantsReadViewProjectionFromBlock() {
+        val raw = File("src/main/res/raw")
+        val samples = ShaderPreprocessor { File(raw, "$it.glsl").takeIf(File::isFile)?.readText() }
+        for (name in listOf("vertex_shader", "vertex_ball_shader")) {
+            val out = samples.process(File(raw, "$name.glsl").readText(), ShaderVariants.INSTANCED)
+            assertTrue(out, out.contains("#ifdef INSTANCED\nlayout (std140) uniform " + CameraBuffer.BLOCK_NAME + " {\n"))
+            assertTrue(out, out.contains("uViewProjMatrix*(aInstanceModel*vPosition);"))
+        }
+    }
+}
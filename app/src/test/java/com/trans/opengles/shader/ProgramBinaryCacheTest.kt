@@ -0,0 +1,47 @@
+package com.trans.opengles.shader
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+
+/**
+ * 程序二进制文件格式与缓存键
+ */
+class ProgramBinaryCacheTest {
+
+    @Test
+    fun roundTripsBinary() {
+        val binary = ByteBuffer.wrap(ByteArray(37) { it.toByte() })
+        val out = ByteArrayOutputStream()
+        ProgramBinaryCache.write(0x8D64, binary, out)
+        val blob = ProgramBinaryCache.read(ByteBuffer.wrap(out.toByteArray()))
+        assertEquals(0x8D64, blob.format)
+        assertEquals(binary, blob.binary)
+    }
+
+    @Test(expected = IOException::class)
+    fun rejectsTruncatedFile() {
+        val out = ByteArrayOutputStream()
+        ProgramBinaryCache.write(1, ByteBuffer.wrap(ByteArray(64)), out)
+        ProgramBinaryCache.read(ByteBuffer.wrap(out.toByteArray().copyOf(40)))
+    }
+
+    @Test(expected = IOException::class)
+    fun rejectsOtherFiles() {
+        ProgramBinaryCache.read(ByteBuffer.wrap("#version 300 es\nvoid main() {}".toByteArray()))
+    }
+
+    @Test
+    fun keyDependsOnDriverAndSources() {
+        val key = ProgramBinaryCache.key("Adreno\nOpenGL ES 3.2", "vs", "fs")
+        assertEquals(64, key.length)
+        assertEquals(key, ProgramBinaryCache.key("Adreno\nOpenGL ES 3.2", "vs", "fs"))
+        assertNotEquals(key, ProgramBinaryCache.key("Adreno\nOpenGL ES 3.1", "vs", "fs"))
+        assertNotEquals(key, ProgramBinaryCache.key("Adreno\nOpenGL ES 3.2", "vs", "fs2"))
+        //源码的分界不能移动
+        assertNotEquals(ProgramBinaryCache.key("d", "ab", "c"), ProgramBinaryCache.key("d", "a", "bc"))
+    }
+}
@@ -0,0 +1,17 @@
+package com.trans.opengles.shader
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * 着色器源码比较前的规范化
+ */
+class ProgramCacheTest {
+
+    @Test
+    fun normalizeDropsTrailingWhitespaceOnly() {
+        assertEquals("void main() {}\n", ProgramCache.normalize("void main() {}\n\n \n"))
+        assertEquals("void main() {}\n", ProgramCache.normalize("void main() {}"))
+        assertEquals("  a\n\nb\n", ProgramCache.normalize("  a\n\nb"))
+    }
+}
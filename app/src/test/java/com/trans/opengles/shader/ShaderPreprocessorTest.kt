@@ -0,0 +1,83 @@
+package com.trans.opengles.shader
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+
+/**
+ * GLSL预处理：#include、宏注入与规范化
+ */
+class ShaderPreprocessorTest {
+
+    private val includes = mapOf(
+            "transform" to "// 变换\nuniform mat4 u_Matrix;\n",
+            "nested" to "#include \"transform\"\nin vec4 aColor;\n")
+    private val preprocessor = ShaderPreprocessor { includes[it] }
+
+    @Test
+    fun injectsSortedDefinesAfterVersion() {
+        val out = preprocessor.process("#version 300 es\nvoid main() {}\n", "WITH_TEXTURE", "A=2", "A=2")
+        assertEquals("#version 300 es\n#define A 2\n#define WITH_TEXTURE\nvoid main() {}\n", out)
+    }
+
+    @Test
+    fun expandsIncludesOnce() {
+        val out = preprocessor.process("#version 300 es\n#include \"transform\"\n  #  include \"nested\"\nvoid main() {}")
+        assertEquals("#version 300 es\nuniform mat4 u_Matrix;\nin vec4 aColor;\nvoid main() {}\n", out)
+    }
+
+    @Test
+    fun canonicalFormIgnoresCommentsAndWhitespace() {
+        val a = "#version 300 es\r\n// 注释\nin vec4 vColor; /* 颜色 */\n\n\nvoid main() {\n}\n\n"
+        val b = "#version 300 es\nin vec4 vColor;\nvoid main() {\n}"
+        assertEquals(preprocessor.process(b, "B", "A"), preprocessor.process(a, "A", "B"))
+        assertNotEquals(preprocessor.process(b), preprocessor.process(b, "A"))
+    }
+
+    @Test
+    fun blockCommentsKeepLineBreaks() {
+        assertEquals("a\n b\n", ShaderPreprocessor.stripComments("a/* x\n y */b\n"))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsMissingInclude() {
+        preprocessor.process("#include \"missing\"\n")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsVersionInInclude() {
+        ShaderPreprocessor { "#version 300 es\n" }.process("#version 300 es\n#include \"x\"\n")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsIllegalDefine() {
+        preprocessor.process("void main() {}", "1BAD")
+    }
+
+    @Test
+    fun sampleShadersResolveIncludes() {
+        val raw = File("src/main/res/raw")
+        val samples = ShaderPreprocessor { File(raw, "$it.glsl").takeIf(File::isFile)?.readText() }
+        for (name in listOf("vertex_shader", "vertex_ball_shader", "vertex_cylinder_shader", "vertex_globe_shader")) {
+            val out = samples.process(File(raw, "$name.glsl").readText(), ShaderVariants.WITH_TEXTURE)
+            assertTrue(out, out.startsWith("#version 300 es\n#define WITH_TEXTURE\n"))
+            assertTrue(out, out.contains("uniform mat4 u_Matrix;\n"))
+            assertTrue(out, !out.contains("#include") && !out.contains("//"))
+        }
+    }
+
+    @Test
+    fun instancedVariantsDeclareInstanceAttributes() {
+        val raw = File("src/main/res/raw")
+        val samples = ShaderPreprocessor { File(raw, "$it.glsl").takeIf(File::isFile)?.readText() }
+        for (name in listOf("vertex_shader", "vertex_ball_shader")) {
+            val out = samples.process(File(raw, "$name.glsl").readText(), ShaderVariants.INSTANCED)
+            assertTrue(out, out.startsWith("#version 300 es\n#define INSTANCED\n"))
+            assertTrue(out, out.contains("layout (location = 4) in mat4 aInstanceModel;\n"))
+            assertTrue(out, out.contains("layout (location = 8) in vec4 aInstanceColor;\n"))
+            assertTrue(out, out.contains("aInstanceModel*vPosition"))
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.trans.opengles.shader
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * uniform影子值：相同的值不再上传
+ */
+class ShaderProgramTest {
+
+    @Test
+    fun firstUploadAlwaysCopies() {
+        val shadow = FloatArray(16)
+        assertTrue(ShaderProgram.update(shadow, false, FloatArray(16), 0, 16))
+    }
+
+    @Test
+    fun repeatedValueIsSkipped() {
+        val shadow = FloatArray(4)
+        val value = floatArrayOf(9f, 1f, 2f, 3f, 4f)
+        assertTrue(ShaderProgram.update(shadow, false, value, 1, 4))
+        assertArrayEquals(floatArrayOf(1f, 2f, 3f, 4f), shadow, 0f)
+        assertFalse(ShaderProgram.update(shadow, true, value, 1, 4))
+    }
+
+    @Test
+    fun changedValueIsCopied() {
+        val shadow = floatArrayOf(1f, 2f, 3f, 4f)
+        assertTrue(ShaderProgram.update(shadow, true, floatArrayOf(1f, 2f, 3f, 5f), 0, 4))
+        assertArrayEquals(floatArrayOf(1f, 2f, 3f, 5f), shadow, 0f)
+    }
+}
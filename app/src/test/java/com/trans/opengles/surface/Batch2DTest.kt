@@ -0,0 +1,74 @@
+package com.trans.opengles.surface
+
+import android.opengl.GLES30
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/**
+ * 2D批量绘制的顶点打包与图元拆分(不提交,不需要GL)
+ */
+class Batch2DTest {
+
+    private fun bytes(value: Int, order: ByteOrder): List<Int> {
+        val buffer = ByteBuffer.allocate(4).order(order)
+        buffer.putInt(0, value)
+        return (0 until 4).map { buffer.get(it).toInt() and 0xFF }
+    }
+
+    @Test
+    fun rgbaLaysOutBytesInMemoryOrder() {
+        val argb = 0x80112233.toInt()
+        assertEquals(listOf(0x11, 0x22, 0x33, 0x80),
+            bytes(Batch2D.rgba(argb, true), ByteOrder.LITTLE_ENDIAN))
+        assertEquals(listOf(0x11, 0x22, 0x33, 0x80),
+            bytes(Batch2D.rgba(argb, false), ByteOrder.BIG_ENDIAN))
+    }
+
+    @Test
+    fun rectIsTwoTriangles() {
+        val batch = Batch2D()
+        batch.rect(1f, 2f, 10f, 20f, 0xFFFF0000.toInt())
+        batch.rect(0f, 0f, 1f, 1f, 0xFF00FF00.toInt())
+        assertEquals(GLES30.GL_TRIANGLES, batch.mode)
+        assertEquals(8, batch.vertexCount)
+        assertEquals(12, batch.indexCount)
+        val indices = batch.indices.copyOf(12).map { it.toInt() }
+        assertEquals(listOf(0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7), indices)
+        val v = batch.vertices
+        assertEquals(11f, java.lang.Float.intBitsToFloat(v[2 * Batch2D.VERTEX_INTS]), 0f)
+        assertEquals(22f, java.lang.Float.intBitsToFloat(v[2 * Batch2D.VERTEX_INTS + 1]), 0f)
+        assertEquals(2, batch.primitiveCount)
+    }
+
+    @Test
+    fun circleIsFanOfTriangles() {
+        val batch = Batch2D()
+        batch.triangle(0f, 0f, 1f, 0f, 0f, 1f, -1)
+        batch.circle(5f, 5f, 2f, 8, -1, -1)
+        assertEquals(3 + 9, batch.vertexCount)
+        assertEquals(3 + 8 * 3, batch.indexCount)
+        val indices = batch.indices
+        //第一个扇形三角形从圆心开始,最后一个三角形回到第一个边缘顶点
+        assertEquals(listOf(3, 4, 5), (3 until 6).map { indices[it].toInt() })
+        assertEquals(listOf(3, 11, 4), (24 until 27).map { indices[it].toInt() })
+        val v = batch.vertices
+        assertEquals(7f, java.lang.Float.intBitsToFloat(v[4 * Batch2D.VERTEX_INTS]), 1e-6f)
+        assertEquals(5f, java.lang.Float.intBitsToFloat(v[4 * Batch2D.VERTEX_INTS + 1]), 1e-6f)
+    }
+
+    @Test
+    fun circleSegmentsAreClamped() {
+        val batch = Batch2D()
+        batch.circle(0f, 0f, 1f, 1, -1, -1)
+        assertEquals(4, batch.vertexCount)
+        batch.circle(0f, 0f, 1f, 100000, -1, -1)
+        assertEquals(4 + Batch2D.MAX_SEGMENTS + 1, batch.vertexCount)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun capacityMustFitShortIndices() {
+        Batch2D(0x10000)
+    }
+}
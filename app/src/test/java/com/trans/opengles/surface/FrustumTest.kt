@@ -0,0 +1,93 @@
+package com.trans.opengles.surface
+
+import com.trans.opengles.mesh.Bounds
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * 视锥平面提取与包围体剔除
+ */
+class FrustumTest {
+
+    private fun identity() = FloatArray(16).also { for (i in 0 until 16 step 5) it[i] = 1f }
+
+    /**
+     * 与android.opengl.Matrix.perspectiveM相同的透视投影(相机在原点看向-z)
+     */
+    private fun perspective(fovy: Float, aspect: Float, near: Float, far: Float): FloatArray {
+        val f = 1f / Math.tan(Math.toRadians(fovy / 2.0)).toFloat()
+        return FloatArray(16).also {
+            it[0] = f / aspect
+            it[5] = f
+            it[10] = (far + near) / (near - far)
+            it[11] = -1f
+            it[14] = 2f * far * near / (near - far)
+        }
+    }
+
+    private fun translate(x: Float, y: Float, z: Float) = identity().also { it[12] = x; it[13] = y; it[14] = z }
+
+    private val unitBox = Bounds(-1f, -1f, -1f, 1f, 1f, 1f, Math.sqrt(3.0).toFloat())
+
+    @Test
+    fun planesAreNormalized() {
+        val frustum = Frustum().apply { set(perspective(90f, 1f, 1f, 100f)) }
+        val planes = frustum.planes
+        for (p in 0 until Frustum.PLANES) {
+            val a = planes[p * 4]
+            val b = planes[p * 4 + 1]
+            val c = planes[p * 4 + 2]
+            assertEquals(1f, a * a + b * b + c * c, 1e-5f)
+        }
+    }
+
+    @Test
+    fun spheresInsideAndOutside() {
+        val frustum = Frustum().apply { set(perspective(90f, 1f, 1f, 100f)) }
+        assertTrue(frustum.intersectsSphere(0f, 0f, -10f, 1f))
+        //相机后方、近平面之前、远平面之外
+        assertFalse(frustum.intersectsSphere(0f, 0f, 10f, 1f))
+        assertFalse(frustum.intersectsSphere(0f, 0f, -0.5f, 0.2f))
+        assertFalse(frustum.intersectsSphere(0f, 0f, -110f, 5f))
+        //90°视角下z=-10处的半宽为10
+        assertFalse(frustum.intersectsSphere(13f, 0f, -10f, 1f))
+        assertTrue(frustum.intersectsSphere(10.5f, 0f, -10f, 1f))
+    }
+
+    @Test
+    fun boundsFollowModelMatrix() {
+        val frustum = Frustum().apply { set(perspective(90f, 1f, 1f, 100f)) }
+        assertTrue(frustum.intersects(unitBox, translate(0f, 0f, -10f), 0))
+        assertFalse(frustum.intersects(unitBox, translate(0f, 0f, 10f), 0))
+        //放大后的包围体伸入视锥
+        val scaled = translate(20f, 0f, -10f).also { it[0] = 12f; it[5] = 12f; it[10] = 12f }
+        assertTrue(frustum.intersects(unitBox, scaled, 0))
+    }
+
+    @Test
+    fun boxTestIsTighterThanSphere() {
+        val frustum = Frustum().apply { set(perspective(90f, 1f, 1f, 100f)) }
+        //细长的包围盒：包围球与视锥相交,包围盒本身在右侧平面之外
+        val thin = Bounds(-0.1f, -5f, -0.1f, 0.1f, 5f, 0.1f, 5f)
+        val model = translate(14f, 0f, -10f)
+        assertTrue(frustum.intersectsSphere(14f, 0f, -10f, 5f))
+        assertFalse(frustum.intersects(thin, model, 0))
+    }
+
+    @Test
+    fun zeroNearPlaneDoesNotCullInFront() {
+        //近平面为0的投影(AR页面)：近平面退化为z<=0
+        val frustum = Frustum().apply { set(perspective(90f, 1f, 0f, 300f)) }
+        assertTrue(frustum.intersectsSphere(0f, 0f, -0.01f, 0.001f))
+        assertFalse(frustum.intersectsSphere(0f, 0f, 1f, 0.5f))
+    }
+
+    @Test
+    fun identityIsClipCube() {
+        val frustum = Frustum().apply { set(identity()) }
+        assertTrue(frustum.intersects(unitBox, identity(), 0))
+        assertFalse(frustum.intersects(unitBox, translate(3f, 0f, 0f), 0))
+    }
+}
@@ -0,0 +1,44 @@
+package com.trans.opengles.surface
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * 实例数据的打包与扩容(不上传,不需要GL)
+ */
+class InstanceBufferTest {
+
+    private fun matrix(seed: Float) = FloatArray(16) { seed + it }
+
+    @Test
+    fun packWritesModelThenColor() {
+        val data = FloatArray(2 * InstanceBuffer.FLOATS_PER_INSTANCE)
+        val model = FloatArray(20) { it.toFloat() }
+        InstanceBuffer.pack(data, 1, model, 4, 0.1f, 0.2f, 0.3f, 0.4f)
+        val base = InstanceBuffer.FLOATS_PER_INSTANCE
+        assertArrayEquals(model.copyOfRange(4, 20), data.copyOfRange(base, base + 16), 0f)
+        assertArrayEquals(floatArrayOf(0.1f, 0.2f, 0.3f, 0.4f),
+            data.copyOfRange(base + InstanceBuffer.COLOR_OFFSET, base + InstanceBuffer.FLOATS_PER_INSTANCE), 0f)
+        //第一个实例不受影响
+        assertArrayEquals(FloatArray(base), data.copyOfRange(0, base), 0f)
+    }
+
+    @Test
+    fun attributeLocationsDoNotOverlap() {
+        //mat4占用MODEL_LOCATION..MODEL_LOCATION+3
+        assertEquals(InstanceBuffer.MODEL_LOCATION + 4, InstanceBuffer.COLOR_LOCATION)
+        assertEquals(InstanceBuffer.COLOR_OFFSET + 4, InstanceBuffer.FLOATS_PER_INSTANCE)
+    }
+
+    @Test
+    fun addGrowsPastInitialCapacity() {
+        val instances = InstanceBuffer(1)
+        for (i in 0 until 10) {
+            assertEquals(i, instances.add(matrix(i.toFloat()), 0, 1f, 1f, 1f, 1f))
+        }
+        assertEquals(10, instances.count)
+        instances.clear()
+        assertEquals(0, instances.count)
+    }
+}
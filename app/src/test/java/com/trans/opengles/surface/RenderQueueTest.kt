@@ -0,0 +1,81 @@
+package com.trans.opengles.surface
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Random
+
+/**
+ * 绘制队列的排序键与基数排序
+ */
+class RenderQueueTest {
+
+    private fun sort(keys: LongArray): IntArray {
+        val values = IntArray(keys.size) { it }
+        RenderQueue.radixSort(keys, values, keys.size, LongArray(keys.size), IntArray(keys.size), IntArray(256))
+        return values
+    }
+
+    @Test
+    fun radixSortMatchesSortedOrder() {
+        val random = Random(7)
+        val original = LongArray(1000) { random.nextLong() ushr 4 }
+        val keys = original.copyOf()
+        val values = sort(keys)
+        assertArrayEquals(original.sortedArray(), keys)
+        for (i in keys.indices) {
+            assertEquals(original[values[i]], keys[i])
+        }
+    }
+
+    @Test
+    fun radixSortIsStable() {
+        val keys = longArrayOf(5, 1, 5, 1, 5)
+        assertArrayEquals(intArrayOf(1, 3, 0, 2, 4), sort(keys))
+    }
+
+    @Test
+    fun radixSortKeepsEqualKeys() {
+        val keys = LongArray(10) { 42L }
+        assertArrayEquals(IntArray(10) { it }, sort(keys))
+    }
+
+    @Test
+    fun keyOrdersByPassThenDepthThenProgram() {
+        val near = RenderQueue.depthBucket(2f)
+        val far = RenderQueue.depthBucket(20f)
+        val opaqueFar = RenderQueue.key(RenderQueue.PASS_OPAQUE, far, 1, 0, 0)
+        val opaqueNear = RenderQueue.key(RenderQueue.PASS_OPAQUE, near, 9, 9, 9)
+        val transparent = RenderQueue.key(RenderQueue.PASS_TRANSPARENT, 0, 0, 0, 0)
+        assertTrue(opaqueNear < opaqueFar)
+        assertTrue(opaqueFar < transparent)
+        assertTrue(RenderQueue.key(0, near, 1, 5, 5) < RenderQueue.key(0, near, 2, 0, 0))
+        assertTrue(RenderQueue.key(0, near, 1, 1, 5) < RenderQueue.key(0, near, 1, 2, 0))
+    }
+
+    @Test
+    fun depthBucketIsMonotonic() {
+        assertEquals(0, RenderQueue.depthBucket(0f))
+        assertEquals(0, RenderQueue.depthBucket(-3f))
+        assertEquals(0, RenderQueue.depthBucket(Float.NaN))
+        var previous = 0
+        var depth = 0.001f
+        while (depth < 1e6f) {
+            val bucket = RenderQueue.depthBucket(depth)
+            assertTrue(bucket >= previous)
+            assertTrue(bucket <= 0xFFFF)
+            previous = bucket
+            depth *= 1.5f
+        }
+        assertTrue(RenderQueue.depthBucket(Float.POSITIVE_INFINITY) <= 0xFFFF)
+    }
+
+    @Test
+    fun viewDepthUsesClipW() {
+        //透视投影的第4行为(0,0,-1,0),相机位于原点看向-z
+        val viewProjection = FloatArray(16).also { it[0] = 1f; it[5] = 1f; it[10] = 1f; it[11] = -1f }
+        val model = FloatArray(16).also { for (i in 0 until 16 step 5) it[i] = 1f; it[14] = -7f }
+        assertEquals(7f, RenderQueue.viewDepth(viewProjection, model), 0f)
+    }
+}
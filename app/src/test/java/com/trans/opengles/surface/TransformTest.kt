@@ -0,0 +1,49 @@
+package com.trans.opengles.surface
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+/**
+ * CPU上的模型矩阵合成
+ */
+class TransformTest {
+
+    private fun identity() = FloatArray(16).also { for (i in 0 until 16 step 5) it[i] = 1f }
+
+    private fun translate(x: Float, y: Float, z: Float) = identity().also { it[12] = x; it[13] = y; it[14] = z }
+
+    private fun scale(x: Float, y: Float, z: Float) = identity().also { it[0] = x; it[5] = y; it[10] = z }
+
+    @Test
+    fun composeAppliesLocalThenModel() {
+        val transform = Transform()
+        val model = transform.compose(translate(1f, 0f, 0f), scale(1f, 3f, 1f))
+        //M * (1,1,1,1) = (1,3,1) + (1,0,0)
+        val p = FloatArray(4) { row -> model[row] + model[4 + row] + model[8 + row] + model[12 + row] }
+        assertArrayEquals(floatArrayOf(2f, 3f, 1f, 1f), p, 1e-6f)
+        assertSame(model, transform.model)
+    }
+
+    @Test
+    fun mvpAppliesViewProjectionToComposedModel() {
+        val transform = Transform()
+        transform.compose(translate(1f, 0f, 0f), scale(1f, 3f, 1f))
+        val mvp = transform.mvp(scale(2f, 2f, 2f))
+        //MVP * (1,1,1,1) = 2 * ((1,3,1) + (1,0,0))
+        val p = FloatArray(4) { row -> mvp[row] + mvp[4 + row] + mvp[8 + row] + mvp[12 + row] }
+        assertArrayEquals(floatArrayOf(4f, 6f, 2f, 1f), p, 1e-6f)
+        assertSame(mvp, transform.mvp)
+    }
+
+    @Test
+    fun mvpReadsModelFromSlot() {
+        val transform = Transform()
+        val models = FloatArray(32)
+        System.arraycopy(translate(1f, 2f, 3f), 0, models, 16, 16)
+        val mvp = transform.mvp(scale(2f, 2f, 2f), models, 16)
+        //MVP * (0,0,0,1) = 2 * (1,2,3)
+        assertArrayEquals(floatArrayOf(2f, 4f, 6f, 1f), mvp.copyOfRange(12, 16), 1e-6f)
+        assertArrayEquals(translate(1f, 2f, 3f), transform.model, 0f)
+    }
+}
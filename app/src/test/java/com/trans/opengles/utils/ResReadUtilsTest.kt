@@ -0,0 +1,31 @@
+package com.trans.opengles.utils
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.FilterInputStream
+
+/**
+ * 资源文本的整体读取
+ */
+class ResReadUtilsTest {
+
+    @Test
+    fun readsWholeStreamAsUtf8() {
+        val text = "#version 300 es\r\n// 片段着色器\nvoid main() {}\n"
+        assertEquals(text, ResReadUtils.readText(ByteArrayInputStream(text.toByteArray())))
+        assertEquals("", ResReadUtils.readText(ByteArrayInputStream(ByteArray(0))))
+    }
+
+    @Test
+    fun growsWhenAvailableUnderestimates() {
+        for (size in listOf(255, 256, 257, 5000)) {
+            val text = "x".repeat(size)
+            //available()总是返回0的流
+            val stream = object : FilterInputStream(ByteArrayInputStream(text.toByteArray())) {
+                override fun available() = 0
+            }
+            assertEquals(text, ResReadUtils.readText(stream))
+        }
+    }
+}